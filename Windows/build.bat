@@ -1,6 +1,6 @@
 @echo off
 echo [ Compiling library classes... ]
-dir /s /B .\*.java > .\build\sources.txt
+dir /s /B .\src\org\*.java > .\build\sources.txt
 javac -cp C:\Users\ksavchenko\Documents\Projects\Java\SimpleEncodings\production\* @.\build\sources.txt -encoding utf8 -d .\build
 echo [ Library classes compiled successfully! ]
 echo [ Compiling .jar... ]
@@ -0,0 +1,97 @@
+package org.SimpleDictionaryService.benchmark;
+
+import org.SimpleDictionaryService.AsyncDictionaryService;
+import org.SimpleDictionaryService.ConcurrentDictionaryService;
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.ExecutionStyle;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Бенчмарк длительности изменения записей несколькими клиентскими потоками при типе выполнения операций HARD:
+ * синхронные изменения потокобезопасного сервиса против изменений через очередь неблокирующего сервиса.
+ * Синхронный клиент блокируется на каждом изменении, неблокирующий клиент ставит все свои изменения в очередь
+ * и ожидает их сохранения в конце.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AsyncMutationBenchmark {
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"sync", "async"})
+    public String mode;
+
+    @Param({"16"})
+    public int clients;
+
+    @Param({"1600"})
+    public int updates;
+
+    private Dictionary dictionary;
+
+    private ConcurrentDictionaryService dictionaryService;
+
+    private AsyncDictionaryService asyncService;
+
+    private String[] keys;
+
+    private ExecutorService clientExecutor;
+
+    private final AtomicInteger position = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dictionary = SyntheticDictionary.generate(size, "latin", "russian", 42);
+        dictionaryService = new ConcurrentDictionaryService(dictionary, ExecutionStyle.HARD);
+        asyncService = new AsyncDictionaryService(dictionaryService);
+        keys = SyntheticDictionary.readKeys(dictionary);
+        clientExecutor = Executors.newFixedThreadPool(clients);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        clientExecutor.shutdown();
+        asyncService.close().join();
+        dictionaryService.setExecutionStyle(ExecutionStyle.LAZY);
+        SyntheticDictionary.delete(dictionary);
+    }
+
+    @Benchmark
+    public void update() throws Exception {
+        List<Future<?>> results = new ArrayList<>(clients);
+        for (int client = 0; client < clients; client++) {
+            results.add(clientExecutor.submit(() -> {
+                List<CompletableFuture<Boolean>> updated = new ArrayList<>();
+                for (int counter = 0; counter < updates / clients; counter++) {
+                    int index = (position.getAndIncrement() & Integer.MAX_VALUE) % keys.length;
+                    if ("async".equals(mode)){
+                        updated.add(asyncService.updateRecord(keys[index], "слово" + (index & 15)));
+                    }else {
+                        dictionaryService.updateRecord(keys[index], "слово" + (index & 15));
+                    }
+                }
+                updated.forEach(CompletableFuture::join);
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.SimpleDictionaryService.benchmark;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.io.DictionaryCharsets;
+import org.SimpleDictionaryService.io.EncodingValidator;
+import org.SimpleDictionaryService.language.Language;
+import org.SimpleEncodings.Encoding;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Бенчмарк проверки соответствия байтов кодировке: потоковая проверка EncodingValidator частями по 64 КБ
+ * и строгое декодирование CharsetDecoder в переиспользуемый буфер. Размер входа равен 1 МБ с точностью до
+ * строки, поэтому количество операций в секунду равно пропускной способности в МБ/с. Текст в ASCII
+ * всегда состоит из латинских слов.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EncodingBenchmark {
+
+    private static final int INPUT_SIZE = 1024 * 1024;
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    @Param({"utf8", "utf16le", "utf16be", "ascii"})
+    public String encoding;
+
+    @Param({"latin", "russian"})
+    public String language;
+
+    @Param({"validator", "decoder"})
+    public String method;
+
+    private byte[] bytes;
+
+    private EncodingValidator validator;
+
+    private CharsetDecoder decoder;
+
+    private CharBuffer chars;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Encoding dictionaryEncoding = encodingOf(encoding);
+        Language textLanguage = Language.getLanguageByName(dictionaryEncoding == Encoding.DEFAULT_ASCII ? "latin" : language);
+        Random random = new Random(42);
+        ByteArrayOutputStream output = new ByteArrayOutputStream(INPUT_SIZE + 256);
+        while (true){
+            String line = SyntheticDictionary.randomWord(random, textLanguage) + Dictionary.DEFAULT_SEPARATOR
+                    + SyntheticDictionary.randomWord(random, textLanguage) + "\n";
+            byte[] lineBytes = line.getBytes(DictionaryCharsets.forEncoding(dictionaryEncoding));
+            if (output.size() + lineBytes.length > INPUT_SIZE){
+                break;
+            }
+            output.write(lineBytes);
+        }
+        bytes = output.toByteArray();
+        validator = EncodingValidator.forEncoding(dictionaryEncoding);
+        decoder = DictionaryCharsets.forEncoding(dictionaryEncoding).newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        chars = CharBuffer.allocate(CHUNK_SIZE);
+    }
+
+    @Benchmark
+    public boolean validate(){
+        if ("decoder".equals(method)){
+            return decode();
+        }
+        validator.reset();
+        for (int from = 0; from < bytes.length; from += CHUNK_SIZE) {
+            if (validator.validate(bytes, from, Math.min(bytes.length, from + CHUNK_SIZE)) >= 0){
+                throw new IllegalStateException("Valid input rejected");
+            }
+        }
+        return validator.isComplete();
+    }
+
+    private boolean decode(){
+        decoder.reset();
+        ByteBuffer input = ByteBuffer.wrap(bytes);
+        while (true){
+            chars.clear();
+            CoderResult result = decoder.decode(input, chars, true);
+            if (result.isError()){
+                throw new IllegalStateException("Valid input rejected");
+            }
+            if (result.isUnderflow()){
+                break;
+            }
+        }
+        chars.clear();
+        return decoder.flush(chars).isUnderflow();
+    }
+
+    private static Encoding encodingOf(String name){
+        switch (name){
+            case "utf16le":
+                return Encoding.DEFAULT_UTF16LE;
+            case "utf16be":
+                return Encoding.DEFAULT_UTF16BE;
+            case "ascii":
+                return Encoding.DEFAULT_ASCII;
+            default:
+                return Encoding.DEFAULT_UTF8;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.SimpleDictionaryService.benchmark;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.DictionaryService;
+import org.SimpleDictionaryService.ExecutionStyle;
+import org.SimpleDictionaryService.index.FuzzyMatch;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Бенчмарк задержки нечеткого поиска записей по запросам с одной опечаткой.
+ * Размер 10000000 требует не менее 8 ГБ памяти кучи.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class FuzzyLookupBenchmark {
+
+    private static final int QUERIES_COUNT = 1024;
+
+    @Param({"100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"latin"})
+    public String keyLanguage;
+
+    @Param({"1", "2"})
+    public int maxDistance;
+
+    @Param({"5"})
+    public int limit;
+
+    private Dictionary dictionary;
+
+    private DictionaryService dictionaryService;
+
+    private String[] queries;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int position;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dictionary = SyntheticDictionary.generate(size, keyLanguage, keyLanguage, 42);
+        dictionaryService = new DictionaryService(dictionary, ExecutionStyle.LAZY);
+        String[] keys = SyntheticDictionary.readKeys(dictionary);
+        Random random = new Random(7);
+        queries = new String[QUERIES_COUNT];
+        for (int counter = 0; counter < QUERIES_COUNT; counter++) {
+            char[] query = keys[random.nextInt(keys.length)].toCharArray();
+            int position = random.nextInt(query.length);
+            query[position] = query[(position + 1) % query.length];
+            queries[counter] = new String(query);
+        }
+        dictionaryService.findSimilarKeys(queries[0], maxDistance, limit);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        SyntheticDictionary.delete(dictionary);
+    }
+
+    @Benchmark
+    public List<FuzzyMatch> findSimilar(Cursor cursor){
+        String query = queries[cursor.position];
+        cursor.position = (cursor.position + 1) & (QUERIES_COUNT - 1);
+        return dictionaryService.findSimilarKeys(query, maxDistance, limit);
+    }
+}
@@ -0,0 +1,49 @@
+package org.SimpleDictionaryService.benchmark;
+
+import org.SimpleDictionaryService.language.Language;
+import org.SimpleEncodings.Encoding;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Бенчмарк определения количества символов строки, соответствующих языку.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LanguageBenchmark {
+
+    @Param({"latin", "russian", "digits"})
+    public String textLanguage;
+
+    @Param({"latin", "russian"})
+    public String language;
+
+    private Language matchedLanguage;
+
+    private String text;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        matchedLanguage = Language.getLanguageByName(language);
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < 256){
+            builder.append(SyntheticDictionary.randomWord(random, Language.getLanguageByName(textLanguage))).append(' ');
+        }
+        text = builder.toString();
+    }
+
+    @Benchmark
+    public int countOfMatches(){
+        return matchedLanguage.countOfMatches(text, Encoding.DEFAULT_UTF8);
+    }
+}
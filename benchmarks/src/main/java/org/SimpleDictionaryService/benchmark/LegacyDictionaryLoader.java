@@ -0,0 +1,49 @@
+package org.SimpleDictionaryService.benchmark;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.DictionaryRecord;
+import org.SimpleDictionaryService.io.LoadStatistics;
+import org.SimpleEncodings.throwable.WrongEncodingException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой копию первоначального алгоритма загрузки словаря (считывание всех байтов файла
+ * для проверки кодировки и повторное построчное чтение с разбором через String.split).
+ * Используется только как точка отсчета в бенчмарках загрузки.
+ */
+final class LegacyDictionaryLoader {
+
+    private LegacyDictionaryLoader(){
+
+    }
+
+    static LoadStatistics load(Dictionary dictionary, Consumer<DictionaryRecord> consumer) throws IOException, WrongEncodingException {
+        byte[] dictionaryBytes;
+        try (InputStream inputStream = new FileInputStream(dictionary)) {
+            dictionaryBytes = new byte[inputStream.available()];
+            inputStream.read(dictionaryBytes);
+        }
+        if (dictionaryBytes.length > 20 && !dictionary.getEncoding().isArrayOfBytesMatchTheEncoding(dictionaryBytes)){
+            throw new WrongEncodingException();
+        }
+        LoadStatistics statistics = new LoadStatistics();
+        try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(new FileInputStream(dictionary), StandardCharsets.UTF_8))) {
+            String currentLine;
+            while ((currentLine = bufferedReader.readLine()) != null){
+                String[] keyWordPair = currentLine.split(dictionary.getSeparator());
+                DictionaryRecord record = new DictionaryRecord(keyWordPair[0], keyWordPair[1]);
+                statistics.addRecord(
+                        record.getKey().length(), dictionary.getKeyLanguage().countOfMatches(record.getKey(), dictionary.getEncoding()),
+                        record.getWord().length(), dictionary.getWordLanguage().countOfMatches(record.getWord(), dictionary.getEncoding()));
+                consumer.accept(record);
+            }
+        }
+        return statistics;
+    }
+}
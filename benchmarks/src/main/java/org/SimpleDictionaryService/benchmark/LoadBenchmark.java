@@ -0,0 +1,69 @@
+package org.SimpleDictionaryService.benchmark;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.io.DictionaryLoader;
+import org.SimpleDictionaryService.io.LoadStatistics;
+import org.SimpleDictionaryService.io.ParallelDictionaryLoader;
+import org.SimpleDictionaryService.store.IndexedRecordStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Бенчмарк загрузки словаря: первоначальный алгоритм, потоковый и параллельный загрузчики.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LoadBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"latin", "russian", "digits"})
+    public String keyLanguage;
+
+    @Param({"russian"})
+    public String wordLanguage;
+
+    @Param({"legacy", "streaming", "parallel"})
+    public String loader;
+
+    private Dictionary dictionary;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dictionary = SyntheticDictionary.generate(size, keyLanguage, wordLanguage, 42);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        SyntheticDictionary.delete(dictionary);
+    }
+
+    @Benchmark
+    public IndexedRecordStore load() throws Exception {
+        IndexedRecordStore store = new IndexedRecordStore(size);
+        LoadStatistics statistics;
+        switch (loader){
+            case "legacy":
+                statistics = LegacyDictionaryLoader.load(dictionary, store::putIfAbsent);
+                break;
+            case "parallel":
+                statistics = new ParallelDictionaryLoader().load(dictionary, store::putIfAbsent);
+                break;
+            default:
+                statistics = new DictionaryLoader().load(dictionary, store::putIfAbsent);
+        }
+        if (statistics.getRecordsCount() != size){
+            throw new IllegalStateException("Loaded " + statistics.getRecordsCount() + " records of " + size);
+        }
+        return store;
+    }
+}
@@ -0,0 +1,88 @@
+package org.SimpleDictionaryService.benchmark;
+
+import org.SimpleDictionaryService.ConcurrentDictionaryService;
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.DictionaryRecord;
+import org.SimpleDictionaryService.DictionaryService;
+import org.SimpleDictionaryService.ExecutionStyle;
+import org.SimpleDictionaryService.metrics.DictionaryMetrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Бенчмарк пропускной способности поиска записей по ключу.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LookupBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    @Param({"latin"})
+    public String keyLanguage;
+
+    @Param({"russian"})
+    public String wordLanguage;
+
+    @Param({"plain", "concurrent"})
+    public String service;
+
+    /**
+     * Признак установки встроенного получателя измерений, "off" показывает накладные расходы отключенных измерений.
+     */
+    @Param({"off", "on"})
+    public String metrics;
+
+    private Dictionary dictionary;
+
+    private DictionaryService dictionaryService;
+
+    private String[] keys;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int position;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dictionary = SyntheticDictionary.generate(size, keyLanguage, wordLanguage, 42);
+        dictionaryService = "concurrent".equals(service)
+                ? new ConcurrentDictionaryService(dictionary, ExecutionStyle.LAZY)
+                : new DictionaryService(dictionary, ExecutionStyle.LAZY);
+        if ("on".equals(metrics)){
+            DictionaryMetrics.attach(dictionaryService);
+        }
+        keys = SyntheticDictionary.readKeys(dictionary);
+        Collections.shuffle(Arrays.asList(keys), new Random(7));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        SyntheticDictionary.delete(dictionary);
+    }
+
+    @Benchmark
+    public DictionaryRecord readExisting(Cursor cursor){
+        String key = keys[cursor.position];
+        cursor.position = cursor.position + 1 == keys.length ? 0 : cursor.position + 1;
+        return dictionaryService.readRecord(key);
+    }
+
+    @Benchmark
+    public DictionaryRecord readMissing(){
+        return dictionaryService.readRecord("0");
+    }
+}
@@ -0,0 +1,73 @@
+package org.SimpleDictionaryService.benchmark;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.io.DictionaryLoader;
+import org.SimpleDictionaryService.store.DiskRecordStore;
+import org.SimpleDictionaryService.store.FileBackedRecordStore;
+import org.SimpleDictionaryService.store.IndexedRecordStore;
+import org.SimpleDictionaryService.store.PackedRecordStore;
+import org.SimpleDictionaryService.store.RecordStore;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Измерение объема памяти, занимаемого хранилищами записей разных типов после загрузки одного и того же словаря.
+ * Запуск: java -cp benchmarks.jar:SimpleEncodings.jar org.SimpleDictionaryService.benchmark.MemoryFootprint [количество записей]
+ */
+public final class MemoryFootprint {
+
+    private MemoryFootprint(){
+
+    }
+
+    public static void main(String[] args) throws Exception {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Dictionary dictionary = SyntheticDictionary.generate(size, "latin", "russian", 42);
+        try {
+            System.out.printf("%-16s %14s %14s %12s%n", "store", "heap bytes", "direct bytes", "per record");
+            measure("indexed", new IndexedRecordStore(), dictionary, size);
+            measure("packed", new PackedRecordStore(false), dictionary, size);
+            measure("packed-offheap", new PackedRecordStore(true), dictionary, size);
+            measure("disk", new DiskRecordStore(), dictionary, size);
+        }finally {
+            SyntheticDictionary.delete(dictionary);
+        }
+    }
+
+    private static void measure(String name, RecordStore store, Dictionary dictionary, int size) throws Exception {
+        long heapBefore = usedHeap(), directBefore = usedDirect();
+        if (store instanceof FileBackedRecordStore){
+            ((FileBackedRecordStore) store).open(dictionary);
+        }else {
+            new DictionaryLoader().load(dictionary, store::putIfAbsent);
+        }
+        long heap = usedHeap() - heapBefore, direct = usedDirect() - directBefore;
+        System.out.printf("%-16s %14d %14d %12.1f%n", name, heap, direct, (double) (heap + direct) / size);
+        if (store.size() != size){
+            throw new IllegalStateException("Loaded " + store.size() + " records of " + size);
+        }
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int counter = 0; counter < 4; counter++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long usedDirect(){
+        long used = 0;
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())){
+                used += pool.getMemoryUsed();
+            }
+        }
+        return used;
+    }
+}
@@ -0,0 +1,63 @@
+package org.SimpleDictionaryService.benchmark;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.DictionaryRecord;
+import org.SimpleDictionaryService.DictionaryService;
+import org.SimpleDictionaryService.ExecutionStyle;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Бенчмарк пропускной способности изменения записей при разных типах выполнения операций.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MutationBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"LAZY", "HARD", "JOURNAL"})
+    public ExecutionStyle executionStyle;
+
+    private Dictionary dictionary;
+
+    private DictionaryService dictionaryService;
+
+    private String[] keys;
+
+    private int position;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dictionary = SyntheticDictionary.generate(size, "latin", "russian", 42);
+        dictionaryService = new DictionaryService(dictionary, executionStyle);
+        keys = SyntheticDictionary.readKeys(dictionary);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        dictionaryService.setExecutionStyle(ExecutionStyle.LAZY);
+        SyntheticDictionary.delete(dictionary);
+    }
+
+    @Benchmark
+    public void update(){
+        position = position + 1 == keys.length ? 0 : position + 1;
+        dictionaryService.updateRecord(keys[position], "слово" + (position & 15));
+    }
+
+    @Benchmark
+    public void createAndDelete(){
+        dictionaryService.createRecord(new DictionaryRecord("benchmarkkey", "слово"));
+        dictionaryService.deleteRecord("benchmarkkey");
+    }
+}
@@ -0,0 +1,92 @@
+package org.SimpleDictionaryService.benchmark;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.DictionaryRecord;
+import org.SimpleDictionaryService.io.LineTokenizer;
+import org.SimpleDictionaryService.io.MalformedLineHandler;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Бенчмарк разбора строк словаря, уже прочитанного в память: первоначальный разбор через String.split,
+ * декодирование строки целиком с поиском разделителя в ней и разбор по байтам LineTokenizer.
+ * Запуск с -prof gc показывает объем выделяемой памяти на операцию.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"latin", "russian"})
+    public String language;
+
+    @Param({"split", "string", "tokenizer"})
+    public String parser;
+
+    private Dictionary dictionary;
+
+    private byte[] bytes;
+
+    private List<DictionaryRecord> records;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dictionary = SyntheticDictionary.generate(size, language, language, 42);
+        bytes = Files.readAllBytes(dictionary.toPath());
+        records = new ArrayList<>(size);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        SyntheticDictionary.delete(dictionary);
+    }
+
+    @Benchmark
+    public List<DictionaryRecord> parse() throws Exception {
+        records.clear();
+        String separator = dictionary.getSeparator();
+        switch (parser){
+            case "split":
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null){
+                        String[] keyWordPair = line.split(separator);
+                        records.add(new DictionaryRecord(keyWordPair[0], keyWordPair[1]));
+                    }
+                }
+                break;
+            case "string":
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null){
+                        int separatorIndex = line.indexOf(separator);
+                        records.add(new DictionaryRecord(line.substring(0, separatorIndex), line.substring(separatorIndex + separator.length())));
+                    }
+                }
+                break;
+            default:
+                new LineTokenizer(separator).tokenize(bytes, bytes.length, 1, records, MalformedLineHandler.PRINT);
+        }
+        if (records.size() != size){
+            throw new IllegalStateException("Parsed " + records.size() + " records of " + size);
+        }
+        return records;
+    }
+}
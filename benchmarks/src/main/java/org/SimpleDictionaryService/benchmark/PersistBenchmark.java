@@ -0,0 +1,46 @@
+package org.SimpleDictionaryService.benchmark;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.DictionaryService;
+import org.SimpleDictionaryService.ExecutionStyle;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Бенчмарк записи словаря на диск.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PersistBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    private Dictionary dictionary;
+
+    private DictionaryService dictionaryService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dictionary = SyntheticDictionary.generate(size, "latin", "russian", 42);
+        dictionaryService = new DictionaryService(dictionary, ExecutionStyle.LAZY);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        SyntheticDictionary.delete(dictionary);
+    }
+
+    @Benchmark
+    public void writeDictionary(){
+        dictionaryService.writeDictionary();
+    }
+}
@@ -0,0 +1,84 @@
+package org.SimpleDictionaryService.benchmark;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.io.DictionaryReader;
+import org.SimpleDictionaryService.pipeline.DictionaryPipeline;
+import org.SimpleDictionaryService.pipeline.ExternalSorter;
+import org.SimpleDictionaryService.pipeline.KeyConflictPolicy;
+import org.SimpleEncodings.Encoding;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Бенчмарк потоковых преобразований словарей. Пропускная способность в записях в секунду равна size,
+ * деленному на время операции; ограничение памяти 8 МБ заставляет внешнюю сортировку использовать временные файлы.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class PipelineBenchmark {
+
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"8388608", "1073741824"})
+    public long memoryLimit;
+
+    private Dictionary first;
+
+    private Dictionary second;
+
+    private Dictionary target;
+
+    private ExternalSorter sorter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        first = SyntheticDictionary.generate(size, "latin", "russian", 42);
+        second = SyntheticDictionary.generate(size, "latin", "russian", 43);
+        File file = File.createTempFile("pipeline-target-", ".txt");
+        file.deleteOnExit();
+        target = new Dictionary(file.getPath(), Encoding.DEFAULT_UTF16LE, first.getWordLanguage(), first.getKeyLanguage(), "=");
+        sorter = new ExternalSorter(memoryLimit);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        SyntheticDictionary.delete(first);
+        SyntheticDictionary.delete(second);
+        SyntheticDictionary.delete(target);
+    }
+
+    @Benchmark
+    public long read() throws Exception {
+        try (Stream<?> records = DictionaryReader.stream(first)) {
+            return records.count();
+        }
+    }
+
+    @Benchmark
+    public long convert() throws Exception {
+        return DictionaryPipeline.convert(first, target);
+    }
+
+    @Benchmark
+    public long merge() throws Exception {
+        return DictionaryPipeline.merge(target, KeyConflictPolicy.KEEP_LAST, sorter, first, second);
+    }
+
+    @Benchmark
+    public long diff() throws Exception {
+        long[] count = new long[1];
+        DictionaryPipeline.diff(first, second, sorter, operation -> count[0]++);
+        return count[0];
+    }
+}
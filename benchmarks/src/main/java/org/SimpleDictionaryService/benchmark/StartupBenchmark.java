@@ -0,0 +1,67 @@
+package org.SimpleDictionaryService.benchmark;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.DictionaryService;
+import org.SimpleDictionaryService.ExecutionStyle;
+import org.SimpleDictionaryService.io.DictionarySnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Бенчмарк запуска сервиса словарей: загрузка из текстового файла - словаря и из двоичного снимка.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    @Param({"latin"})
+    public String keyLanguage;
+
+    @Param({"russian"})
+    public String wordLanguage;
+
+    @Param({"text", "snapshot"})
+    public String source;
+
+    private Dictionary dictionary;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dictionary = SyntheticDictionary.generate(size, keyLanguage, wordLanguage, 42);
+        if ("snapshot".equals(source)){
+            start();
+            if (DictionarySnapshot.open(dictionary) == null){
+                throw new IllegalStateException("Snapshot was not written");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        DictionarySnapshot.delete(dictionary);
+        SyntheticDictionary.delete(dictionary);
+    }
+
+    @Benchmark
+    public DictionaryService start() throws Exception {
+        DictionaryService service = new DictionaryService();
+        service.setExecutionStyle(ExecutionStyle.LAZY);
+        service.setSnapshotEnabled("snapshot".equals(source));
+        service.setCurrentDictionary(dictionary);
+        if (service.getRecordStore().size() != size){
+            throw new IllegalStateException("Loaded " + service.getRecordStore().size() + " records of " + size);
+        }
+        return service;
+    }
+}
@@ -0,0 +1,112 @@
+package org.SimpleDictionaryService.benchmark;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.language.Language;
+import org.SimpleEncodings.Encoding;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель генератора синтетических словарей для бенчмарков.
+ */
+public final class SyntheticDictionary {
+
+    public static final int MINIMAL_WORD_LENGTH = 4;
+    public static final int MAXIMAL_WORD_LENGTH = 12;
+
+    private SyntheticDictionary(){
+
+    }
+
+    /**
+     * Назначением функции является создание временного файла - словаря со случайными записями.
+     * @param recordsCount
+     * Количество записей словаря, ключи записей уникальны.
+     * @param keyLanguageName
+     * Имя языка ключей ("latin", "russian" или "digits").
+     * @param wordLanguageName
+     * Имя языка значений ("latin", "russian" или "digits").
+     * @param seed
+     * Начальное значение генератора случайных чисел.
+     * @return
+     * Указатель на созданный словарь в кодировке UTF-8.
+     */
+    public static Dictionary generate(int recordsCount, String keyLanguageName, String wordLanguageName, long seed) throws IOException {
+        Language keyLanguage = Language.getLanguageByName(keyLanguageName), wordLanguage = Language.getLanguageByName(wordLanguageName);
+        File file = File.createTempFile("synthetic-dictionary-", ".txt");
+        file.deleteOnExit();
+        Random random = new Random(seed);
+        Set<String> keys = new HashSet<>(recordsCount * 2);
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), 1 << 16)) {
+            while (keys.size() < recordsCount){
+                String key = randomWord(random, keyLanguage);
+                if (keys.add(key)){
+                    writer.write(key);
+                    writer.write(Dictionary.DEFAULT_SEPARATOR);
+                    writer.write(randomWord(random, wordLanguage));
+                    writer.write('\n');
+                }
+            }
+        }
+        return new Dictionary(file.getPath(), Encoding.DEFAULT_UTF8, wordLanguage, keyLanguage, Dictionary.DEFAULT_SEPARATOR);
+    }
+
+    /**
+     * @return
+     * Случайная строка из символов языка длиной от MINIMAL_WORD_LENGTH до MAXIMAL_WORD_LENGTH.
+     */
+    public static String randomWord(Random random, Language language){
+        int[][] intervals = language.getEncodingIntervalTable(Encoding.DEFAULT_UTF8).getIntervals();
+        int symbolsCount = 0;
+        for (int[] interval : intervals) {
+            symbolsCount += interval[1] - interval[0] + 1;
+        }
+        int length = MINIMAL_WORD_LENGTH + random.nextInt(MAXIMAL_WORD_LENGTH - MINIMAL_WORD_LENGTH + 1);
+        StringBuilder builder = new StringBuilder(length);
+        for (int counter = 0; counter < length; counter++) {
+            int symbol = random.nextInt(symbolsCount);
+            for (int[] interval : intervals) {
+                int intervalSize = interval[1] - interval[0] + 1;
+                if (symbol < intervalSize){
+                    builder.append((char) (interval[0] + symbol));
+                    break;
+                }
+                symbol -= intervalSize;
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return
+     * Ключи записей словаря в порядке их следования в файле.
+     */
+    public static String[] readKeys(Dictionary dictionary) throws IOException {
+        List<String> keys = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(dictionary), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null){
+                keys.add(line.substring(0, line.indexOf(dictionary.getSeparator())));
+            }
+        }
+        return keys.toArray(new String[0]);
+    }
+
+    /**
+     * Назначением функции является удаление файла - словаря вместе со служебными файлами сервиса.
+     */
+    public static void delete(Dictionary dictionary){
+        File directory = dictionary.getAbsoluteFile().getParentFile();
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(dictionary.getName()));
+        if (files != null){
+            for (File file : files) {
+                file.delete();
+            }
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package org.SimpleDictionaryService;
+
+import org.SimpleDictionaryService.throwable.UnknownEncodingException;
+import org.SimpleDictionaryService.throwable.UnknownLanguageException;
+import org.SimpleDictionaryService.throwable.WrongOperationException;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель неблокирующего доступа к сервису словарей.
+ * Чтения выполняются из памяти в вызывающем потоке и возвращают уже завершенный результат. Изменения, запись
+ * и загрузка словаря ставятся в очередь, которую разбирает единственный поток - писатель, поэтому они применяются
+ * в порядке постановки в очередь. Изменения, накопившиеся в очереди, применяются писателем вместе и сохраняются
+ * однократно в соответствии с типом выполнения операций сервиса, так что при типе HARD несколько изменений
+ * приводят к одной записи словаря на диск. Результат изменения завершается после его сохранения, а если
+ * сохранить изменения не удалось, результаты всех изменений пакета завершаются с IOException.
+ * Чтение, начатое до завершения результата изменения, может не наблюдать это изменение.
+ * Чтения выполняются в вызывающих потоках одновременно с изменениями писателя, поэтому сервис словарей
+ * должен хранить записи в потокобезопасном хранилище, например быть ConcurrentDictionaryService.
+ */
+public class AsyncDictionaryService {
+
+    /**
+     * Наибольшее количество изменений, применяемых писателем с однократным сохранением, по умолчанию.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1024;
+
+    private final DictionaryService service;
+
+    private final ExecutorService executor;
+
+    /**
+     * Признак того, что пул потоков создан сервисом и должен быть завершен при его закрытии.
+     */
+    private final boolean ownExecutor;
+
+    private final int maxBatchSize;
+
+    /**
+     * Очередь задач писателя.
+     */
+    private final ConcurrentLinkedQueue<Task> queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Признак того, что писатель запланирован или выполняется.
+     */
+    private final AtomicBoolean writerScheduled = new AtomicBoolean();
+
+    private volatile boolean closed;
+
+    /**
+     * @throws IllegalArgumentException
+     * Если хранилище записей сервиса не является потокобезопасным или размер пакета не положителен.
+     */
+    public AsyncDictionaryService(DictionaryService service, ExecutorService executor, int maxBatchSize){
+        if (maxBatchSize < 1){
+            throw new IllegalArgumentException("Batch size must be positive: " + maxBatchSize);
+        }
+        requireThreadSafe(service);
+        this.service = service;
+        this.executor = executor;
+        this.ownExecutor = false;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public AsyncDictionaryService(DictionaryService service, ExecutorService executor){
+        this(service, executor, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Сервис с собственным пулом потоков: виртуальные потоки на Java 21 и новее, иначе кэширующий пул потоков - демонов.
+     */
+    public AsyncDictionaryService(DictionaryService service){
+        requireThreadSafe(service);
+        this.service = service;
+        this.executor = newDefaultExecutor();
+        this.ownExecutor = true;
+        this.maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    }
+
+    private static void requireThreadSafe(DictionaryService service){
+        if (!service.getRecordStore().isThreadSafe()){
+            throw new IllegalArgumentException("Asynchronous access requires a thread-safe record store");
+        }
+    }
+
+    /**
+     * Назначением функции является создание пула потоков по умолчанию. Виртуальные потоки создаются через отражение,
+     * так как проект собирается для Java 8.
+     */
+    private static ExecutorService newDefaultExecutor(){
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        }catch (ReflectiveOperationException exception){
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "dictionary-async-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * @see DictionaryService#readRecord(String)
+     */
+    public CompletableFuture<DictionaryRecord> readRecord(String key){
+        return CompletableFuture.completedFuture(service.readRecord(key));
+    }
+
+    /**
+     * @see DictionaryService#readRecords(Collection)
+     */
+    public CompletableFuture<Map<String, DictionaryRecord>> readRecords(Collection<String> keys){
+        return CompletableFuture.completedFuture(service.readRecords(keys));
+    }
+
+    /**
+     * @see DictionaryService#findRecordsByPrefix(String, int)
+     */
+    public CompletableFuture<List<DictionaryRecord>> findRecordsByPrefix(String prefix, int limit){
+        return CompletableFuture.completedFuture(service.findRecordsByPrefix(prefix, limit));
+    }
+
+    /**
+     * Назначением функции является постановка в очередь добавления записи. В отличие от DictionaryService#createRecord
+     * запись проверяется так же, как операция пакета, и результат завершается с WrongOperationException, если
+     * запись не может быть добавлена в словарь или отклонена политикой проверки соответствия языкам.
+     * @return
+     * Результат, завершающийся после сохранения, с признаком того, что запись была добавлена.
+     */
+    public CompletableFuture<Boolean> createRecord(DictionaryRecord record){
+        return applyOperations(Collections.singletonList(DictionaryOperation.create(record))).thenApply(AsyncDictionaryService::isChanged);
+    }
+
+    /**
+     * Назначением функции является постановка в очередь обновления записи.
+     * @return
+     * Результат, завершающийся после сохранения, с признаком того, что запись была обновлена.
+     * @see #createRecord(DictionaryRecord)
+     */
+    public CompletableFuture<Boolean> updateRecord(String key, String newWord){
+        return applyOperations(Collections.singletonList(DictionaryOperation.update(key, newWord))).thenApply(AsyncDictionaryService::isChanged);
+    }
+
+    /**
+     * Назначением функции является постановка в очередь удаления записи.
+     * @return
+     * Результат, завершающийся после сохранения, с признаком того, что запись была удалена.
+     * @see #createRecord(DictionaryRecord)
+     */
+    public CompletableFuture<Boolean> deleteRecord(String key){
+        return applyOperations(Collections.singletonList(DictionaryOperation.delete(key))).thenApply(AsyncDictionaryService::isChanged);
+    }
+
+    /**
+     * Назначением функции является постановка в очередь пакета операций. Пакет применяется целиком или не
+     * применяется вовсе, как в DictionaryService#applyOperations, но может быть сохранен вместе с соседними
+     * изменениями очереди.
+     * @return
+     * Результат, завершающийся после сохранения, с количеством операций, которые изменили словарь.
+     */
+    public CompletableFuture<Integer> applyOperations(Collection<DictionaryOperation> operations){
+        Mutation mutation = new Mutation(new ArrayList<>(operations));
+        submit(mutation);
+        return mutation.result;
+    }
+
+    /**
+     * Назначением функции является постановка в очередь записи словаря на диск после уже поставленных изменений.
+     * @return
+     * Результат, завершающийся после записи или с IOException, если словарь не удалось записать.
+     */
+    public CompletableFuture<Void> writeDictionary(){
+        return submit(() -> {
+            try {
+                service.persistDictionary();
+            }catch (IOException exception){
+                throw new CompletionException(exception);
+            }
+        });
+    }
+
+    /**
+     * Назначением функции является постановка в очередь загрузки словаря в сервис после уже поставленных изменений.
+     * До завершения загрузки чтения обслуживаются из частично загруженного словаря.
+     * @return
+     * Результат, завершающийся после загрузки или с ошибкой выбора словаря.
+     */
+    public CompletableFuture<Void> loadDictionary(Dictionary dictionary){
+        return submit(() -> {
+            try {
+                service.setCurrentDictionary(dictionary);
+            }catch (UnknownEncodingException | UnknownLanguageException exception){
+                throw new CompletionException(exception);
+            }
+        });
+    }
+
+    /**
+     * Назначением функции является закрытие сервиса: новые задачи отклоняются, уже поставленные в очередь задачи
+     * выполняются, после чего собственный пул потоков завершается. Сервис словарей не закрывается.
+     * @return
+     * Результат, завершающийся после выполнения всех поставленных задач.
+     */
+    public CompletableFuture<Void> close(){
+        CompletableFuture<Void> drained = submit(() -> { });
+        closed = true;
+        return drained.whenComplete((ignored, exception) -> {
+            if (ownExecutor){
+                executor.shutdown();
+            }
+        });
+    }
+
+    public DictionaryService getService() {
+        return service;
+    }
+
+    /**
+     * @return
+     * Количество задач, ожидающих писателя.
+     */
+    public int getPendingCount(){
+        return queue.size();
+    }
+
+    private static boolean isChanged(Integer changedCount){
+        return changedCount > 0;
+    }
+
+    private CompletableFuture<Void> submit(Runnable action){
+        Command command = new Command(action);
+        submit(command);
+        return command.result;
+    }
+
+    private void submit(Task task){
+        if (closed){
+            task.fail(new IllegalStateException("Service is closed"));
+            return;
+        }
+        queue.add(task);
+        scheduleWriter();
+    }
+
+    /**
+     * Назначением функции является планирование писателя, если он еще не запланирован.
+     */
+    private void scheduleWriter(){
+        if (!writerScheduled.compareAndSet(false, true)){
+            return;
+        }
+        try {
+            executor.execute(this::write);
+        }catch (RejectedExecutionException exception){
+            writerScheduled.set(false);
+            Task task;
+            while ((task = queue.poll()) != null){
+                task.fail(exception);
+            }
+        }
+    }
+
+    /**
+     * Назначением функции является разбор очереди писателем до ее опустошения. Задачи, поставленные после
+     * последней проверки очереди, запланируют писателя повторно.
+     */
+    private void write(){
+        do {
+            Task task;
+            List<Mutation> batch = new ArrayList<>();
+            while ((task = queue.poll()) != null){
+                if (task instanceof Mutation){
+                    batch.add((Mutation) task);
+                    if (batch.size() < maxBatchSize){
+                        continue;
+                    }
+                }
+                applyBatch(batch);
+                batch.clear();
+                if (task instanceof Command){
+                    ((Command) task).run();
+                }
+            }
+            applyBatch(batch);
+            writerScheduled.set(false);
+        }while (!queue.isEmpty() && writerScheduled.compareAndSet(false, true));
+    }
+
+    /**
+     * Назначением функции является применение накопленных изменений с однократным сохранением и завершение их результатов.
+     * Сохранение выполняется синхронно, поэтому результаты завершаются только после записи изменений на диск
+     * при типе HARD или в журнал при типе JOURNAL.
+     */
+    private void applyBatch(List<Mutation> batch){
+        if (batch.isEmpty()){
+            return;
+        }
+        List<List<DictionaryOperation>> groups = new ArrayList<>(batch.size());
+        for (Mutation mutation : batch) {
+            groups.add(mutation.operations);
+        }
+        WrongOperationException[] failures = new WrongOperationException[batch.size()];
+        int[] changedCounts;
+        try {
+            changedCounts = service.applyOperationGroups(groups, failures);
+        }catch (IOException | RuntimeException exception){
+            for (int index = 0; index < failures.length; index++) {
+                batch.get(index).fail(failures[index] != null ? failures[index] : exception);
+            }
+            return;
+        }
+        for (int index = 0; index < changedCounts.length; index++) {
+            Mutation mutation = batch.get(index);
+            if (failures[index] != null){
+                mutation.fail(failures[index]);
+            }else {
+                mutation.result.complete(changedCounts[index]);
+            }
+        }
+    }
+
+    /**
+     * Класс, являющий собой модель задачи писателя.
+     */
+    private abstract static class Task {
+
+        abstract void fail(Throwable exception);
+    }
+
+    /**
+     * Класс, являющий собой модель пакета изменений, ожидающего писателя.
+     */
+    private static final class Mutation extends Task {
+
+        private final List<DictionaryOperation> operations;
+
+        private final CompletableFuture<Integer> result = new CompletableFuture<>();
+
+        private Mutation(List<DictionaryOperation> operations){
+            this.operations = operations;
+        }
+
+        @Override
+        void fail(Throwable exception) {
+            result.completeExceptionally(exception);
+        }
+    }
+
+    /**
+     * Класс, являющий собой модель действия, выполняемого писателем отдельно от изменений.
+     */
+    private static final class Command extends Task {
+
+        private final Runnable action;
+
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        private Command(Runnable action){
+            this.action = action;
+        }
+
+        private void run(){
+            try {
+                action.run();
+                result.complete(null);
+            }catch (CompletionException exception){
+                result.completeExceptionally(exception.getCause());
+            }catch (RuntimeException exception){
+                result.completeExceptionally(exception);
+            }
+        }
+
+        @Override
+        void fail(Throwable exception) {
+            result.completeExceptionally(exception);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.SimpleDictionaryService;
+
+import org.SimpleDictionaryService.io.DictionaryLoader;
+import org.SimpleDictionaryService.store.StripedRecordStore;
+import org.SimpleDictionaryService.throwable.UnknownEncodingException;
+import org.SimpleDictionaryService.throwable.UnknownLanguageException;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель потокобезопасного сервиса словарей.
+ * Чтение записей выполняется без блокировок, изменения записей с разными ключами выполняются параллельно,
+ * а сохранение словаря на диск не блокирует ни чтение, ни изменение записей.
+ */
+public class ConcurrentDictionaryService extends DictionaryService {
+
+    /**
+     * Блокировка, под которой выполняются сохранение и загрузка словаря.
+     */
+    private final ReentrantLock persistenceLock = new ReentrantLock();
+
+    /**
+     * Номер последнего запроса сохранения. Запрос получает номер после изменения записей, поэтому сохранение,
+     * начатое после получения номера, содержит все изменения запросов с меньшими или равными номерами.
+     */
+    private final AtomicLong requestedGeneration = new AtomicLong();
+
+    /**
+     * Наибольший номер запроса, изменения которого записаны на диск. Изменяется под блокировкой сохранения.
+     */
+    private long persistedGeneration;
+
+    public ConcurrentDictionaryService(Dictionary dictionary, ExecutionStyle executionStyle, int stripesCount, DictionaryLoader dictionaryLoader) throws UnknownEncodingException, UnknownLanguageException {
+        super(executionStyle, new StripedRecordStore(stripesCount));
+        setDictionaryLoader(dictionaryLoader);
+        setCurrentDictionary(dictionary);
+    }
+
+    public ConcurrentDictionaryService(Dictionary dictionary, ExecutionStyle executionStyle, int stripesCount) throws UnknownEncodingException, UnknownLanguageException {
+        this(dictionary, executionStyle, stripesCount, new DictionaryLoader());
+    }
+
+    public ConcurrentDictionaryService(Dictionary dictionary, ExecutionStyle executionStyle) throws UnknownEncodingException, UnknownLanguageException {
+        this(dictionary, executionStyle, StripedRecordStore.DEFAULT_STRIPES_COUNT);
+    }
+
+    /**
+     * Назначением функции является запись текущего состояния словаря на диск(сохраннение).
+     * Функция возвращает управление только после завершения сохранения, начатого после вызова, поэтому при типе
+     * выполнения операций HARD изменения вызывающего потока записаны на диск к возврату управления. Запросы,
+     * ожидающие выполняющегося сохранения, объединяются: первый из них выполняет одно сохранение, которое
+     * содержит изменения всех ожидавших запросов, остальные возвращают управление без записи. Каждый вызов
+     * выполняет не больше одного сохранения. При ошибке записи запросы не считаются выполненными, и следующий
+     * ожидающий запрос повторяет сохранение. Асинхронное сохранение не объединяется и только планируется.
+     */
+    @Override
+    public void writeDictionary() {
+        if (isAsynchronousPersistence()){
+            super.writeDictionary();
+            return;
+        }
+        long generation = requestedGeneration.incrementAndGet();
+        persistenceLock.lock();
+        try {
+            if (persistedGeneration >= generation){
+                return;
+            }
+            long covered = requestedGeneration.get();
+            try {
+                persistDictionary();
+                persistedGeneration = covered;
+            }catch (IOException exception){
+                reportError(exception);
+            }
+        }finally {
+            persistenceLock.unlock();
+        }
+    }
+
+    /**
+     * Синхронная запись выполняется под блокировкой сохранения и не объединяется с другими запросами.
+     */
+    @Override
+    protected void persistDictionary() throws IOException {
+        persistenceLock.lock();
+        try {
+            super.persistDictionary();
+        }finally {
+            persistenceLock.unlock();
+        }
+    }
+
+    /**
+     * Загрузка словаря выполняется под блокировкой сохранения, чтобы частично загруженные данные
+     * не были записаны на диск.
+     */
+    @Override
+    public void setCurrentDictionary(Dictionary currentDictionary) throws UnknownEncodingException, UnknownLanguageException {
+        persistenceLock.lock();
+        try {
+            super.setCurrentDictionary(currentDictionary);
+        }finally {
+            persistenceLock.unlock();
+        }
+    }
+}
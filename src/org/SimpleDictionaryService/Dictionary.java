@@ -42,6 +42,11 @@ public class Dictionary extends File{
      */
     private String separator = DEFAULT_SEPARATOR;
 
+    /**
+     * Признак использования обратного индекса "значение - ключи" при поиске записей по значению.
+     */
+    private boolean reverseLookupEnabled;
+
     public Dictionary(String fullFileName, Encoding encoding, Language wordLanguage, Language keyLanguage, String separator){
         super(fullFileName);
         this.fullFileName = fullFileName;
@@ -98,4 +103,16 @@ public class Dictionary extends File{
             this.separator = separator;
         }
     }
+
+    public boolean isReverseLookupEnabled() {
+        return reverseLookupEnabled;
+    }
+
+    /**
+     * Назначением функции является включение обратного индекса для словаря. Индекс строится сервисом словарей
+     * при первом поиске по значению и требует памяти, сравнимой с объемом самих записей.
+     */
+    public void setReverseLookupEnabled(boolean reverseLookupEnabled) {
+        this.reverseLookupEnabled = reverseLookupEnabled;
+    }
 }
@@ -0,0 +1,35 @@
+package org.SimpleDictionaryService;
+
+import java.util.Collection;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Интерфейс, являющий собой модель получателя изменений словаря, сделанных вне сервиса и примененных
+ * DictionaryWatcher. Функции вызываются в потоке наблюдателя после применения изменений, поэтому чтения
+ * сервиса из функций уже видят новые значения. Функции вызываются только для непустых перечней ключей.
+ */
+public interface DictionaryChangeListener {
+
+    /**
+     * Назначением функции является получение ключей записей, добавленных в файл - словарь.
+     */
+    default void recordsCreated(Dictionary dictionary, Collection<String> keys){
+
+    }
+
+    /**
+     * Назначением функции является получение ключей записей, значения которых изменены в файле - словаре.
+     */
+    default void recordsUpdated(Dictionary dictionary, Collection<String> keys){
+
+    }
+
+    /**
+     * Назначением функции является получение ключей записей, удаленных из файла - словаря.
+     */
+    default void recordsDeleted(Dictionary dictionary, Collection<String> keys){
+
+    }
+}
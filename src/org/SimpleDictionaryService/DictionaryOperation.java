@@ -0,0 +1,62 @@
+package org.SimpleDictionaryService;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель операции изменения словаря, применяемой в составе пакета операций.
+ */
+public class DictionaryOperation {
+
+    /**
+     * Перечисление типов операций изменения словаря.
+     */
+    public enum Type {
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+
+    private final Type type;
+
+    private final String key;
+
+    /**
+     * Новое значение записи, null для операций типа DELETE.
+     */
+    private final String word;
+
+    private DictionaryOperation(Type type, String key, String word){
+        this.type = type;
+        this.key = key;
+        this.word = word;
+    }
+
+    public static DictionaryOperation create(DictionaryRecord record){
+        return new DictionaryOperation(Type.CREATE, record.getKey(), record.getWord());
+    }
+
+    public static DictionaryOperation create(String key, String word){
+        return new DictionaryOperation(Type.CREATE, key, word);
+    }
+
+    public static DictionaryOperation update(String key, String newWord){
+        return new DictionaryOperation(Type.UPDATE, key, newWord);
+    }
+
+    public static DictionaryOperation delete(String key){
+        return new DictionaryOperation(Type.DELETE, key, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getWord() {
+        return word;
+    }
+}
@@ -1,10 +1,13 @@
 package org.SimpleDictionaryService;
 
+import java.util.Objects;
+
 /**
  * @author Savchenko Kirill
  * @version 1.0
  *
  * Класс, являющий собой модель записи словаря.
+ * Записи сравниваются только по ключу, поэтому ключ записи, находящейся в хранилище, изменять нельзя.
  */
 public class DictionaryRecord {
 
@@ -44,4 +47,16 @@ public class DictionaryRecord {
     public void setWord(String word) {
         this.word = word;
     }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) return true;
+        if (!(object instanceof DictionaryRecord)) return false;
+        return Objects.equals(key, ((DictionaryRecord) object).key);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(key);
+    }
 }
@@ -0,0 +1,297 @@
+package org.SimpleDictionaryService;
+
+import org.SimpleDictionaryService.throwable.UnknownEncodingException;
+import org.SimpleDictionaryService.throwable.UnknownLanguageException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель реестра одновременно открытых словарей.
+ * Каждый словарь зарегистрирован под именем и обслуживается одним сервисом словарей, общим для всех
+ * вызывающих потоков. Словари загружаются в фоновых потоках параллельно друг другу, а повторная загрузка
+ * словаря выполняется в новый сервис, который заменяет прежний атомарно: чтения, начатые до замены,
+ * завершаются на прежнем сервисе и не блокируются. На время замены прежний сервис перестает принимать изменения,
+ * и изменения, поданные ему во время и после замены, завершаются IllegalStateException, поэтому ни одно
+ * подтвержденное изменение не теряется. Загрузки одного словаря выполняются последовательно.
+ */
+public class DictionaryRegistry {
+
+    /**
+     * Интерфейс, являющий собой модель создания и загрузки сервиса словарей.
+     */
+    @FunctionalInterface
+    public interface ServiceFactory {
+
+        DictionaryService create(Dictionary dictionary) throws UnknownEncodingException, UnknownLanguageException;
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final ServiceFactory serviceFactory;
+
+    private final ExecutorService executor;
+
+    /**
+     * Признак того, что пул потоков загрузки создан реестром и должен быть завершен при его закрытии.
+     */
+    private final boolean ownExecutor;
+
+    public DictionaryRegistry(ServiceFactory serviceFactory, ExecutorService executor){
+        this.serviceFactory = serviceFactory;
+        this.executor = executor;
+        this.ownExecutor = false;
+    }
+
+    public DictionaryRegistry(ServiceFactory serviceFactory){
+        this.serviceFactory = serviceFactory;
+        this.executor = newLoadingExecutor();
+        this.ownExecutor = true;
+    }
+
+    /**
+     * Реестр потокобезопасных сервисов словарей с переданным типом выполнения операций.
+     */
+    public DictionaryRegistry(ExecutionStyle executionStyle){
+        this(dictionary -> new ConcurrentDictionaryService(dictionary, executionStyle));
+    }
+
+    private static ExecutorService newLoadingExecutor(){
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "dictionary-loader-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Назначением функции является регистрация словаря под именем и начало его фоновой загрузки.
+     * Если под этим именем словарь уже зарегистрирован, возвращается его сервис, а переданный словарь игнорируется.
+     * @param name
+     * Имя словаря в реестре.
+     * @param dictionary
+     * Указатель на словарь.
+     * @return
+     * Результат загрузки сервиса словаря.
+     */
+    public CompletableFuture<DictionaryService> open(String name, Dictionary dictionary){
+        Entry entry = entries.computeIfAbsent(name, key -> new Entry(dictionary));
+        synchronized (entry){
+            if (entry.initialLoad == null){
+                entry.initialLoad = scheduleLoad(entry, dictionary);
+            }
+            return entry.initialLoad;
+        }
+    }
+
+    /**
+     * Назначением функции является параллельная регистрация и загрузка нескольких словарей.
+     * @param dictionaries
+     * Отображение имен на словари.
+     * @return
+     * Результат, завершающийся после загрузки всех словарей, с сервисами в порядке передачи имен.
+     */
+    public CompletableFuture<Map<String, DictionaryService>> openAll(Map<String, Dictionary> dictionaries){
+        List<String> names = new ArrayList<>(dictionaries.keySet());
+        List<CompletableFuture<DictionaryService>> loads = new ArrayList<>(names.size());
+        for (String name : names) {
+            loads.add(open(name, dictionaries.get(name)));
+        }
+        return CompletableFuture.allOf(loads.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            Map<String, DictionaryService> services = new LinkedHashMap<>();
+            for (int index = 0; index < names.size(); index++) {
+                services.put(names.get(index), loads.get(index).join());
+            }
+            return services;
+        });
+    }
+
+    /**
+     * @return
+     * Загруженный сервис словаря, null если словарь не зарегистрирован или еще не загружен. Функция не блокируется.
+     */
+    public DictionaryService get(String name){
+        Entry entry = entries.get(name);
+        return entry == null ? null : entry.service.get();
+    }
+
+    /**
+     * @return
+     * Результат загрузки сервиса словаря, уже завершенный, если словарь загружен, или null, если словарь
+     * не зарегистрирован.
+     */
+    public CompletableFuture<DictionaryService> service(String name){
+        Entry entry = entries.get(name);
+        if (entry == null){
+            return null;
+        }
+        DictionaryService service = entry.service.get();
+        if (service != null){
+            return CompletableFuture.completedFuture(service);
+        }
+        synchronized (entry){
+            return entry.initialLoad;
+        }
+    }
+
+    /**
+     * Назначением функции является повторная загрузка словаря из файла с последующей заменой сервиса.
+     * @see #replace(String, Dictionary)
+     */
+    public CompletableFuture<DictionaryService> reload(String name){
+        Entry entry = entries.get(name);
+        if (entry == null){
+            throw new IllegalArgumentException("Dictionary is not registered: " + name);
+        }
+        return replace(name, entry.dictionary);
+    }
+
+    /**
+     * Назначением функции является загрузка другого словаря под тем же именем с последующей заменой сервиса.
+     * До замены чтения обслуживаются прежним сервисом. Перед загрузкой прежний сервис перестает принимать
+     * изменения (они завершаются IllegalStateException), начатые изменения дописываются, запланированная
+     * асинхронная запись выполняется, журнал изменений сворачивается в файл - словарь, а сам сервис переводится
+     * в тип выполнения операций LAZY. Изменения сервиса с типом LAZY, не записанные на диск, в новый сервис
+     * не переносятся. После замены прежний сервис закрывается. Если загрузка не удалась, прежний сервис
+     * снова принимает изменения с прежним типом выполнения операций.
+     * @param name
+     * Имя словаря в реестре.
+     * @param dictionary
+     * Указатель на новый словарь.
+     * @return
+     * Результат загрузки нового сервиса.
+     */
+    public CompletableFuture<DictionaryService> replace(String name, Dictionary dictionary){
+        Entry entry = entries.get(name);
+        if (entry == null){
+            return open(name, dictionary);
+        }
+        synchronized (entry){
+            entry.dictionary = dictionary;
+            return scheduleLoad(entry, dictionary);
+        }
+    }
+
+    /**
+     * Назначением функции является исключение словаря из реестра и закрытие его сервиса. Изменения, поданные
+     * сервису после закрытия, завершаются IllegalStateException.
+     * @return
+     * true, если словарь был зарегистрирован.
+     */
+    public boolean close(String name){
+        Entry entry = entries.remove(name);
+        if (entry == null){
+            return false;
+        }
+        CompletableFuture<DictionaryService> lastLoad;
+        synchronized (entry){
+            lastLoad = entry.lastLoad;
+        }
+        lastLoad.handle((service, exception) -> null).join();
+        DictionaryService service = entry.service.getAndSet(null);
+        if (service != null){
+            service.freeze();
+            service.close();
+        }
+        return true;
+    }
+
+    /**
+     * Назначением функции является закрытие всех словарей реестра и завершение потоков загрузки, если они были
+     * созданы реестром.
+     */
+    public void close(){
+        for (String name : new ArrayList<>(entries.keySet())) {
+            close(name);
+        }
+        if (ownExecutor){
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @return
+     * Имена зарегистрированных словарей.
+     */
+    public Set<String> names(){
+        return entries.keySet();
+    }
+
+    public boolean isLoaded(String name){
+        return get(name) != null;
+    }
+
+    /**
+     * Назначением функции является планирование загрузки после завершения предыдущей загрузки того же словаря.
+     * Вызывается под монитором записи.
+     */
+    private CompletableFuture<DictionaryService> scheduleLoad(Entry entry, Dictionary dictionary){
+        CompletableFuture<DictionaryService> load = entry.lastLoad
+                .handle((service, exception) -> null)
+                .thenApplyAsync(ignored -> load(entry, dictionary), executor);
+        entry.lastLoad = load;
+        return load;
+    }
+
+    private DictionaryService load(Entry entry, Dictionary dictionary){
+        DictionaryService previous = entry.service.get();
+        ExecutionStyle previousStyle = previous == null ? null : previous.getExecutionStyle();
+        if (previous != null){
+            previous.freeze();
+            if (previous.isAsynchronousPersistence()){
+                previous.flush();
+            }
+            previous.setExecutionStyle(ExecutionStyle.LAZY);
+        }
+        DictionaryService service;
+        try {
+            service = serviceFactory.create(dictionary);
+        }catch (UnknownEncodingException | UnknownLanguageException | RuntimeException exception){
+            if (previous != null){
+                previous.setExecutionStyle(previousStyle);
+                previous.unfreeze();
+            }
+            throw exception instanceof CompletionException ? (CompletionException) exception : new CompletionException(exception);
+        }
+        previous = entry.service.getAndSet(service);
+        if (previous != null){
+            previous.close();
+        }
+        return service;
+    }
+
+    /**
+     * Класс, являющий собой модель записи реестра.
+     */
+    private static final class Entry {
+
+        private final AtomicReference<DictionaryService> service = new AtomicReference<>();
+
+        private Dictionary dictionary;
+
+        private CompletableFuture<DictionaryService> initialLoad;
+
+        /**
+         * Последняя запланированная загрузка словаря, следующая загрузка начинается после ее завершения.
+         */
+        private CompletableFuture<DictionaryService> lastLoad = CompletableFuture.completedFuture(null);
+
+        private Entry(Dictionary dictionary){
+            this.dictionary = dictionary;
+        }
+    }
+}
@@ -1,16 +1,52 @@
 package org.SimpleDictionaryService;
 
+import org.SimpleDictionaryService.index.FuzzyMatch;
+import org.SimpleDictionaryService.index.KeyIndex;
+import org.SimpleDictionaryService.index.RecordIndex;
+import org.SimpleDictionaryService.index.RecordIndexSet;
+import org.SimpleDictionaryService.index.WordIndex;
+import org.SimpleDictionaryService.io.DictionaryLoader;
+import org.SimpleDictionaryService.io.DictionarySnapshot;
+import org.SimpleDictionaryService.io.DictionaryWriter;
+import org.SimpleDictionaryService.io.LoadStatistics;
+import org.SimpleDictionaryService.journal.DictionaryJournal;
+import org.SimpleDictionaryService.journal.JournalEntry;
+import org.SimpleDictionaryService.journal.JournalSyncPolicy;
 import org.SimpleDictionaryService.language.Language;
+import org.SimpleDictionaryService.language.LanguageStatistics;
+import org.SimpleDictionaryService.language.LanguageValidationPolicy;
+import org.SimpleDictionaryService.metrics.DictionaryMetricsListener;
+import org.SimpleDictionaryService.metrics.ServiceOperation;
+import org.SimpleDictionaryService.store.FileBackedRecordStore;
+import org.SimpleDictionaryService.store.IndexedRecordStore;
+import org.SimpleDictionaryService.store.RecordStore;
 import org.SimpleDictionaryService.throwable.UnknownEncodingException;
 import org.SimpleDictionaryService.throwable.UnknownLanguageException;
 import org.SimpleDictionaryService.throwable.WrongKeyLanguageException;
+import org.SimpleDictionaryService.throwable.WrongLanguageException;
+import org.SimpleDictionaryService.throwable.WrongOperationException;
 import org.SimpleDictionaryService.throwable.WrongWordLanguageException;
 import org.SimpleEncodings.Encoding;
 import org.SimpleEncodings.throwable.WrongEncodingException;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
-import java.util.LinkedHashSet;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * @author Savchenko Kirill
@@ -20,28 +56,166 @@ import java.util.LinkedHashSet;
  */
 public class DictionaryService {
 
+    /**
+     * Интервал проверки завершения начатых изменений записей при запрете изменений.
+     */
+    private static final long MUTATION_WAIT_NANOS = 100_000;
+
     /**
      * Указатель на текущий словарь.
      */
-    private Dictionary currentDictionary;
+    private volatile Dictionary currentDictionary;
 
     /**
-     * Загружаемые данные файла - словаря.
+     * Хранилище загружаемых данных файла - словаря.
      */
-    private LinkedHashSet<DictionaryRecord> dictionaryData;
+    private final RecordStore dictionaryData;
 
     /**
      * Тип выполнения операций сервисов словаря.
      */
-    private ExecutionStyle executionStyle;
+    private volatile ExecutionStyle executionStyle;
 
-    public DictionaryService(Dictionary dictionary, ExecutionStyle executionStyle) throws UnknownEncodingException, UnknownLanguageException {
+    /**
+     * Загрузчик файлов - словарей.
+     */
+    private volatile DictionaryLoader dictionaryLoader = new DictionaryLoader();
+
+    /**
+     * Средство атомарной записи файлов - словарей.
+     */
+    private final DictionaryWriter dictionaryWriter = new DictionaryWriter();
+
+    /**
+     * Признак асинхронного выполнения writeDictionary.
+     */
+    private volatile boolean asynchronousPersistence;
+
+    /**
+     * Признак того, что асинхронная запись словаря запланирована, но еще не начата.
+     */
+    private final AtomicBoolean persistenceScheduled = new AtomicBoolean();
+
+    /**
+     * Количество выполняющихся записей словаря на диск.
+     */
+    private final AtomicInteger activePersistences = new AtomicInteger();
+
+    /**
+     * Признак того, что сервис не принимает изменения записей, см. freeze.
+     */
+    private volatile boolean frozen;
+
+    /**
+     * Количество выполняющихся изменений записей, включая их сохранение.
+     */
+    private final AtomicInteger activeMutations = new AtomicInteger();
+
+    /**
+     * Версия файла - словаря после последней записи сервисом, см. fileVersionOf.
+     */
+    private volatile String persistedVersion;
+
+    /**
+     * Признак загрузки словаря из двоичного снимка и записи снимка после загрузки из файла - словаря.
+     */
+    private volatile boolean snapshotEnabled;
+
+    /**
+     * Поток асинхронной записи словаря, создается при первом использовании.
+     */
+    private ExecutorService persistenceExecutor;
+
+    /**
+     * Журнал изменений текущего словаря, открыт только при типе выполнения операций JOURNAL.
+     */
+    private volatile DictionaryJournal journal;
+
+    /**
+     * Политика принудительной записи журнала изменений на диск.
+     */
+    private JournalSyncPolicy journalSyncPolicy = JournalSyncPolicy.GROUPED;
+
+    /**
+     * Период принудительной записи журнала изменений на диск при политике PERIODIC.
+     */
+    private long journalSyncPeriodMillis = DictionaryJournal.DEFAULT_SYNC_PERIOD_MILLIS;
+
+    /**
+     * Размер журнала изменений в байтах, при превышении которого журнал сворачивается в файл - словарь.
+     */
+    private long journalCompactionThreshold = DictionaryJournal.DEFAULT_COMPACTION_THRESHOLD;
+
+    /**
+     * Вспомогательные индексы записей, поддерживаемые при каждом изменении словаря.
+     */
+    private final RecordIndexSet recordIndexes = new RecordIndexSet();
+
+    /**
+     * Упорядоченный индекс ключей, строится при первом запросе по префиксу или диапазону.
+     */
+    private volatile KeyIndex keyIndex;
+
+    /**
+     * Обратный индекс "значение - ключи", строится при первом поиске по значению, если он включен для словаря.
+     */
+    private volatile WordIndex wordIndex;
+
+    /**
+     * Счетчики соответствия записей текущего словаря его языкам, поддерживаемые при каждом изменении словаря.
+     */
+    private final LanguageStatistics languageStatistics = new LanguageStatistics();
+
+    /**
+     * Политика проверки соответствия изменяемых записей языкам словаря.
+     */
+    private volatile LanguageValidationPolicy languageValidationPolicy = LanguageValidationPolicy.ACCEPT_ALL;
+
+    /**
+     * Количество изменений, отклоненных политикой проверки соответствия языкам.
+     */
+    private final AtomicLong rejectedChangesCount = new AtomicLong();
+
+    /**
+     * Получатель измерений сервиса, null если измерения отключены.
+     */
+    private volatile DictionaryMetricsListener metricsListener;
+
+    /**
+     * Счетчики загрузчика при последнем выборе словаря.
+     */
+    private volatile LoadStatistics lastLoadStatistics;
+
+    /**
+     * Длительность последнего выбора словаря в наносекундах.
+     */
+    private volatile long lastLoadNanos;
+
+    public DictionaryService(Dictionary dictionary, ExecutionStyle executionStyle, RecordStore recordStore, DictionaryLoader dictionaryLoader) throws UnknownEncodingException, UnknownLanguageException {
         this.executionStyle = executionStyle;
+        this.dictionaryData = recordStore;
+        this.dictionaryLoader = dictionaryLoader;
         setCurrentDictionary(dictionary);
     }
 
+    public DictionaryService(Dictionary dictionary, ExecutionStyle executionStyle, RecordStore recordStore) throws UnknownEncodingException, UnknownLanguageException {
+        this(dictionary, executionStyle, recordStore, new DictionaryLoader());
+    }
+
+    public DictionaryService(Dictionary dictionary, ExecutionStyle executionStyle) throws UnknownEncodingException, UnknownLanguageException {
+        this(dictionary, executionStyle, new IndexedRecordStore());
+    }
+
     public DictionaryService(){
+        this.dictionaryData = new IndexedRecordStore();
+    }
 
+    /**
+     * Конструктор для наследников, которым требуется завершить собственную инициализацию до загрузки словаря.
+     */
+    protected DictionaryService(ExecutionStyle executionStyle, RecordStore recordStore){
+        this.executionStyle = executionStyle;
+        this.dictionaryData = recordStore;
     }
 
     /**
@@ -50,10 +224,17 @@ public class DictionaryService {
      * Указатель на обьект(запись) информация которого будет добавлена в текущее состояние словаря.
      */
     public void createRecord(DictionaryRecord record){
-        if(dictionaryData.stream().noneMatch(currentRecord -> currentRecord.getKey().equals(record.getKey()))){
-            dictionaryData.add(record);
+        beginMutation();
+        DictionaryMetricsListener listener = metricsListener;
+        long start = listener == null ? 0 : System.nanoTime();
+        try {
+            if (insertRecord(record, languageValidationPolicy)){
+                finalizeOperation(record.getKey());
+            }
+        }finally {
+            endMutation();
+            operationCompleted(listener, ServiceOperation.CREATE, start);
         }
-        finalizeOperation();
     }
 
     /**
@@ -64,30 +245,35 @@ public class DictionaryService {
      * Указатель на новое вхождление текущего состояния словаря.
      */
     public DictionaryRecord readRecord(String key){
-        DictionaryRecord currentRecord = DictionaryRecord.UNKNOWN_RECORD;
-        for (DictionaryRecord record : dictionaryData) {
-             if (record.getKey().equals(key)){
-                 currentRecord = record;
-                 break;
-             }
+        DictionaryMetricsListener listener = metricsListener;
+        long start = listener == null ? 0 : System.nanoTime();
+        try {
+            DictionaryRecord currentRecord = dictionaryData.get(key);
+            return currentRecord == null ? DictionaryRecord.UNKNOWN_RECORD : currentRecord;
+        }finally {
+            operationCompleted(listener, ServiceOperation.READ, start);
         }
-        finalizeOperation();
-        return currentRecord;
     }
 
     /**
      * Назначением функции является обновление текущей части записи, на которую указывает передаваемый
-     * ключ, в соответствии с значением передаваемой строки.
+     * ключ, в соответствии с значением передаваемой строки. Запись не изменяется, а заменяется новой, поэтому
+     * ранее полученные указатели на записи остаются неизменными.
      * @param key
      * Передаваемая строка.
      */
     public void updateRecord(String key, String newWord){
-        for (DictionaryRecord record : dictionaryData) {
-            if (record.getKey().equals(key)) {
-                record.setWord(newWord);
+        beginMutation();
+        DictionaryMetricsListener listener = metricsListener;
+        long start = listener == null ? 0 : System.nanoTime();
+        try {
+            if (replaceRecord(new DictionaryRecord(key, newWord), languageValidationPolicy)){
+                finalizeOperation(key);
             }
+        }finally {
+            endMutation();
+            operationCompleted(listener, ServiceOperation.UPDATE, start);
         }
-        finalizeOperation();
     }
 
     /**
@@ -96,62 +282,959 @@ public class DictionaryService {
      * Ключ удаляемой записи.
      */
     public void deleteRecord(String key){
-        dictionaryData.removeIf(record -> record.getKey().equals(key));
-        finalizeOperation();
+        beginMutation();
+        DictionaryMetricsListener listener = metricsListener;
+        long start = listener == null ? 0 : System.nanoTime();
+        try {
+            if (removeRecord(key, languageValidationPolicy)){
+                finalizeOperation(key);
+            }
+        }finally {
+            endMutation();
+            operationCompleted(listener, ServiceOperation.DELETE, start);
+        }
+    }
+
+    /**
+     * Назначением функции является поиск нескольких вхождений в текущем состоянии словаря.
+     * @param keys
+     * Ключи, по которым будет производиться поиск.
+     * @return
+     * Отображение ключей на найденные вхождения в порядке передачи ключей, для отсутствующих ключей -
+     * на DictionaryRecord.UNKNOWN_RECORD.
+     */
+    public Map<String, DictionaryRecord> readRecords(Collection<String> keys){
+        DictionaryMetricsListener listener = metricsListener;
+        long start = listener == null ? 0 : System.nanoTime();
+        try {
+            Map<String, DictionaryRecord> records = new LinkedHashMap<>(Math.max(16, (int)(keys.size() / 0.75f) + 1));
+            for (String key : keys) {
+                DictionaryRecord record = dictionaryData.get(key);
+                records.put(key, record == null ? DictionaryRecord.UNKNOWN_RECORD : record);
+            }
+            return records;
+        }finally {
+            operationCompleted(listener, ServiceOperation.READ_BATCH, start);
+        }
+    }
+
+    /**
+     * Назначением функции является применение пакета операций изменения словаря с однократным сохранением.
+     * Все операции проверяются до применения первой из них, поэтому при ошибке проверки словарь не изменяется.
+     * Операции применяются в порядке передачи и имеют ту же семантику, что и createRecord, updateRecord и
+     * deleteRecord. После применения выполняется ровно одно сохранение в соответствии с типом выполнения операций.
+     * Пакет проверяется по языкам и применяется под блокировками полос всех своих ключей, поэтому параллельные
+     * изменения этих ключей, другие пакеты и построение индексов наблюдают пакет либо целиком, либо не наблюдают
+     * вовсе. Чтения и поиск не используют блокировки и могут наблюдать частично примененный пакет.
+     * @param operations
+     * Применяемые операции.
+     * @return
+     * Количество операций, которые изменили словарь.
+     */
+    public int applyOperations(Collection<DictionaryOperation> operations) throws WrongOperationException {
+        beginMutation();
+        DictionaryMetricsListener listener = metricsListener;
+        long start = listener == null ? 0 : System.nanoTime();
+        try {
+            List<String> changedKeys = new ArrayList<>(operations.size());
+            applyValidated(operations, languageValidationPolicy, changedKeys);
+            if (!changedKeys.isEmpty()){
+                finalizeOperation(changedKeys.toArray(new String[0]));
+            }
+            return changedKeys.size();
+        }finally {
+            endMutation();
+            operationCompleted(listener, ServiceOperation.APPLY_OPERATIONS, start);
+        }
+    }
+
+    /**
+     * Назначением функции является применение нескольких пакетов операций с однократным сохранением всех изменений.
+     * Пакеты проверяются и применяются по очереди так же, как при последовательных вызовах applyOperations, поэтому
+     * пакет проверяется с учетом изменений предыдущих пакетов. Пакет, не прошедший проверку, не применяется и не
+     * мешает применению остальных.
+     * @param groups
+     * Применяемые пакеты операций.
+     * @param failures
+     * Массив длиной не меньше количества пакетов, в который записываются ошибки проверки пакетов.
+     * @return
+     * Количество операций каждого пакета, которые изменили словарь, 0 для пакетов, не прошедших проверку.
+     * @throws IOException
+     * Если изменения не удалось сохранить. Сохранение выполняется синхронно, даже если включено асинхронное
+     * сохранение, изменения при ошибке остаются примененными в памяти, а ошибки проверки пакетов уже записаны
+     * в failures.
+     */
+    int[] applyOperationGroups(List<? extends Collection<DictionaryOperation>> groups, WrongOperationException[] failures) throws IOException {
+        beginMutation();
+        DictionaryMetricsListener listener = metricsListener;
+        long start = listener == null ? 0 : System.nanoTime();
+        try {
+            int[] changedCounts = new int[groups.size()];
+            List<String> changedKeys = new ArrayList<>();
+            for (int index = 0; index < changedCounts.length; index++) {
+                int changedBefore = changedKeys.size();
+                try {
+                    applyValidated(groups.get(index), languageValidationPolicy, changedKeys);
+                }catch (WrongOperationException exception){
+                    failures[index] = exception;
+                }
+                changedCounts[index] = changedKeys.size() - changedBefore;
+            }
+            if (!changedKeys.isEmpty()){
+                persistChanges(changedKeys);
+            }
+            return changedCounts;
+        }finally {
+            endMutation();
+            operationCompleted(listener, ServiceOperation.APPLY_OPERATIONS, start);
+        }
+    }
+
+    /**
+     * Назначением функции является применение изменений, которые уже содержатся в файле - словаре, например
+     * сделанных другим процессом. Изменения не проверяются политикой проверки языков и не записывают словарь
+     * на диск. При типе выполнения операций JOURNAL измененные записи добавляются в журнал изменений, чтобы
+     * применение журнала после сбоя не вернуло замененные значения.
+     * @param createdKeys
+     * Список, в который добавляются ключи добавленных записей.
+     * @param updatedKeys
+     * Список, в который добавляются ключи записей с измененным значением.
+     * @param deletedKeys
+     * Список, в который добавляются ключи удаленных записей.
+     * @return
+     * Количество операций, которые изменили словарь.
+     */
+    int applyFileChanges(Collection<DictionaryOperation> operations, List<String> createdKeys, List<String> updatedKeys, List<String> deletedKeys){
+        beginMutation();
+        DictionaryMetricsListener listener = metricsListener;
+        long start = listener == null ? 0 : System.nanoTime();
+        try {
+            List<String> changedKeys = new ArrayList<>(operations.size());
+            for (DictionaryOperation operation : operations) {
+                String key = operation.getKey();
+                if (operation.getType() == DictionaryOperation.Type.DELETE){
+                    if (removeRecord(key, LanguageValidationPolicy.ACCEPT_ALL)){
+                        deletedKeys.add(key);
+                        changedKeys.add(key);
+                    }
+                    continue;
+                }
+                DictionaryRecord record = new DictionaryRecord(key, operation.getWord());
+                if (insertRecord(record, LanguageValidationPolicy.ACCEPT_ALL)){
+                    createdKeys.add(key);
+                    changedKeys.add(key);
+                    continue;
+                }
+                DictionaryRecord previous = dictionaryData.get(key);
+                if ((previous == null || !previous.getWord().equals(record.getWord())) && replaceRecord(record, LanguageValidationPolicy.ACCEPT_ALL)){
+                    updatedKeys.add(key);
+                    changedKeys.add(key);
+                }
+            }
+            DictionaryJournal currentJournal = journal;
+            if (executionStyle == ExecutionStyle.JOURNAL && currentJournal != null && !changedKeys.isEmpty()){
+                try {
+                    currentJournal.append(changedKeys, dictionaryData::get);
+                }catch (IOException exception){
+                    reportError(exception);
+                }
+            }
+            return changedKeys.size();
+        }finally {
+            endMutation();
+            operationCompleted(listener, ServiceOperation.APPLY_FILE_CHANGES, start);
+        }
+    }
+
+    /**
+     * Назначением функции является проверка и применение пакета операций без сохранения. Проверка по языкам
+     * и применение выполняются под блокировками полос всех ключей пакета, захватываемыми в порядке номеров полос.
+     * Блокировки полос повторно входимые, поэтому insertRecord, replaceRecord и removeRecord захватывают их повторно.
+     * @param changedKeys
+     * Список, в который добавляются ключи записей, измененных пакетом.
+     */
+    private void applyValidated(Collection<DictionaryOperation> operations, LanguageValidationPolicy policy, List<String> changedKeys) throws WrongOperationException {
+        List<String> keys = new ArrayList<>(operations.size());
+        for (DictionaryOperation operation : operations) {
+            validateOperation(operation, policy);
+            keys.add(operation.getKey());
+        }
+        List<ReentrantLock> locks = recordIndexes.locksOf(keys);
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+        try {
+            if (policy == LanguageValidationPolicy.REJECT_RATIO_DROP){
+                validateLanguageRatios(operations);
+            }
+            for (DictionaryOperation operation : operations) {
+                boolean changed;
+                switch (operation.getType()){
+                    case CREATE:
+                        changed = insertRecord(new DictionaryRecord(operation.getKey(), operation.getWord()), LanguageValidationPolicy.ACCEPT_ALL);
+                        break;
+                    case UPDATE:
+                        changed = replaceRecord(new DictionaryRecord(operation.getKey(), operation.getWord()), LanguageValidationPolicy.ACCEPT_ALL);
+                        break;
+                    default:
+                        changed = removeRecord(operation.getKey(), LanguageValidationPolicy.ACCEPT_ALL);
+                }
+                if (changed){
+                    changedKeys.add(operation.getKey());
+                }
+            }
+        }finally {
+            for (ReentrantLock lock : locks) {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Назначением функции является поиск записей, ключи которых начинаются с префикса.
+     * @param prefix
+     * Префикс ключей.
+     * @param limit
+     * Максимальное количество записей.
+     * @return
+     * Первые в лексикографическом порядке ключей записи, начинающиеся с префикса.
+     */
+    public List<DictionaryRecord> findRecordsByPrefix(String prefix, int limit){
+        DictionaryMetricsListener listener = metricsListener;
+        long start = listener == null ? 0 : System.nanoTime();
+        try {
+            return recordsOf(keyIndex().keysWithPrefix(prefix, limit));
+        }finally {
+            operationCompleted(listener, ServiceOperation.QUERY, start);
+        }
+    }
+
+    public List<DictionaryRecord> findRecordsByPrefix(String prefix){
+        return findRecordsByPrefix(prefix, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Назначением функции является поиск ключей, начинающихся с префикса, например для автодополнения.
+     * @param prefix
+     * Префикс ключей.
+     * @param limit
+     * Максимальное количество ключей.
+     * @return
+     * Первые в лексикографическом порядке ключи, начинающиеся с префикса.
+     */
+    public List<String> findKeysByPrefix(String prefix, int limit){
+        DictionaryMetricsListener listener = metricsListener;
+        long start = listener == null ? 0 : System.nanoTime();
+        try {
+            return keyIndex().keysWithPrefix(prefix, limit);
+        }finally {
+            operationCompleted(listener, ServiceOperation.QUERY, start);
+        }
+    }
+
+    /**
+     * Назначением функции является выборка записей, ключи которых лежат в диапазоне.
+     * @param fromKey
+     * Нижняя граница диапазона ключей, null если диапазон не ограничен снизу.
+     * @param fromInclusive
+     * Признак включения нижней границы в диапазон.
+     * @param toKey
+     * Верхняя граница диапазона ключей, null если диапазон не ограничен сверху.
+     * @param toInclusive
+     * Признак включения верхней границы в диапазон.
+     * @param limit
+     * Максимальное количество записей.
+     * @return
+     * Записи диапазона в лексикографическом порядке ключей.
+     */
+    public List<DictionaryRecord> findRecordsInRange(String fromKey, boolean fromInclusive, String toKey, boolean toInclusive, int limit){
+        DictionaryMetricsListener listener = metricsListener;
+        long start = listener == null ? 0 : System.nanoTime();
+        try {
+            return recordsOf(keyIndex().keysInRange(fromKey, fromInclusive, toKey, toInclusive, limit));
+        }finally {
+            operationCompleted(listener, ServiceOperation.QUERY, start);
+        }
+    }
+
+    public List<DictionaryRecord> findRecordsInRange(String fromKey, String toKey){
+        return findRecordsInRange(fromKey, true, toKey, false, Integer.MAX_VALUE);
+    }
+
+    private List<DictionaryRecord> recordsOf(List<String> keys){
+        List<DictionaryRecord> records = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            DictionaryRecord record = dictionaryData.get(key);
+            if (record != null){
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private KeyIndex keyIndex(){
+        KeyIndex index = keyIndex;
+        if (index == null){
+            synchronized (recordIndexes){
+                index = keyIndex;
+                if (index == null){
+                    index = new KeyIndex();
+                    recordIndexes.register(index, dictionaryData.records());
+                    keyIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Назначением функции является нечеткий поиск ключей, например для исправления опечаток в запросе.
+     * Строка, не соответствующая языку ключей словаря, не может быть опечаткой ключа, поэтому для нее
+     * поиск не выполняется.
+     * @param query
+     * Искомая строка.
+     * @param maxDistance
+     * Максимальное расстояние Левенштейна от ключа до искомой строки.
+     * @param limit
+     * Максимальное количество ключей.
+     * @return
+     * Ближайшие ключи в порядке возрастания расстояния, пустой список если таких ключей нет.
+     */
+    public List<FuzzyMatch> findSimilarKeys(String query, int maxDistance, int limit){
+        DictionaryMetricsListener listener = metricsListener;
+        long start = listener == null ? 0 : System.nanoTime();
+        try {
+            Dictionary dictionary = currentDictionary;
+            if (dictionary == null || query.isEmpty()){
+                return new ArrayList<>(0);
+            }
+            int matches = dictionary.getKeyLanguage().countOfMatches(query, dictionary.getEncoding());
+            if ((double) matches / query.length() < Dictionary.KEY_LANGUAGE_MINIMAL_RATIO){
+                return new ArrayList<>(0);
+            }
+            return keyIndex().similarKeys(query, maxDistance, limit);
+        }finally {
+            operationCompleted(listener, ServiceOperation.QUERY, start);
+        }
+    }
+
+    /**
+     * Назначением функции является нечеткий поиск записей.
+     * @see #findSimilarKeys(String, int, int)
+     */
+    public List<DictionaryRecord> findSimilarRecords(String query, int maxDistance, int limit){
+        List<FuzzyMatch> matches = findSimilarKeys(query, maxDistance, limit);
+        List<String> keys = new ArrayList<>(matches.size());
+        for (FuzzyMatch match : matches) {
+            keys.add(match.getKey());
+        }
+        return recordsOf(keys);
+    }
+
+    /**
+     * Назначением функции является поиск ключей записей по значению, то есть перевод в обратном направлении.
+     * Если для текущего словаря включен обратный индекс, поиск выполняется за O(1), иначе просматриваются
+     * все записи словаря.
+     * @param word
+     * Значение искомых записей.
+     * @return
+     * Ключи всех записей с переданным значением, пустой список если таких записей нет.
+     */
+    public List<String> findKeysByWord(String word){
+        DictionaryMetricsListener listener = metricsListener;
+        long start = listener == null ? 0 : System.nanoTime();
+        try {
+            WordIndex index = wordIndex();
+            if (index != null){
+                return index.keysOf(word);
+            }
+            List<String> keys = new ArrayList<>();
+            for (DictionaryRecord record : dictionaryData.records()) {
+                if (record.getWord().equals(word)){
+                    keys.add(record.getKey());
+                }
+            }
+            return keys;
+        }finally {
+            operationCompleted(listener, ServiceOperation.QUERY, start);
+        }
+    }
+
+    /**
+     * Назначением функции является поиск записей по значению.
+     * @see #findKeysByWord(String)
+     */
+    public List<DictionaryRecord> findRecordsByWord(String word){
+        List<DictionaryRecord> records = recordsOf(findKeysByWord(word));
+        records.removeIf(record -> !record.getWord().equals(word));
+        return records;
+    }
+
+    /**
+     * @return
+     * Обратный индекс текущего словаря или null, если он не включен для словаря.
+     */
+    private WordIndex wordIndex(){
+        Dictionary dictionary = currentDictionary;
+        if (dictionary == null || !dictionary.isReverseLookupEnabled()){
+            return null;
+        }
+        WordIndex index = wordIndex;
+        if (index == null){
+            synchronized (recordIndexes){
+                index = wordIndex;
+                if (index == null){
+                    index = new WordIndex();
+                    recordIndexes.register(index, dictionaryData.records());
+                    wordIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Назначением функции является удаление обратного индекса, если он не включен для текущего словаря.
+     */
+    private void releaseWordIndex(){
+        synchronized (recordIndexes){
+            if (wordIndex != null && (currentDictionary == null || !currentDictionary.isReverseLookupEnabled())){
+                recordIndexes.unregister(wordIndex);
+                wordIndex = null;
+            }
+        }
+    }
+
+    /**
+     * Назначением функции является добавление вспомогательного индекса записей. Индекс строится по текущим
+     * записям словаря и далее поддерживается при каждом изменении и каждой загрузке словаря.
+     */
+    public void addRecordIndex(RecordIndex index){
+        recordIndexes.register(index, dictionaryData.records());
+    }
+
+    public void removeRecordIndex(RecordIndex index){
+        recordIndexes.unregister(index);
+    }
+
+    /**
+     * Назначением функции является добавление записи с уведомлением индексов.
+     * @return
+     * Признак того, что запись была добавлена.
+     */
+    private boolean insertRecord(DictionaryRecord record, LanguageValidationPolicy policy){
+        ReentrantLock lock = recordIndexes.lockOf(record.getKey());
+        lock.lock();
+        try {
+            if (dictionaryData.containsKey(record.getKey()) || !acceptChange(record.getKey(), null, record, policy)){
+                return false;
+            }
+            dictionaryData.putIfAbsent(record);
+            recordIndexes.recordChanged(null, record);
+            return true;
+        }finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Назначением функции является замена существующей записи с уведомлением индексов.
+     * @return
+     * Признак того, что запись была заменена.
+     */
+    private boolean replaceRecord(DictionaryRecord record, LanguageValidationPolicy policy){
+        ReentrantLock lock = recordIndexes.lockOf(record.getKey());
+        lock.lock();
+        try {
+            DictionaryRecord previous = dictionaryData.get(record.getKey());
+            if (previous == null || !acceptChange(record.getKey(), previous, record, policy)){
+                return false;
+            }
+            dictionaryData.replace(record);
+            recordIndexes.recordChanged(previous, record);
+            return true;
+        }finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Назначением функции является удаление записи с уведомлением индексов.
+     * @return
+     * Признак того, что запись была удалена.
+     */
+    private boolean removeRecord(String key, LanguageValidationPolicy policy){
+        ReentrantLock lock = recordIndexes.lockOf(key);
+        lock.lock();
+        try {
+            DictionaryRecord previous = dictionaryData.get(key);
+            if (previous == null || !acceptChange(key, previous, null, policy)){
+                return false;
+            }
+            dictionaryData.remove(key);
+            recordIndexes.recordChanged(previous, null);
+            return true;
+        }finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Назначением функции является проверка изменения записи политикой и учет его в счетчиках соответствия
+     * языкам. Вызывается под блокировкой ключа до изменения хранилища, время выполнения пропорционально длине
+     * ключа и значений записи. Отклоненное изменение выводится в стандартный поток ошибок.
+     * @param previous
+     * Запись до изменения, null если запись добавляется.
+     * @param current
+     * Запись после изменения, null если запись удаляется.
+     * @return
+     * Признак того, что изменение допущено политикой и учтено.
+     */
+    private boolean acceptChange(String key, DictionaryRecord previous, DictionaryRecord current, LanguageValidationPolicy policy){
+        Dictionary dictionary = currentDictionary;
+        if (dictionary == null){
+            return true;
+        }
+        LanguageStatistics.Score previousScore = previous == null ? null : LanguageStatistics.Score.of(previous, dictionary);
+        LanguageStatistics.Score currentScore = current == null ? null : LanguageStatistics.Score.of(current, dictionary);
+        try {
+            if (policy == LanguageValidationPolicy.REJECT_RECORD && currentScore != null){
+                if (!currentScore.isKeyValid()){
+                    throw new WrongKeyLanguageException("Key of record " + key + " does not match the dictionary key language");
+                }
+                if (!currentScore.isWordValid()){
+                    throw new WrongWordLanguageException("Word of record " + key + " does not match the dictionary word language");
+                }
+            }
+            if (policy != LanguageValidationPolicy.REJECT_RATIO_DROP){
+                languageStatistics.recordChanged(previousScore, currentScore);
+            }else if (!languageStatistics.recordChangedIfRatiosKept(previousScore, currentScore)){
+                throw new WrongLanguageException("Change of record " + key + " drops the dictionary language ratio below the minimal");
+            }
+            return true;
+        }catch (WrongLanguageException exception){
+            rejectedChangesCount.incrementAndGet();
+            reportError(exception);
+            return false;
+        }
+    }
+
+    /**
+     * Назначением функции является учет изменения записи в счетчиках соответствия языкам без проверки политикой,
+     * например при загрузке словаря или применении журнала изменений.
+     */
+    private void accountChange(DictionaryRecord previous, DictionaryRecord current){
+        Dictionary dictionary = currentDictionary;
+        languageStatistics.recordChanged(
+                previous == null ? null : LanguageStatistics.Score.of(previous, dictionary),
+                current == null ? null : LanguageStatistics.Score.of(current, dictionary));
+    }
+
+    /**
+     * Назначением функции является учет начала изменения записей.
+     * @throws IllegalStateException
+     * Если сервис не принимает изменения, см. freeze.
+     */
+    private void beginMutation(){
+        activeMutations.incrementAndGet();
+        if (frozen){
+            activeMutations.decrementAndGet();
+            throw new IllegalStateException("Dictionary service does not accept changes");
+        }
+    }
+
+    private void endMutation(){
+        activeMutations.decrementAndGet();
+    }
+
+    /**
+     * Назначением функции является запрет изменений записей, например перед заменой сервиса другим сервисом.
+     * Последующие изменения завершаются IllegalStateException, а функция дожидается завершения уже начатых
+     * изменений вместе с их сохранением, поэтому после возврата управления состояние словаря не меняется.
+     * Чтения продолжают выполняться.
+     */
+    void freeze(){
+        frozen = true;
+        while (activeMutations.get() > 0){
+            LockSupport.parkNanos(MUTATION_WAIT_NANOS);
+        }
+    }
+
+    /**
+     * Назначением функции является отмена запрета изменений записей, см. freeze.
+     */
+    void unfreeze(){
+        frozen = false;
+    }
+
+    /**
+     * @return
+     * Признак того, что сервис не принимает изменения записей.
+     */
+    public boolean isFrozen(){
+        return frozen;
+    }
+
+    /**
+     * Назначением функции является немедленное сохранение всех изменений словаря: при типе выполнения операций
+     * JOURNAL журнал изменений принудительно записывается на диск, в остальных случаях словарь записывается
+     * на диск целиком. Запись выполняется синхронно, даже если включено асинхронное сохранение.
+     */
+    public void flush(){
+        DictionaryJournal currentJournal = journal;
+        if (executionStyle == ExecutionStyle.JOURNAL && currentJournal != null){
+            try {
+                currentJournal.sync();
+            }catch (IOException exception){
+                reportError(exception);
+            }
+        }else {
+            try {
+                persistDictionary();
+            }catch (IOException exception){
+                reportError(exception);
+            }
+        }
     }
 
     /**
      * Назначением функции является запись т екущего состояния словаря на диск(сохраннение).
+     * Ошибки записи выводятся в стандартный поток ошибок, файл - словарь при этом остается неизменным.
      */
     public void writeDictionary(){
+        if (asynchronousPersistence){
+            schedulePersistence();
+            return;
+        }
         try {
-            PrintWriter printWriter = new PrintWriter(new OutputStreamWriter(new FileOutputStream(currentDictionary), StandardCharsets.UTF_8));
-            for (DictionaryRecord record : dictionaryData) {
-                printWriter.println(String.format("%s%s%s", record.getKey(), currentDictionary.getSeparator(), record.getWord()));
-            }
-            printWriter.close();
+            persistDictionary();
         }catch (IOException exception){
-            exception.printStackTrace();
+            reportError(exception);
+        }
+    }
+
+    /**
+     * Назначением функции является запись текущего состояния словаря на диск. В отличие от writeDictionary
+     * функция сообщает об ошибках записи и возвращает управление только после завершения записи.
+     * Запись атомарна: файл - словарь заменяется только полностью записанным файлом.
+     */
+    protected void persistDictionary() throws IOException {
+        DictionaryMetricsListener listener = metricsListener;
+        long start = listener == null ? 0 : System.nanoTime();
+        Dictionary dictionary = currentDictionary;
+        long bytes;
+        activePersistences.incrementAndGet();
+        try {
+            bytes = dictionaryWriter.write(dictionary, dictionaryData.records());
+            persistedVersion = fileVersionOf(dictionary);
+        }finally {
+            activePersistences.decrementAndGet();
+        }
+        if (dictionaryData instanceof FileBackedRecordStore){
+            try {
+                ((FileBackedRecordStore) dictionaryData).open(dictionary);
+            }catch (WrongEncodingException exception){
+                throw new IOException(exception);
+            }
+        }
+        if (listener != null){
+            listener.persistCompleted(dictionary, bytes, System.nanoTime() - start);
         }
     }
 
+    /**
+     * @return
+     * Строка, которая меняется при каждой записи файла - словаря: размер, время изменения и идентификатор файла,
+     * который меняется при атомарной замене файла.
+     */
+    static String fileVersionOf(Dictionary dictionary) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(dictionary.toPath(), BasicFileAttributes.class);
+        return attributes.size() + ":" + attributes.lastModifiedTime() + ":" + attributes.fileKey();
+    }
+
+    /**
+     * @return
+     * Признак того, что сервис записывает словарь на диск.
+     */
+    boolean isPersisting(){
+        return activePersistences.get() > 0;
+    }
+
+    /**
+     * @return
+     * Версия файла - словаря после последней записи сервисом, null если сервис не записывал словарь.
+     */
+    String getPersistedVersion(){
+        return persistedVersion;
+    }
+
+    /**
+     * Назначением функции является планирование асинхронной записи словаря на диск. Запросы, поступившие до начала
+     * уже запланированной записи, объединяются с ней, поэтому несколько изменений подряд приводят к одной записи.
+     */
+    private void schedulePersistence(){
+        if (!persistenceScheduled.compareAndSet(false, true)){
+            return;
+        }
+        persistenceExecutor().execute(() -> {
+            persistenceScheduled.set(false);
+            try {
+                persistDictionary();
+            }catch (IOException | RuntimeException exception){
+                reportError(exception);
+            }
+        });
+    }
+
+    private synchronized ExecutorService persistenceExecutor(){
+        if (persistenceExecutor == null){
+            persistenceExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "dictionary-persistence");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return persistenceExecutor;
+    }
+
     /**
      * Назначением функции является выполнение перечня операций при завершении редактирования
      * текущего состояния словаря.
+     * @param keys
+     * Ключи измененных записей.
+     */
+    private void finalizeOperation(String... keys){
+        DictionaryMetricsListener listener = metricsListener;
+        long start = listener == null ? 0 : System.nanoTime();
+        try {
+            switch (executionStyle){
+                case HARD:
+                    writeDictionary();
+                    break;
+                case JOURNAL:
+                    DictionaryJournal currentJournal = journal;
+                    if (currentJournal == null){
+                        break;
+                    }
+                    try {
+                        currentJournal.append(Arrays.asList(keys), dictionaryData::get);
+                    }catch (IOException exception){
+                        reportError(exception);
+                    }
+                    break;
+                case LAZY:
+            }
+        }finally {
+            operationCompleted(listener, ServiceOperation.FINALIZE, start);
+        }
+    }
+
+    /**
+     * Назначением функции является синхронное сохранение изменений в соответствии с типом выполнения операций.
+     * В отличие от finalizeOperation ошибки сохранения передаются вызывающему, а при типе HARD словарь
+     * записывается на диск однократно без объединения с другими запросами записи.
+     * @param keys
+     * Ключи измененных записей.
      */
-    private void finalizeOperation(){
-        switch (executionStyle){
-            case HARD:
-                writeDictionary();
-                break;
-            case LAZY:
+    private void persistChanges(List<String> keys) throws IOException {
+        DictionaryMetricsListener listener = metricsListener;
+        long start = listener == null ? 0 : System.nanoTime();
+        try {
+            switch (executionStyle){
+                case HARD:
+                    persistDictionary();
+                    break;
+                case JOURNAL:
+                    DictionaryJournal currentJournal = journal;
+                    if (currentJournal != null){
+                        currentJournal.append(keys, dictionaryData::get);
+                    }
+                    break;
+                case LAZY:
+            }
+        }finally {
+            operationCompleted(listener, ServiceOperation.FINALIZE, start);
         }
     }
 
     /**
-     * Назначением функции является проверка кодировки текущего словаря.
+     * Назначением функции является проверка операции пакета. Ключ не может содержать разделитель словаря,
+     * ключ и значение не могут содержать переводов строки, так как это нарушило бы формат файла - словаря.
+     */
+    private void validateOperation(DictionaryOperation operation, LanguageValidationPolicy policy) throws WrongOperationException {
+        if (operation == null || operation.getType() == null){
+            throw new WrongOperationException("Operation is not specified");
+        }
+        String key = operation.getKey();
+        if (key == null || key.isEmpty()){
+            throw new WrongOperationException("Operation key is empty");
+        }
+        if (currentDictionary != null && key.contains(currentDictionary.getSeparator())){
+            throw new WrongOperationException("Operation key contains the dictionary separator: " + key);
+        }
+        if (containsLineBreak(key)){
+            throw new WrongOperationException("Operation key contains a line break: " + key);
+        }
+        if (operation.getType() != DictionaryOperation.Type.DELETE){
+            if (operation.getWord() == null){
+                throw new WrongOperationException("Operation word is not specified for key " + key);
+            }
+            if (containsLineBreak(operation.getWord())){
+                throw new WrongOperationException("Operation word contains a line break for key " + key);
+            }
+            if (policy == LanguageValidationPolicy.REJECT_RECORD && currentDictionary != null){
+                LanguageStatistics.Score score = LanguageStatistics.Score.of(new DictionaryRecord(key, operation.getWord()), currentDictionary);
+                if (!score.isKeyValid()){
+                    throw new WrongOperationException("Operation key does not match the dictionary key language: " + key);
+                }
+                if (!score.isWordValid()){
+                    throw new WrongOperationException("Operation word does not match the dictionary word language for key " + key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Назначением функции является проверка того, что пакет операций в целом не опускает доли соответствия языкам
+     * словаря ниже минимальных. Промежуточные состояния пакета не проверяются, поэтому, например, замена записи
+     * удалением и созданием допускается.
+     */
+    private void validateLanguageRatios(Collection<DictionaryOperation> operations) throws WrongOperationException {
+        Dictionary dictionary = currentDictionary;
+        if (dictionary == null){
+            return;
+        }
+        Map<String, DictionaryRecord> states = new HashMap<>();
+        LanguageStatistics delta = new LanguageStatistics();
+        for (DictionaryOperation operation : operations) {
+            String key = operation.getKey();
+            DictionaryRecord previous = states.containsKey(key) ? states.get(key) : dictionaryData.get(key);
+            DictionaryRecord current;
+            switch (operation.getType()){
+                case CREATE:
+                    current = previous == null ? new DictionaryRecord(key, operation.getWord()) : previous;
+                    break;
+                case UPDATE:
+                    current = previous == null ? null : new DictionaryRecord(key, operation.getWord());
+                    break;
+                default:
+                    current = null;
+            }
+            if (previous != current){
+                delta.recordChanged(
+                        previous == null ? null : LanguageStatistics.Score.of(previous, dictionary),
+                        current == null ? null : LanguageStatistics.Score.of(current, dictionary));
+            }
+            states.put(key, current);
+        }
+        if (!languageStatistics.keepsRatios(delta)){
+            throw new WrongOperationException("Operations drop the dictionary language ratio below the minimal");
+        }
+    }
+
+    private static boolean containsLineBreak(String value){
+        return value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+    }
+
+    /**
+     * Назначением функции является передача длительности операции получателю измерений.
+     * @param listener
+     * Получатель измерений, прочитанный в начале операции, null если измерения отключены.
+     * @param start
+     * Время начала операции по System.nanoTime().
      */
-    private void validateDictionaryEncoding(byte[] dictionaryBytes) throws WrongEncodingException {
-        if (! currentDictionary.getEncoding().isArrayOfBytesMatchTheEncoding(dictionaryBytes)){
-            throw new WrongEncodingException();
+    private static void operationCompleted(DictionaryMetricsListener listener, ServiceOperation operation, long start){
+        if (listener != null){
+            listener.operationCompleted(operation, System.nanoTime() - start);
         }
     }
 
     /**
-     * Назначением функции является считывание всех байтов из текущего словаря.
+     * Назначением функции является вывод ошибки в стандартный поток ошибок и передача ее получателю измерений.
+     */
+    void reportError(Exception exception){
+        exception.printStackTrace();
+        DictionaryMetricsListener listener = metricsListener;
+        if (listener != null){
+            listener.errorOccurred(exception);
+        }
+    }
+
+    /**
+     * Назначением функции является применение журналов изменений, оставшихся от предыдущей работы с текущим
+     * словарем, и открытие журнала изменений при типе выполнения операций JOURNAL. Примененные журналы
+     * сворачиваются в файл - словарь до открытия нового журнала.
      * @return
-     * Указатель на массив считанных из текущего словаря байтов.
+     * Признак того, что журналы были применены и файл - словарь перезаписан.
      */
-    private byte[] readAllDictionaryBytes(){
-        byte[] bytes = new byte[]{};
+    private boolean recoverJournal() throws IOException {
+        boolean replayed = DictionaryJournal.replay(currentDictionary, entry -> {
+            if (entry.getType() == JournalEntry.Type.PUT){
+                DictionaryRecord record = new DictionaryRecord(entry.getKey(), entry.getWord());
+                accountChange(dictionaryData.put(record), record);
+            }else {
+                DictionaryRecord previous = dictionaryData.remove(entry.getKey());
+                if (previous != null){
+                    accountChange(previous, null);
+                }
+            }
+        });
+        if (replayed){
+            persistDictionary();
+            DictionaryJournal.delete(currentDictionary);
+        }
+        if (executionStyle == ExecutionStyle.JOURNAL){
+            journal = new DictionaryJournal(currentDictionary, journalSyncPolicy, journalSyncPeriodMillis, journalCompactionThreshold, this::persistDictionary, dictionaryData.isThreadSafe());
+        }
+        return replayed;
+    }
+
+    /**
+     * Назначением функции является закрытие журнала изменений со сворачиванием его в файл - словарь.
+     */
+    private void closeJournal() throws IOException {
+        if (journal != null){
+            journal.close();
+            journal = null;
+            persistDictionary();
+            DictionaryJournal.delete(currentDictionary);
+        }
+    }
+
+    /**
+     * Назначением функции является освобождение ресурсов сервиса: журнал изменений сворачивается в файл - словарь,
+     * тип выполнения операций становится LAZY, функция дожидается выполнения уже запланированной асинхронной записи,
+     * хранилище, читающее файл - словарь, закрывается. Изменения, сделанные после закрытия,
+     * на диск не записываются.
+     */
+    public void close(){
+        asynchronousPersistence = false;
+        executionStyle = ExecutionStyle.LAZY;
         try {
-            InputStream inputStream = new FileInputStream(currentDictionary);
-            bytes = new byte[inputStream.available()];
-            inputStream.read(bytes);
+            closeJournal();
         }catch (IOException exception){
-            exception.printStackTrace();
+            reportError(exception);
+        }
+        ExecutorService executor;
+        synchronized (this){
+            executor = persistenceExecutor;
+            persistenceExecutor = null;
+        }
+        if (executor != null){
+            executor.shutdown();
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            }catch (InterruptedException exception){
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (dictionaryData instanceof FileBackedRecordStore){
+            try {
+                ((FileBackedRecordStore) dictionaryData).close();
+            }catch (IOException exception){
+                reportError(exception);
+            }
         }
-        return bytes;
     }
 
     public boolean isDictionarySelected(){
@@ -169,47 +1252,253 @@ public class DictionaryService {
         if (currentDictionary.getKeyLanguage() == Language.UNKNOWN_LANGUAGE || currentDictionary.getWordLanguage() == Language.UNKNOWN_LANGUAGE){
             throw new UnknownLanguageException();
         }
+        try {
+            closeJournal();
+        }catch (IOException exception){
+            reportError(exception);
+        }
+        long loadStart = System.nanoTime();
+        LoadStatistics loaded = new LoadStatistics();
         this.currentDictionary = currentDictionary;
-        this.dictionaryData = new LinkedHashSet<>();
-        try {
-            byte[] dictionaryBytes = readAllDictionaryBytes();
-            if(dictionaryBytes.length > 20){
-                validateDictionaryEncoding(dictionaryBytes);
-            }
-            int keySymbolsCount = 0, keySymbolsLanguageMatches = 0, wordSymbolsCount = 0, worldSymbolsLanguageMatches = 0;
-            String currentLine;
-            DictionaryRecord currentRecord;
-            BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(new FileInputStream(currentDictionary), StandardCharsets.UTF_8));
-            while ( (currentLine = bufferedReader.readLine()) != null){
-                String[] keyWordPair = currentLine.split(currentDictionary.getSeparator());
-                currentRecord = new DictionaryRecord(keyWordPair[0], keyWordPair[1]);
-                keySymbolsCount += currentRecord.getKey().length();
-                wordSymbolsCount += currentRecord.getWord().length();
-                keySymbolsLanguageMatches += currentDictionary.getKeyLanguage().countOfMatches(currentRecord.getKey(), currentDictionary.getEncoding());
-                worldSymbolsLanguageMatches += currentDictionary.getWordLanguage().countOfMatches(currentRecord.getWord(), currentDictionary.getEncoding());
-                dictionaryData.add(currentRecord);
-            }
-
-            if ((double)keySymbolsLanguageMatches / keySymbolsCount < Dictionary.KEY_LANGUAGE_MINIMAL_RATIO){
+        this.dictionaryData.clear();
+        this.languageStatistics.reset();
+        try {
+            LoadStatistics statistics;
+            boolean fileBacked = dictionaryData instanceof FileBackedRecordStore;
+            boolean snapshotRequired = false;
+            long sourceLength = currentDictionary.length(), sourceLastModified = currentDictionary.lastModified();
+            try {
+                DictionarySnapshot snapshot = snapshotEnabled && !fileBacked ? DictionarySnapshot.open(currentDictionary) : null;
+                if (fileBacked){
+                    loaded = ((FileBackedRecordStore) dictionaryData).open(currentDictionary);
+                }else if (snapshot != null){
+                    snapshot.forEach(dictionaryData::putIfAbsent);
+                    loaded = snapshot.getStatistics();
+                }else {
+                    loaded = dictionaryLoader.load(currentDictionary, record -> {
+                        if (!dictionaryData.putIfAbsent(record)){
+                            accountChange(record, null);
+                        }
+                    });
+                    snapshotRequired = snapshotEnabled && !fileBacked;
+                }
+                languageStatistics.add(loaded);
+                if (recoverJournal()){
+                    snapshotRequired = snapshotEnabled && !fileBacked;
+                    sourceLength = currentDictionary.length();
+                    sourceLastModified = currentDictionary.lastModified();
+                }
+            }finally {
+                releaseWordIndex();
+                recordIndexes.rebuild(dictionaryData.records());
+            }
+            statistics = languageStatistics.toLoadStatistics();
+            if (snapshotRequired){
+                try {
+                    DictionarySnapshot.write(currentDictionary, dictionaryData.records(), statistics, sourceLength, sourceLastModified);
+                }catch (IOException exception){
+                    reportError(exception);
+                }
+            }
+
+            if (statistics.getKeyLanguageRatio() < Dictionary.KEY_LANGUAGE_MINIMAL_RATIO){
                 throw new WrongKeyLanguageException();
             }
-            else if ((double)worldSymbolsLanguageMatches / wordSymbolsCount < Dictionary.WORD_LANGUAGE_MINIMAL_RATIO){
+            else if (statistics.getWordLanguageRatio() < Dictionary.WORD_LANGUAGE_MINIMAL_RATIO){
                 throw new WrongWordLanguageException();
             }
         }catch (IOException | WrongKeyLanguageException | WrongWordLanguageException | WrongEncodingException exception){
-            exception.printStackTrace();
+            reportError(exception);
         }
+        lastLoadStatistics = loaded;
+        lastLoadNanos = System.nanoTime() - loadStart;
+        DictionaryMetricsListener listener = metricsListener;
+        if (listener != null){
+            listener.loadCompleted(currentDictionary, loaded, lastLoadNanos);
+        }
+    }
+
+    /**
+     * @return
+     * Представление записей текущего состояния словаря в порядке добавления, доступное только для чтения.
+     */
+    public Collection<DictionaryRecord> getDictionaryData() {
+        return dictionaryData.records();
     }
 
-    public LinkedHashSet<DictionaryRecord> getDictionaryData() {
+    public RecordStore getRecordStore() {
         return dictionaryData;
     }
 
+    public DictionaryLoader getDictionaryLoader() {
+        return dictionaryLoader;
+    }
+
+    /**
+     * Назначением функции является смена загрузчика файлов - словарей, например на ParallelDictionaryLoader
+     * для параллельной загрузки. Новый загрузчик применяется при следующем вызове setCurrentDictionary.
+     * Загрузчик не используется, если хранилище записей само читает файл - словарь (FileBackedRecordStore).
+     */
+    public void setDictionaryLoader(DictionaryLoader dictionaryLoader) {
+        this.dictionaryLoader = dictionaryLoader;
+    }
+
+    public boolean isSnapshotEnabled() {
+        return snapshotEnabled;
+    }
+
+    /**
+     * Назначением функции является включение двоичных снимков словарей. При включенных снимках словарь загружается
+     * из действительного снимка без разбора текста, а после загрузки из файла - словаря снимок записывается заново.
+     * Снимок становится недействительным при любом изменении файла - словаря, в том числе при его сохранении
+     * сервисом. Снимки не используются хранилищами, которые сами читают файл - словарь.
+     */
+    public void setSnapshotEnabled(boolean snapshotEnabled) {
+        this.snapshotEnabled = snapshotEnabled;
+    }
+
+    /**
+     * @return
+     * Счетчики соответствия записей текущего словаря его языкам, актуальные после каждого изменения словаря.
+     */
+    public LanguageStatistics getLanguageStatistics() {
+        return languageStatistics;
+    }
+
+    public double getKeyLanguageRatio(){
+        return languageStatistics.getKeyLanguageRatio();
+    }
+
+    public double getWordLanguageRatio(){
+        return languageStatistics.getWordLanguageRatio();
+    }
+
+    public LanguageValidationPolicy getLanguageValidationPolicy() {
+        return languageValidationPolicy;
+    }
+
+    /**
+     * Назначением функции является смена политики проверки соответствия изменяемых записей языкам словаря.
+     * Отклоненные одиночные изменения выводятся в стандартный поток ошибок, пакет операций с отклоненным
+     * изменением не применяется целиком.
+     */
+    public void setLanguageValidationPolicy(LanguageValidationPolicy languageValidationPolicy) {
+        this.languageValidationPolicy = languageValidationPolicy;
+    }
+
+    public long getRejectedChangesCount() {
+        return rejectedChangesCount.get();
+    }
+
+    public DictionaryMetricsListener getMetricsListener() {
+        return metricsListener;
+    }
+
+    /**
+     * Назначением функции является установка получателя измерений сервиса. Пока получатель не установлен,
+     * время операций не измеряется, поэтому измерения не замедляют сервис. Установленный получатель стоит двух
+     * вызовов System.nanoTime() на операцию, что заметно для чтений из хранилищ в памяти.
+     * @param metricsListener
+     * Получатель измерений, null для отключения измерений.
+     */
+    public void setMetricsListener(DictionaryMetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+    }
+
+    /**
+     * @return
+     * Счетчики загрузчика при последнем выборе словаря, в том числе время этапов загрузки, null если словарь
+     * не выбирался.
+     */
+    public LoadStatistics getLastLoadStatistics() {
+        return lastLoadStatistics;
+    }
+
+    public long getLastLoadNanos() {
+        return lastLoadNanos;
+    }
+
+    /**
+     * @return
+     * Количество различных значений в обратном индексе, -1 если индекс не построен.
+     */
+    public int getWordIndexSize() {
+        WordIndex index = wordIndex;
+        return index == null ? -1 : index.size();
+    }
+
     public ExecutionStyle getExecutionStyle() {
         return executionStyle;
     }
 
+    /**
+     * Назначением функции является смена типа выполнения операций. При переходе к типу JOURNAL открывается
+     * журнал изменений, при переходе от него журнал сворачивается в файл - словарь.
+     */
     public void setExecutionStyle(ExecutionStyle executionStyle) {
-        this.executionStyle = executionStyle;
+        try {
+            if (executionStyle != ExecutionStyle.JOURNAL){
+                closeJournal();
+            }
+            this.executionStyle = executionStyle;
+            if (executionStyle == ExecutionStyle.JOURNAL && journal == null && currentDictionary != null){
+                journal = new DictionaryJournal(currentDictionary, journalSyncPolicy, journalSyncPeriodMillis, journalCompactionThreshold, this::persistDictionary, dictionaryData.isThreadSafe());
+            }
+        }catch (IOException exception){
+            reportError(exception);
+        }
+    }
+
+    public boolean isAsynchronousPersistence() {
+        return asynchronousPersistence;
+    }
+
+    /**
+     * Назначением функции является включение или отключение асинхронного выполнения writeDictionary, в том числе
+     * при типе выполнения операций HARD. При асинхронном выполнении writeDictionary возвращает управление сразу,
+     * а идущие подряд запросы записи объединяются в одну запись.
+     * Асинхронная запись обходит записи хранилища в фоновом потоке во время их изменения, поэтому она доступна
+     * только для потокобезопасного хранилища, см. RecordStore.isThreadSafe.
+     * @throws IllegalStateException
+     * Если асинхронное выполнение включается для хранилища, которое не является потокобезопасным.
+     */
+    public void setAsynchronousPersistence(boolean asynchronousPersistence) {
+        if (asynchronousPersistence && !dictionaryData.isThreadSafe()){
+            throw new IllegalStateException("Asynchronous persistence requires a thread-safe record store");
+        }
+        this.asynchronousPersistence = asynchronousPersistence;
+    }
+
+    public JournalSyncPolicy getJournalSyncPolicy() {
+        return journalSyncPolicy;
+    }
+
+    /**
+     * Новая политика применяется при следующем открытии журнала изменений.
+     */
+    public void setJournalSyncPolicy(JournalSyncPolicy journalSyncPolicy) {
+        this.journalSyncPolicy = journalSyncPolicy;
+    }
+
+    public long getJournalSyncPeriodMillis() {
+        return journalSyncPeriodMillis;
+    }
+
+    /**
+     * Новый период применяется при следующем открытии журнала изменений.
+     */
+    public void setJournalSyncPeriodMillis(long journalSyncPeriodMillis) {
+        this.journalSyncPeriodMillis = journalSyncPeriodMillis;
+    }
+
+    public long getJournalCompactionThreshold() {
+        return journalCompactionThreshold;
+    }
+
+    /**
+     * Новый порог применяется при следующем открытии журнала изменений.
+     */
+    public void setJournalCompactionThreshold(long journalCompactionThreshold) {
+        this.journalCompactionThreshold = journalCompactionThreshold;
     }
 }
@@ -0,0 +1,254 @@
+package org.SimpleDictionaryService;
+
+import org.SimpleDictionaryService.pipeline.DictionaryPipeline;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель наблюдателя за файлом - словарем сервиса. Изменения файла другими процессами
+ * обнаруживаются через WatchService и применяются к сервису без полной перезагрузки: наблюдатель хранит копию
+ * последней примененной версии файла и сравнивает ее с новой версией по строкам DictionaryPipeline.lineDiff,
+ * поэтому применяются только записи, измененные в файле, а изменения сервиса, еще не записанные на диск,
+ * сохраняются, если тот же ключ не изменен в файле. Сравнение выполняется потоком наблюдателя, чтения сервиса
+ * при этом не блокируются.
+ * Записи словаря самим сервисом распознаются по версии файла и не применяются повторно. После выбора сервисом
+ * другого словаря изменения файла не применяются. Хранилище, читающее файл - словарь, остается согласованным,
+ * только если файл заменяется атомарно, как это делает DictionaryWriter.
+ */
+public class DictionaryWatcher implements Closeable {
+
+    /**
+     * Время без новых событий файла по умолчанию, после которого файл считается записанным.
+     */
+    public static final long DEFAULT_QUIET_PERIOD_MILLIS = 100;
+
+    /**
+     * Количество операций, применяемых к сервису за один вызов.
+     */
+    private static final int APPLY_BATCH_SIZE = 1024;
+
+    private final DictionaryService service;
+
+    private final Dictionary dictionary;
+
+    private final Path path;
+
+    private final long quietPeriodMillis;
+
+    /**
+     * Копия последней примененной версии файла - словаря.
+     */
+    private final File baseline;
+
+    /**
+     * Версия файла - словаря, соответствующая копии, см. DictionaryService.fileVersionOf.
+     */
+    private String baselineVersion;
+
+    private final WatchService watchService;
+
+    private final Thread thread;
+
+    private final List<DictionaryChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean closed;
+
+    private volatile long reloadsCount;
+
+    /**
+     * @param quietPeriodMillis
+     * Время без новых событий файла, после которого файл считается записанным, объединяет события одной записи.
+     */
+    public DictionaryWatcher(DictionaryService service, long quietPeriodMillis) throws IOException {
+        this.service = service;
+        this.dictionary = service.getCurrentDictionary();
+        if (dictionary == null){
+            throw new IllegalStateException("Dictionary is not selected");
+        }
+        this.path = dictionary.toPath().toAbsolutePath();
+        this.quietPeriodMillis = quietPeriodMillis;
+        this.baseline = File.createTempFile("dictionary-watch-", ".txt");
+        baseline.deleteOnExit();
+        this.baselineVersion = DictionaryService.fileVersionOf(dictionary);
+        Files.copy(path, baseline.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        this.watchService = path.getFileSystem().newWatchService();
+        path.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::watch, "dictionary-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public DictionaryWatcher(DictionaryService service) throws IOException {
+        this(service, DEFAULT_QUIET_PERIOD_MILLIS);
+    }
+
+    public void addChangeListener(DictionaryChangeListener listener){
+        listeners.add(listener);
+    }
+
+    public void removeChangeListener(DictionaryChangeListener listener){
+        listeners.remove(listener);
+    }
+
+    /**
+     * Назначением функции является ожидание событий каталога файла - словаря. После события файла наблюдатель
+     * ждет, пока события не прекратятся на время quietPeriodMillis и сервис не закончит запись словаря,
+     * и только затем применяет изменения.
+     */
+    private void watch(){
+        while (!closed){
+            try {
+                if (!isDictionaryEvent(watchService.take())){
+                    continue;
+                }
+                WatchKey next;
+                while ((next = watchService.poll(quietPeriodMillis, TimeUnit.MILLISECONDS)) != null || service.isPersisting()){
+                    if (next != null){
+                        isDictionaryEvent(next);
+                    }
+                }
+                reload();
+            }catch (InterruptedException | ClosedWatchServiceException exception){
+                break;
+            }catch (IOException | RuntimeException exception){
+                service.reportError(exception);
+            }
+        }
+    }
+
+    /**
+     * @return
+     * Признак того, что среди событий ключа есть события файла - словаря или потерянные события.
+     */
+    private boolean isDictionaryEvent(WatchKey key){
+        boolean dictionaryEvent = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            dictionaryEvent |= event.kind() == StandardWatchEventKinds.OVERFLOW || path.getFileName().equals(event.context());
+        }
+        key.reset();
+        return dictionaryEvent;
+    }
+
+    /**
+     * Назначением функции является применение к сервису изменений файла - словаря, сделанных после предыдущего
+     * применения. Вызывается наблюдателем после изменения файла и может быть вызвана явно.
+     * @return
+     * Количество операций, которые изменили словарь сервиса.
+     */
+    public synchronized int reload() throws IOException {
+        Dictionary current = service.getCurrentDictionary();
+        if (closed || current == null || !current.toPath().toAbsolutePath().equals(path) || !Files.exists(path)){
+            return 0;
+        }
+        String version = DictionaryService.fileVersionOf(current);
+        if (version.equals(baselineVersion)){
+            return 0;
+        }
+        if (version.equals(service.getPersistedVersion())){
+            Files.copy(path, baseline.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            baselineVersion = version;
+            return 0;
+        }
+        File next = File.createTempFile("dictionary-watch-", ".txt");
+        try {
+            Files.copy(path, next.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            List<String> createdKeys = new ArrayList<>(), updatedKeys = new ArrayList<>(), deletedKeys = new ArrayList<>();
+            List<DictionaryOperation> operations = new ArrayList<>(APPLY_BATCH_SIZE);
+            int[] changedCount = new int[1];
+            DictionaryPipeline.lineDiff(copyOf(current, baseline), copyOf(current, next), operation -> {
+                operations.add(operation);
+                if (operations.size() == APPLY_BATCH_SIZE){
+                    changedCount[0] += service.applyFileChanges(operations, createdKeys, updatedKeys, deletedKeys);
+                    operations.clear();
+                }
+            });
+            changedCount[0] += service.applyFileChanges(operations, createdKeys, updatedKeys, deletedKeys);
+            Files.move(next.toPath(), baseline.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            baselineVersion = version;
+            reloadsCount++;
+            notifyListeners(current, createdKeys, updatedKeys, deletedKeys);
+            return changedCount[0];
+        }finally {
+            Files.deleteIfExists(next.toPath());
+        }
+    }
+
+    private void notifyListeners(Dictionary current, List<String> createdKeys, List<String> updatedKeys, List<String> deletedKeys){
+        for (DictionaryChangeListener listener : listeners) {
+            try {
+                if (!createdKeys.isEmpty()){
+                    listener.recordsCreated(current, createdKeys);
+                }
+                if (!updatedKeys.isEmpty()){
+                    listener.recordsUpdated(current, updatedKeys);
+                }
+                if (!deletedKeys.isEmpty()){
+                    listener.recordsDeleted(current, deletedKeys);
+                }
+            }catch (RuntimeException exception){
+                service.reportError(exception);
+            }
+        }
+    }
+
+    /**
+     * @return
+     * Словарь с параметрами исходного словаря и другим файлом.
+     */
+    private static Dictionary copyOf(Dictionary source, File file){
+        return new Dictionary(file.getPath(), source.getEncoding(), source.getWordLanguage(), source.getKeyLanguage(), source.getSeparator());
+    }
+
+    /**
+     * Назначением функции является остановка наблюдения с ожиданием завершения выполняющегося применения изменений.
+     * Сервис при этом не закрывается.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        watchService.close();
+        if (Thread.currentThread() != thread){
+            try {
+                thread.join();
+            }catch (InterruptedException exception){
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this){
+            Files.deleteIfExists(baseline.toPath());
+        }
+    }
+
+    public Dictionary getDictionary() {
+        return dictionary;
+    }
+
+    public long getQuietPeriodMillis() {
+        return quietPeriodMillis;
+    }
+
+    /**
+     * @return
+     * Количество применений изменений файла - словаря, сделанных вне сервиса.
+     */
+    public long getReloadsCount() {
+        return reloadsCount;
+    }
+}
@@ -2,5 +2,10 @@ package org.SimpleDictionaryService;
 
 public enum ExecutionStyle {
     LAZY,
-    HARD
+    HARD,
+    /**
+     * Каждое изменение дописывается в журнал изменений словаря, который периодически сворачивается
+     * в основной файл словаря.
+     */
+    JOURNAL
 }
@@ -0,0 +1,308 @@
+package org.SimpleDictionaryService;
+
+import org.SimpleDictionaryService.index.RecordIndex;
+import org.SimpleDictionaryService.language.Language;
+import org.SimpleDictionaryService.pipeline.DictionarySharding;
+import org.SimpleDictionaryService.throwable.UnknownEncodingException;
+import org.SimpleDictionaryService.throwable.UnknownLanguageException;
+import org.SimpleEncodings.Encoding;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель сервиса словаря, разбитого на сегменты (см. DictionarySharding). Каждый сегмент
+ * обслуживается собственным сервисом словарей, поэтому сегменты загружаются и сохраняются независимо и параллельно,
+ * а объем одного файла и одного хранилища ограничен размером сегмента. Операции с записью направляются в сегмент
+ * ее ключа. Изменения сохраняются сервисами сегментов в соответствии с типом выполнения операций, а flush
+ * перезаписывает только сегменты, измененные после предыдущего сохранения.
+ */
+public class ShardedDictionaryService {
+
+    /**
+     * Исходный словарь, определяющий имена файлов сегментов, кодировку, языки и разделитель.
+     */
+    private final Dictionary dictionary;
+
+    private final DictionaryService[] shards;
+
+    /**
+     * Признаки изменения сегментов после их последнего сохранения.
+     */
+    private final ShardChanges[] changes;
+
+    private final ExecutorService executor;
+
+    /**
+     * Признак того, что пул потоков создан сервисом и должен быть завершен при его закрытии.
+     */
+    private final boolean ownExecutor;
+
+    /**
+     * Назначением функции является создание сервиса и параллельная загрузка сегментов. Отсутствующие файлы сегментов
+     * создаются пустыми.
+     * @param dictionary
+     * Исходный словарь, файлы сегментов которого загружаются.
+     * @param shardsCount
+     * Количество сегментов, с которым словарь был разбит.
+     * @param serviceFactory
+     * Функция создания и загрузки сервиса сегмента.
+     * @param executor
+     * Пул потоков загрузки и сохранения сегментов.
+     */
+    public ShardedDictionaryService(Dictionary dictionary, int shardsCount, DictionaryRegistry.ServiceFactory serviceFactory, ExecutorService executor) throws UnknownEncodingException, UnknownLanguageException {
+        this(dictionary, shardsCount, serviceFactory, executor, false);
+    }
+
+    /**
+     * Сервис с потокобезопасными сервисами сегментов и собственным пулом потоков.
+     */
+    public ShardedDictionaryService(Dictionary dictionary, int shardsCount, ExecutionStyle executionStyle) throws UnknownEncodingException, UnknownLanguageException {
+        this(dictionary, shardsCount, shard -> new ConcurrentDictionaryService(shard, executionStyle), newShardExecutor(shardsCount), true);
+    }
+
+    private ShardedDictionaryService(Dictionary dictionary, int shardsCount, DictionaryRegistry.ServiceFactory serviceFactory, ExecutorService executor, boolean ownExecutor) throws UnknownEncodingException, UnknownLanguageException {
+        if (dictionary.getEncoding() == Encoding.UNKNOWN_ENCODING){
+            throw new UnknownEncodingException();
+        }
+        if (dictionary.getKeyLanguage() == Language.UNKNOWN_LANGUAGE || dictionary.getWordLanguage() == Language.UNKNOWN_LANGUAGE){
+            throw new UnknownLanguageException();
+        }
+        this.dictionary = dictionary;
+        this.executor = executor;
+        this.ownExecutor = ownExecutor;
+        this.shards = new DictionaryService[shardsCount];
+        this.changes = new ShardChanges[shardsCount];
+        List<Dictionary> shardDictionaries = DictionarySharding.shardDictionaries(dictionary, shardsCount);
+        List<CompletableFuture<DictionaryService>> loads = new ArrayList<>(shardsCount);
+        for (Dictionary shardDictionary : shardDictionaries) {
+            loads.add(CompletableFuture.supplyAsync(() -> loadShard(shardDictionary, serviceFactory), executor));
+        }
+        try {
+            for (int index = 0; index < shardsCount; index++) {
+                shards[index] = loads.get(index).join();
+                changes[index] = new ShardChanges();
+                shards[index].addRecordIndex(changes[index]);
+                changes[index].dirty = false;
+            }
+        }catch (CompletionException exception){
+            if (ownExecutor){
+                executor.shutdown();
+            }
+            if (exception.getCause() instanceof UnknownEncodingException){
+                throw (UnknownEncodingException) exception.getCause();
+            }
+            if (exception.getCause() instanceof UnknownLanguageException){
+                throw (UnknownLanguageException) exception.getCause();
+            }
+            throw exception;
+        }
+    }
+
+    private static ExecutorService newShardExecutor(int shardsCount){
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, Math.min(shardsCount, Runtime.getRuntime().availableProcessors())), runnable -> {
+            Thread thread = new Thread(runnable, "dictionary-shard-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Назначением функции является создание сервиса сегмента. Ошибка создания файла сегмента передается
+     * созданному сервису, так как до его создания ее некому сообщить.
+     */
+    private static DictionaryService loadShard(Dictionary shardDictionary, DictionaryRegistry.ServiceFactory serviceFactory){
+        IOException creationError = null;
+        try {
+            Files.createFile(shardDictionary.toPath());
+        }catch (FileAlreadyExistsException exception){
+            // сегмент уже существует
+        }catch (IOException exception){
+            creationError = exception;
+        }
+        DictionaryService shard;
+        try {
+            shard = serviceFactory.create(shardDictionary);
+        }catch (UnknownEncodingException | UnknownLanguageException exception){
+            throw new CompletionException(exception);
+        }
+        if (creationError != null){
+            shard.reportError(creationError);
+        }
+        return shard;
+    }
+
+    /**
+     * @see DictionaryService#createRecord(DictionaryRecord)
+     */
+    public void createRecord(DictionaryRecord record){
+        shardOf(record.getKey()).createRecord(record);
+    }
+
+    /**
+     * @see DictionaryService#readRecord(String)
+     */
+    public DictionaryRecord readRecord(String key){
+        return shardOf(key).readRecord(key);
+    }
+
+    /**
+     * @see DictionaryService#updateRecord(String, String)
+     */
+    public void updateRecord(String key, String newWord){
+        shardOf(key).updateRecord(key, newWord);
+    }
+
+    /**
+     * @see DictionaryService#deleteRecord(String)
+     */
+    public void deleteRecord(String key){
+        shardOf(key).deleteRecord(key);
+    }
+
+    /**
+     * @see DictionaryService#readRecords(Collection)
+     */
+    public Map<String, DictionaryRecord> readRecords(Collection<String> keys){
+        Map<String, DictionaryRecord> records = new LinkedHashMap<>(Math.max(16, (int)(keys.size() / 0.75f) + 1));
+        for (String key : keys) {
+            records.put(key, shardOf(key).readRecord(key));
+        }
+        return records;
+    }
+
+    /**
+     * Назначением функции является параллельное сохранение сегментов, измененных после их последнего сохранения.
+     * Сегменты с типом выполнения операций JOURNAL принудительно записывают журнал изменений на диск, сегменты
+     * с типом LAZY записываются на диск целиком, сегменты с типом HARD уже записаны при изменении. Функция возвращает управление после сохранения всех сегментов.
+     * Ошибки записи передаются сервису сегмента (DictionaryService#reportError), сегмент при этом остается измененным.
+     * @return
+     * Количество измененных сегментов, сохранение которых выполнено.
+     */
+    public int flush(){
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        for (int index = 0; index < shards.length; index++) {
+            if (changes[index].dirty){
+                changes[index].dirty = false;
+                int shard = index;
+                writes.add(CompletableFuture.runAsync(() -> flushShard(shard), executor));
+            }
+        }
+        CompletableFuture.allOf(writes.toArray(new CompletableFuture<?>[0])).join();
+        return writes.size();
+    }
+
+    private void flushShard(int index){
+        DictionaryService shard = shards[index];
+        switch (shard.getExecutionStyle()){
+            case HARD:
+                return;
+            case JOURNAL:
+                shard.flush();
+                return;
+            case LAZY:
+        }
+        try {
+            shard.persistDictionary();
+        }catch (IOException exception){
+            changes[index].dirty = true;
+            shard.reportError(exception);
+        }
+    }
+
+    /**
+     * Назначением функции является параллельное закрытие сервисов сегментов. Изменения, не сохраненные
+     * в соответствии с типом выполнения операций, на диск не записываются, для их записи перед закрытием
+     * следует вызвать flush.
+     * @see DictionaryService#close()
+     */
+    public void close(){
+        List<CompletableFuture<Void>> closes = new ArrayList<>(shards.length);
+        for (DictionaryService shard : shards) {
+            closes.add(CompletableFuture.runAsync(shard::close, executor));
+        }
+        CompletableFuture.allOf(closes.toArray(new CompletableFuture<?>[0])).join();
+        if (ownExecutor){
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @return
+     * Сервис сегмента, в который направляются операции с ключом.
+     */
+    public DictionaryService shardOf(String key){
+        return shards[DictionarySharding.shardOf(key, shards.length)];
+    }
+
+    public DictionaryService getShard(int index){
+        return shards[index];
+    }
+
+    public int getShardsCount(){
+        return shards.length;
+    }
+
+    public Dictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * @return
+     * Количество записей во всех сегментах.
+     */
+    public long size(){
+        long size = 0;
+        for (DictionaryService shard : shards) {
+            size += shard.getRecordStore().size();
+        }
+        return size;
+    }
+
+    /**
+     * @return
+     * Количество сегментов, измененных после их последнего сохранения.
+     */
+    public int getDirtyShardsCount(){
+        int count = 0;
+        for (ShardChanges shardChanges : changes) {
+            if (shardChanges.dirty){
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Класс, являющий собой модель признака изменения сегмента, поддерживаемого сервисом сегмента как индекс записей.
+     */
+    private static final class ShardChanges implements RecordIndex {
+
+        private volatile boolean dirty;
+
+        @Override
+        public void recordChanged(DictionaryRecord previous, DictionaryRecord current) {
+            dirty = true;
+        }
+
+        @Override
+        public void clear() {
+
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.SimpleDictionaryService.index;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель результата нечеткого поиска: найденный ключ и расстояние Левенштейна
+ * от него до искомой строки.
+ */
+public class FuzzyMatch {
+
+    private final String key;
+
+    private final int distance;
+
+    public FuzzyMatch(String key, int distance){
+        this.key = key;
+        this.distance = distance;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int getDistance() {
+        return distance;
+    }
+
+    @Override
+    public String toString() {
+        return key + "(" + distance + ")";
+    }
+}
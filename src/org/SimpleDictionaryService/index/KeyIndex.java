@@ -0,0 +1,249 @@
+package org.SimpleDictionaryService.index;
+
+import org.SimpleDictionaryService.DictionaryRecord;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель упорядоченного индекса ключей словаря, используемого для поиска по префиксу
+ * и выборки диапазонов ключей за O(log n + k), а также для нечеткого поиска по расстоянию Левенштейна.
+ * При нечетком поиске упорядоченное множество ключей обходится как префиксное дерево (автомат Левенштейна):
+ * строка матрицы расстояний вычисляется один раз на префикс, префикс, все значения строки которого превышают
+ * допустимое расстояние, отбрасывается вместе со всеми продолжениями.
+ */
+public class KeyIndex implements RecordIndex {
+
+    private static final Comparator<FuzzyMatch> CLOSEST_FIRST = (first, second) -> first.getDistance() != second.getDistance()
+            ? Integer.compare(first.getDistance(), second.getDistance())
+            : first.getKey().compareTo(second.getKey());
+
+    private final ConcurrentSkipListSet<String> keys = new ConcurrentSkipListSet<>();
+
+    @Override
+    public void recordChanged(DictionaryRecord previous, DictionaryRecord current) {
+        if (previous == null){
+            keys.add(current.getKey());
+        }else if (current == null){
+            keys.remove(previous.getKey());
+        }
+    }
+
+    @Override
+    public void clear() {
+        keys.clear();
+    }
+
+    /**
+     * Назначением функции является поиск ключей, начинающихся с префикса.
+     * @param prefix
+     * Префикс ключей.
+     * @param limit
+     * Максимальное количество ключей.
+     * @return
+     * Первые в лексикографическом порядке ключи, начинающиеся с префикса.
+     */
+    public List<String> keysWithPrefix(String prefix, int limit){
+        List<String> result = new ArrayList<>(Math.min(limit, 16));
+        for (String key : keys.tailSet(prefix, true)) {
+            if (result.size() >= limit || !key.startsWith(prefix)){
+                break;
+            }
+            result.add(key);
+        }
+        return result;
+    }
+
+    /**
+     * Назначением функции является выборка диапазона ключей.
+     * @param fromKey
+     * Нижняя граница диапазона, null если диапазон не ограничен снизу.
+     * @param fromInclusive
+     * Признак включения нижней границы в диапазон.
+     * @param toKey
+     * Верхняя граница диапазона, null если диапазон не ограничен сверху.
+     * @param toInclusive
+     * Признак включения верхней границы в диапазон.
+     * @param limit
+     * Максимальное количество ключей.
+     * @return
+     * Ключи диапазона в лексикографическом порядке.
+     */
+    public List<String> keysInRange(String fromKey, boolean fromInclusive, String toKey, boolean toInclusive, int limit){
+        NavigableSet<String> range = keys;
+        if (fromKey != null){
+            range = range.tailSet(fromKey, fromInclusive);
+        }
+        if (toKey != null){
+            range = range.headSet(toKey, toInclusive);
+        }
+        List<String> result = new ArrayList<>(Math.min(limit, 16));
+        for (String key : range) {
+            if (result.size() >= limit){
+                break;
+            }
+            result.add(key);
+        }
+        return result;
+    }
+
+    /**
+     * Назначением функции является поиск ключей, ближайших к строке по расстоянию Левенштейна.
+     * @param query
+     * Искомая строка.
+     * @param maxDistance
+     * Максимальное расстояние от ключа до искомой строки.
+     * @param limit
+     * Максимальное количество ключей.
+     * @return
+     * Ключи в порядке возрастания расстояния, при равном расстоянии - в лексикографическом порядке.
+     */
+    public List<FuzzyMatch> similarKeys(String query, int maxDistance, int limit){
+        List<FuzzyMatch> result = new ArrayList<>();
+        if (limit <= 0 || maxDistance < 0){
+            return result;
+        }
+        FuzzySearch search = new FuzzySearch(query, maxDistance, limit);
+        if (keys.contains("") && query.length() <= maxDistance){
+            search.offer("", query.length());
+        }
+        search.visitChildren("", 0);
+        FuzzyMatch[] sorted = search.closest.toArray(new FuzzyMatch[0]);
+        Arrays.sort(sorted, CLOSEST_FIRST);
+        result.addAll(Arrays.asList(sorted));
+        return result;
+    }
+
+    /**
+     * Класс, являющий собой модель состояния нечеткого поиска - обхода префиксов ключей в глубину.
+     */
+    private final class FuzzySearch {
+
+        private final String query;
+
+        private final int limit;
+
+        private final PriorityQueue<FuzzyMatch> closest;
+
+        /**
+         * Строки матрицы расстояний для префиксов текущего пути, индекс строки равен длине префикса.
+         */
+        private int[][] rows = new int[16][];
+
+        private int[] rowMinimums = new int[16];
+
+        private int bound;
+
+        private FuzzySearch(String query, int maxDistance, int limit){
+            this.query = query;
+            this.limit = limit;
+            this.bound = maxDistance;
+            this.closest = new PriorityQueue<>(Math.min(limit, 64) + 1, CLOSEST_FIRST.reversed());
+            rows[0] = new int[query.length() + 1];
+            for (int column = 0; column <= query.length(); column++) {
+                rows[0][column] = column;
+            }
+        }
+
+        /**
+         * Назначением функции является обход продолжений префикса. Если минимальное расстояние префикса
+         * меньше допустимого, перебираются все продолжения, иначе только продолжения символами искомой строки,
+         * так как любой другой символ увеличивает расстояние.
+         */
+        private void visitChildren(String prefix, int depth){
+            if (rowMinimums[depth] < bound){
+                String key = keys.higher(prefix);
+                while (key != null && key.startsWith(prefix)){
+                    char symbol = key.charAt(depth);
+                    visitChild(prefix, depth, symbol, key.length() == depth + 1);
+                    if (symbol == Character.MAX_VALUE){
+                        return;
+                    }
+                    key = keys.ceiling(prefix + (char) (symbol + 1));
+                }
+            }else {
+                int[] row = rows[depth];
+                char[] symbols = new char[query.length()];
+                int count = 0;
+                for (int column = 1; column <= query.length(); column++) {
+                    if (row[column - 1] <= bound){
+                        symbols[count++] = query.charAt(column - 1);
+                    }
+                }
+                Arrays.sort(symbols, 0, count);
+                for (int index = 0; index < count; index++) {
+                    if (index > 0 && symbols[index] == symbols[index - 1]){
+                        continue;
+                    }
+                    String child = prefix + symbols[index];
+                    String key = keys.ceiling(child);
+                    if (key != null && key.startsWith(child)){
+                        visitChild(prefix, depth, symbols[index], key.length() == depth + 1);
+                    }
+                }
+            }
+        }
+
+        private void visitChild(String prefix, int depth, char symbol, boolean isKey){
+            int childDepth = depth + 1;
+            if (childDepth >= rows.length){
+                rows = Arrays.copyOf(rows, rows.length * 2);
+                rowMinimums = Arrays.copyOf(rowMinimums, rowMinimums.length * 2);
+            }
+            if (rows[childDepth] == null){
+                rows[childDepth] = new int[query.length() + 1];
+            }
+            int minimum = nextRow(rows[depth], rows[childDepth], symbol, query);
+            if (minimum > bound){
+                return;
+            }
+            rowMinimums[childDepth] = minimum;
+            String child = prefix + symbol;
+            int distance = rows[childDepth][query.length()];
+            if (isKey && distance <= bound){
+                offer(child, distance);
+            }
+            visitChildren(child, childDepth);
+        }
+
+        private void offer(String key, int distance){
+            closest.add(new FuzzyMatch(key, distance));
+            if (closest.size() > limit){
+                closest.poll();
+            }
+            if (closest.size() == limit){
+                // Ключи обходятся в лексикографическом порядке, поэтому следующие ключи с тем же расстоянием
+                // не попадут в результат.
+                bound = closest.peek().getDistance() - 1;
+            }
+        }
+    }
+
+    /**
+     * Назначением функции является вычисление следующей строки матрицы расстояний Левенштейна.
+     * @return
+     * Минимальное значение вычисленной строки.
+     */
+    private static int nextRow(int[] previousRow, int[] row, char symbol, String query){
+        row[0] = previousRow[0] + 1;
+        int minimum = row[0];
+        for (int column = 1; column < row.length; column++) {
+            int value = symbol == query.charAt(column - 1)
+                    ? previousRow[column - 1]
+                    : 1 + Math.min(previousRow[column - 1], Math.min(previousRow[column], row[column - 1]));
+            row[column] = value;
+            if (value < minimum){
+                minimum = value;
+            }
+        }
+        return minimum;
+    }
+}
@@ -0,0 +1,28 @@
+package org.SimpleDictionaryService.index;
+
+import org.SimpleDictionaryService.DictionaryRecord;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Интерфейс, являющий собой модель вспомогательного индекса записей словаря, который поддерживается
+ * в согласованном состоянии с хранилищем записей при каждом изменении словаря.
+ */
+public interface RecordIndex {
+
+    /**
+     * Назначением функции является учет изменения записи. Изменения одного ключа передаются индексу
+     * в том же порядке, в котором они были применены к хранилищу.
+     * @param previous
+     * Указатель на запись до изменения, null если запись была добавлена.
+     * @param current
+     * Указатель на запись после изменения, null если запись была удалена.
+     */
+    void recordChanged(DictionaryRecord previous, DictionaryRecord current);
+
+    /**
+     * Назначением функции является удаление всех данных индекса.
+     */
+    void clear();
+}
@@ -0,0 +1,145 @@
+package org.SimpleDictionaryService.index;
+
+import org.SimpleDictionaryService.DictionaryRecord;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель набора индексов записей сервиса словарей.
+ * Изменение хранилища и уведомление индексов выполняются под блокировкой полосы ключа, поэтому изменения
+ * одного ключа доходят до индексов в порядке их применения даже при параллельных изменениях.
+ * Построение и перестроение индексов выполняются под всеми полосами блокировок, то есть останавливают
+ * изменения словаря, но не чтение.
+ */
+public class RecordIndexSet {
+
+    public static final int DEFAULT_STRIPES_COUNT = 64;
+
+    private final List<RecordIndex> indexes = new CopyOnWriteArrayList<>();
+
+    private final ReentrantLock[] stripes;
+
+    public RecordIndexSet(int stripesCount){
+        int size = Integer.highestOneBit(Math.max(1, stripesCount - 1) << 1);
+        this.stripes = new ReentrantLock[size];
+        for (int counter = 0; counter < size; counter++) {
+            stripes[counter] = new ReentrantLock();
+        }
+    }
+
+    public RecordIndexSet(){
+        this(DEFAULT_STRIPES_COUNT);
+    }
+
+    /**
+     * @return
+     * Блокировка полосы ключа, под которой должны выполняться изменение хранилища и вызов recordChanged.
+     */
+    public ReentrantLock lockOf(String key){
+        return stripes[stripeOf(key)];
+    }
+
+    /**
+     * @return
+     * Различные блокировки полос ключей в порядке номеров полос. Несколько полос должны блокироваться в этом
+     * порядке, так же как при построении индексов, чтобы одновременные изменения не ожидали друг друга бесконечно.
+     */
+    public List<ReentrantLock> locksOf(Collection<String> keys){
+        boolean[] used = new boolean[stripes.length];
+        for (String key : keys) {
+            used[stripeOf(key)] = true;
+        }
+        List<ReentrantLock> locks = new ArrayList<>();
+        for (int stripe = 0; stripe < stripes.length; stripe++) {
+            if (used[stripe]){
+                locks.add(stripes[stripe]);
+            }
+        }
+        return locks;
+    }
+
+    private int stripeOf(String key){
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    /**
+     * Назначением функции является уведомление всех индексов об изменении записи.
+     */
+    public void recordChanged(DictionaryRecord previous, DictionaryRecord current){
+        for (RecordIndex index : indexes) {
+            index.recordChanged(previous, current);
+        }
+    }
+
+    /**
+     * Назначением функции является добавление индекса и его построение по текущим записям словаря.
+     * @param index
+     * Указатель на добавляемый индекс.
+     * @param records
+     * Текущие записи словаря.
+     */
+    public void register(RecordIndex index, Iterable<DictionaryRecord> records){
+        lockAll();
+        try {
+            index.clear();
+            for (DictionaryRecord record : records) {
+                index.recordChanged(null, record);
+            }
+            indexes.add(index);
+        }finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Назначением функции является удаление индекса из набора.
+     */
+    public void unregister(RecordIndex index){
+        lockAll();
+        try {
+            indexes.remove(index);
+        }finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Назначением функции является перестроение всех индексов по текущим записям словаря, например после загрузки.
+     */
+    public void rebuild(Iterable<DictionaryRecord> records){
+        if (indexes.isEmpty()){
+            return;
+        }
+        lockAll();
+        try {
+            for (RecordIndex index : indexes) {
+                index.clear();
+            }
+            for (DictionaryRecord record : records) {
+                recordChanged(null, record);
+            }
+        }finally {
+            unlockAll();
+        }
+    }
+
+    private void lockAll(){
+        for (ReentrantLock lock : stripes) {
+            lock.lock();
+        }
+    }
+
+    private void unlockAll(){
+        for (ReentrantLock lock : stripes) {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.SimpleDictionaryService.index;
+
+import org.SimpleDictionaryService.DictionaryRecord;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель обратного индекса словаря, отображающего значение на ключи всех записей
+ * с этим значением. Используется для перевода в обратном направлении за O(1).
+ */
+public class WordIndex implements RecordIndex {
+
+    private final ConcurrentHashMap<String, Set<String>> keysByWord = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordChanged(DictionaryRecord previous, DictionaryRecord current) {
+        if (previous != null){
+            keysByWord.computeIfPresent(previous.getWord(), (word, keys) -> {
+                keys.remove(previous.getKey());
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+        if (current != null){
+            keysByWord.compute(current.getWord(), (word, keys) -> {
+                if (keys == null){
+                    keys = ConcurrentHashMap.newKeySet(1);
+                }
+                keys.add(current.getKey());
+                return keys;
+            });
+        }
+    }
+
+    @Override
+    public void clear() {
+        keysByWord.clear();
+    }
+
+    /**
+     * Назначением функции является поиск ключей записей по значению.
+     * @param word
+     * Значение записей.
+     * @return
+     * Ключи всех записей с переданным значением, пустой список если таких записей нет.
+     */
+    public List<String> keysOf(String word){
+        Set<String> keys = keysByWord.get(word);
+        return keys == null ? new ArrayList<>(0) : new ArrayList<>(keys);
+    }
+
+    /**
+     * @return
+     * Количество различных значений в индексе.
+     */
+    public int size(){
+        return keysByWord.size();
+    }
+}
@@ -0,0 +1,107 @@
+package org.SimpleDictionaryService.io;
+
+import org.SimpleEncodings.Encoding;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Перечисление представлений текста файла - словаря в байтах, определяющих поиск переводов строк и разделителя
+ * без декодирования. ASCII является подмножеством UTF-8 и разбирается так же. В UTF-16 переводы строк и разделитель
+ * ищутся только на границах двухбайтовых единиц, отсчитываемых от начала файла.
+ */
+public enum CodeUnits {
+    UTF8(1, StandardCharsets.UTF_8, new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF}),
+    UTF16LE(2, StandardCharsets.UTF_16LE, new byte[]{(byte) 0xFF, (byte) 0xFE}),
+    UTF16BE(2, StandardCharsets.UTF_16BE, new byte[]{(byte) 0xFE, (byte) 0xFF});
+
+    /**
+     * Размер единицы текста в байтах.
+     */
+    private final int width;
+
+    private final Charset charset;
+
+    /**
+     * Метка порядка байтов, которой может начинаться файл.
+     */
+    private final byte[] byteOrderMark;
+
+    CodeUnits(int width, Charset charset, byte[] byteOrderMark){
+        this.width = width;
+        this.charset = charset;
+        this.byteOrderMark = byteOrderMark;
+    }
+
+    /**
+     * @return
+     * Представление текста в кодировке словаря, UTF8 для ASCII, UTF-8 и неизвестных кодировок.
+     */
+    public static CodeUnits forEncoding(Encoding encoding){
+        if (encoding == Encoding.DEFAULT_UTF16LE){
+            return UTF16LE;
+        }
+        if (encoding == Encoding.DEFAULT_UTF16BE){
+            return UTF16BE;
+        }
+        return UTF8;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return
+     * Единица текста, начинающаяся с байта с переданной позицией.
+     */
+    public int unitAt(byte[] bytes, int index){
+        switch (this){
+            case UTF16LE:
+                return (bytes[index] & 0xFF) | (bytes[index + 1] & 0xFF) << 8;
+            case UTF16BE:
+                return (bytes[index] & 0xFF) << 8 | (bytes[index + 1] & 0xFF);
+            default:
+                return bytes[index] & 0xFF;
+        }
+    }
+
+    public int unitAt(ByteBuffer buffer, int index){
+        switch (this){
+            case UTF16LE:
+                return (buffer.get(index) & 0xFF) | (buffer.get(index + 1) & 0xFF) << 8;
+            case UTF16BE:
+                return (buffer.get(index) & 0xFF) << 8 | (buffer.get(index + 1) & 0xFF);
+            default:
+                return buffer.get(index) & 0xFF;
+        }
+    }
+
+    /**
+     * @return
+     * Байты строки в этом представлении, например разделителя словаря.
+     */
+    public byte[] encode(String value){
+        return value.getBytes(charset);
+    }
+
+    /**
+     * @return
+     * Длина метки порядка байтов, с которой начинаются переданные байты, 0 если они начинаются не с метки.
+     */
+    public int byteOrderMarkLength(byte[] bytes, int length){
+        if (length < byteOrderMark.length){
+            return 0;
+        }
+        for (int index = 0; index < byteOrderMark.length; index++) {
+            if (bytes[index] != byteOrderMark[index]){
+                return 0;
+            }
+        }
+        return byteOrderMark.length;
+    }
+}
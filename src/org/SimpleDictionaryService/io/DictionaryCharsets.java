@@ -0,0 +1,39 @@
+package org.SimpleDictionaryService.io;
+
+import org.SimpleEncodings.Encoding;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель соответствия кодировок SimpleEncodings наборам символов Java.
+ */
+public final class DictionaryCharsets {
+
+    private DictionaryCharsets(){
+
+    }
+
+    /**
+     * Назначением функции является получение набора символов Java, соответствующего кодировке словаря.
+     * @param encoding
+     * Кодировка словаря.
+     * @return
+     * Соответствующий набор символов, UTF-8 для неизвестных кодировок.
+     */
+    public static Charset forEncoding(Encoding encoding){
+        if (encoding == Encoding.DEFAULT_UTF16LE){
+            return StandardCharsets.UTF_16LE;
+        }
+        if (encoding == Encoding.DEFAULT_UTF16BE){
+            return StandardCharsets.UTF_16BE;
+        }
+        if (encoding == Encoding.DEFAULT_ASCII){
+            return StandardCharsets.US_ASCII;
+        }
+        return StandardCharsets.UTF_8;
+    }
+}
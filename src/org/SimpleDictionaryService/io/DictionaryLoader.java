@@ -0,0 +1,155 @@
+package org.SimpleDictionaryService.io;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.DictionaryRecord;
+import org.SimpleEncodings.throwable.WrongEncodingException;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель потокового загрузчика файла - словаря.
+ * Файл отображается в память окнами ограниченного размера, каждое окно проверяется на соответствие кодировке
+ * словаря потоковой проверкой EncodingValidator и разбирается на записи LineTokenizer непосредственно по байтам
+ * в кодировке словаря, буфер окна переиспользуется. Метка порядка байтов в начале файла пропускается.
+ * Окна всегда заканчиваются на границе строки, поэтому объем используемой памяти не зависит от размера файла.
+ * Строки, которые не являются записями, пропускаются и передаются получателю некорректных строк.
+ */
+public class DictionaryLoader {
+
+    public static final int  DEFAULT_WINDOW_SIZE                    = 8 * 1024 * 1024;
+
+    /**
+     * Размер окна отображения файла в память в байтах.
+     */
+    private final int windowSize;
+
+    /**
+     * Получатель строк, которые не являются записями.
+     */
+    private volatile MalformedLineHandler malformedLineHandler = MalformedLineHandler.PRINT;
+
+    public DictionaryLoader(int windowSize){
+        this.windowSize = windowSize;
+    }
+
+    public DictionaryLoader(){
+        this(DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Назначением функции является загрузка всех записей файла - словаря.
+     * @param dictionary
+     * Указатель на загружаемый словарь.
+     * @param consumer
+     * Функция, получающая загруженные записи в порядке их следования в файле.
+     * @return
+     * Счетчики соответствия загруженных ключей и значений языкам словаря.
+     */
+    public LoadStatistics load(Dictionary dictionary, Consumer<DictionaryRecord> consumer) throws IOException, WrongEncodingException {
+        try (FileChannel channel = FileChannel.open(dictionary.toPath(), StandardOpenOption.READ)) {
+            int dataStart = EncodingDetector.byteOrderMarkLength(channel, dictionary.getEncoding());
+            return loadRange(dictionary, channel, dataStart, channel.size(), true, consumer, malformedLineHandler);
+        }
+    }
+
+    /**
+     * Назначением функции является загрузка записей части файла - словаря.
+     * @param start
+     * Позиция начала первой строки части файла, должна находиться на границе единицы текста.
+     * @param end
+     * Позиция, следующая за концом последней строки части файла.
+     * @param validateEncoding
+     * Признак необходимости проверки соответствия байтов кодировке словаря.
+     * @param handler
+     * Получатель некорректных строк, номера строк отсчитываются от начала части файла.
+     */
+    LoadStatistics loadRange(Dictionary dictionary, FileChannel channel, long start, long end, boolean validateEncoding, Consumer<DictionaryRecord> consumer, MalformedLineHandler handler) throws IOException, WrongEncodingException {
+        LoadStatistics statistics = new LoadStatistics();
+        MalformedLineHandler countingHandler = (lineNumber, line, reason) -> {
+            statistics.addMalformedLine();
+            handler.malformedLine(lineNumber, line, reason);
+        };
+        LineTokenizer tokenizer = new LineTokenizer(dictionary.getSeparator(), CodeUnits.forEncoding(dictionary.getEncoding()));
+        EncodingValidator validator = validateEncoding ? EncodingValidator.forEncoding(dictionary.getEncoding()) : null;
+        byte[] bytes = new byte[0];
+        List<DictionaryRecord> records = new ArrayList<>();
+        long position = start;
+        int currentWindowSize = windowSize;
+        while (position < end){
+            long phaseStart = System.nanoTime();
+            long windowEnd = Math.min(end, position + currentWindowSize);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowEnd - position);
+            int length = window.limit();
+            if (windowEnd < end){
+                length = tokenizer.lastLineEnd(window, 0, length);
+                if (length == 0){
+                    currentWindowSize = LineTokenizer.grownWindowSize(currentWindowSize);
+                    continue;
+                }
+            }
+            if (bytes.length < length){
+                bytes = new byte[length];
+            }
+            window.get(bytes, 0, length);
+            statistics.addBytes(length);
+            phaseStart = phaseCompleted(statistics, LoadPhase.READ, phaseStart);
+            if (validator != null && validator.validate(bytes, 0, length) >= 0){
+                throw new WrongEncodingException();
+            }
+            phaseStart = phaseCompleted(statistics, LoadPhase.ENCODING_VALIDATION, phaseStart);
+            records.clear();
+            statistics.addLines(tokenizer.tokenize(bytes, length, statistics.getLinesCount() + 1, records, countingHandler));
+            phaseStart = phaseCompleted(statistics, LoadPhase.PARSE, phaseStart);
+            for (DictionaryRecord record : records) {
+                statistics.addRecord(
+                        record.getKey().length(), dictionary.getKeyLanguage().countOfMatches(record.getKey(), dictionary.getEncoding()),
+                        record.getWord().length(), dictionary.getWordLanguage().countOfMatches(record.getWord(), dictionary.getEncoding()));
+            }
+            phaseStart = phaseCompleted(statistics, LoadPhase.LANGUAGE_SCORING, phaseStart);
+            records.forEach(consumer);
+            phaseCompleted(statistics, LoadPhase.STORE, phaseStart);
+            position += length;
+            currentWindowSize = windowSize;
+        }
+        if (validator != null && !validator.isComplete()){
+            throw new WrongEncodingException();
+        }
+        return statistics;
+    }
+
+    /**
+     * Назначением функции является учет времени завершенного этапа загрузки.
+     * @return
+     * Время начала следующего этапа.
+     */
+    private static long phaseCompleted(LoadStatistics statistics, LoadPhase phase, long phaseStart){
+        long now = System.nanoTime();
+        statistics.addPhaseTime(phase, now - phaseStart);
+        return now;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public MalformedLineHandler getMalformedLineHandler() {
+        return malformedLineHandler;
+    }
+
+    /**
+     * Назначением функции является смена получателя строк, которые не являются записями. Получатель вызывается
+     * в порядке следования строк в файле из потока, вызвавшего load.
+     */
+    public void setMalformedLineHandler(MalformedLineHandler malformedLineHandler) {
+        this.malformedLineHandler = malformedLineHandler;
+    }
+}
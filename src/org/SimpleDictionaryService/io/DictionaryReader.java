@@ -0,0 +1,113 @@
+package org.SimpleDictionaryService.io;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.DictionaryRecord;
+
+import java.io.*;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель последовательного чтения записей файла - словаря. В отличие от DictionaryLoader
+ * записи читаются по мере запроса через буфер ограниченного размера, поэтому файл может быть больше доступной
+ * памяти. Строка разделяется по первому вхождению разделителя словаря, строки без разделителя и с пустым ключом
+ * пропускаются. Метка порядка байтов в начале файла пропускается.
+ * Ошибки чтения во время обхода передаются как UncheckedIOException.
+ */
+public class DictionaryReader implements Iterator<DictionaryRecord>, Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final BufferedReader reader;
+
+    private final String separator;
+
+    /**
+     * Следующая запись, прочитанная функцией hasNext, null если она еще не прочитана.
+     */
+    private DictionaryRecord next;
+
+    private boolean finished;
+
+    private boolean firstLine = true;
+
+    public DictionaryReader(Dictionary dictionary, int bufferSize) throws IOException {
+        CharsetDecoder decoder = DictionaryCharsets.forEncoding(dictionary.getEncoding()).newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.reader = new BufferedReader(new InputStreamReader(new FileInputStream(dictionary), decoder), bufferSize);
+        this.separator = dictionary.getSeparator();
+    }
+
+    public DictionaryReader(Dictionary dictionary) throws IOException {
+        this(dictionary, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Назначением функции является получение записей файла - словаря в виде последовательного потока.
+     * Файл закрывается при закрытии потока, поэтому поток следует использовать в try-with-resources.
+     */
+    public static Stream<DictionaryRecord> stream(Dictionary dictionary) throws IOException {
+        DictionaryReader reader = new DictionaryReader(dictionary);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(reader, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        reader.close();
+                    }catch (IOException exception){
+                        throw new UncheckedIOException(exception);
+                    }
+                });
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null && !finished){
+            String line;
+            try {
+                line = reader.readLine();
+            }catch (IOException exception){
+                throw new UncheckedIOException(exception);
+            }
+            if (line == null){
+                finished = true;
+                break;
+            }
+            if (firstLine){
+                firstLine = false;
+                if (line.startsWith("\uFEFF")){
+                    line = line.substring(1);
+                }
+            }
+            int separatorIndex = line.indexOf(separator);
+            if (separatorIndex > 0){
+                next = new DictionaryRecord(line.substring(0, separatorIndex), line.substring(separatorIndex + separator.length()));
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public DictionaryRecord next() {
+        if (!hasNext()){
+            throw new NoSuchElementException();
+        }
+        DictionaryRecord record = next;
+        next = null;
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        reader.close();
+    }
+}
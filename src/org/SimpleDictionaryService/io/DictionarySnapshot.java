@@ -0,0 +1,341 @@
+package org.SimpleDictionaryService.io;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.DictionaryRecord;
+import org.SimpleDictionaryService.language.Language;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель двоичного снимка словаря, который загружается без разбора текста, проверки
+ * кодировки и оценки соответствия языкам. Снимок хранится рядом с файлом - словарем и действителен, пока
+ * размер и время изменения файла - словаря, кодировка, языки и разделитель совпадают с записанными в заголовке.
+ *
+ * Формат: заголовок [int сигнатура][int версия][long размер файла - словаря][long время изменения][UTF набор символов]
+ * [UTF язык ключей][int отпечаток языка ключей][UTF язык значений][int отпечаток языка значений][UTF разделитель]
+ * [5 x long счетчики LoadStatistics][long количество записей][int размер индекса][long длина тела][int crc32 тела],
+ * затем тело: записи [int длина ключа][ключ][int длина значения][значение] в UTF-8 в порядке хранилища и хэш - индекс
+ * из ячеек [int хэш ключа][int смещение записи в теле + 1], 0 для пустой ячейки.
+ */
+public class DictionarySnapshot {
+
+    public static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+    private static final int MAGIC = 0x53445331;
+
+    private static final int VERSION = 1;
+
+    private static final int INDEX_SLOT_SIZE = 8;
+
+    /**
+     * Отображение тела снимка в память.
+     */
+    private final ByteBuffer body;
+
+    private final long recordsCount;
+
+    private final int indexSize;
+
+    /**
+     * Смещение хэш - индекса в теле снимка.
+     */
+    private final int indexOffset;
+
+    private final LoadStatistics statistics;
+
+    private DictionarySnapshot(ByteBuffer body, long recordsCount, int indexSize, LoadStatistics statistics){
+        this.body = body;
+        this.recordsCount = recordsCount;
+        this.indexSize = indexSize;
+        this.indexOffset = body.capacity() - indexSize * INDEX_SLOT_SIZE;
+        this.statistics = statistics;
+    }
+
+    public static File snapshotFileOf(Dictionary dictionary){
+        return new File(dictionary.getAbsolutePath() + SNAPSHOT_SUFFIX);
+    }
+
+    /**
+     * Назначением функции является атомарная запись снимка словаря.
+     * @param dictionary
+     * Указатель на словарь.
+     * @param records
+     * Записи словаря в порядке хранения, совпадающие с содержимым файла - словаря.
+     * @param statistics
+     * Счетчики соответствия записей языкам словаря.
+     * @param sourceLength
+     * Размер файла - словаря, соответствующего записям.
+     * @param sourceLastModified
+     * Время изменения файла - словаря, соответствующего записям.
+     */
+    public static void write(Dictionary dictionary, Collection<DictionaryRecord> records, LoadStatistics statistics, long sourceLength, long sourceLastModified) throws IOException {
+        Path target = snapshotFileOf(dictionary).toPath();
+        Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), DictionaryWriter.TEMPORARY_FILE_SUFFIX);
+        try {
+            int expectedCount = records.size();
+            int[] hashes = new int[expectedCount], offsets = new int[expectedCount];
+            int count = 0;
+            CRC32 checksum = new CRC32();
+            long bodyLength;
+            byte[] header = header(dictionary, statistics, sourceLength, sourceLastModified, 0, 0, 0, 0);
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                channel.position(header.length);
+                DataOutputStream output = new DataOutputStream(new CheckedOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), 1024 * 1024), checksum));
+                long offset = 0;
+                for (DictionaryRecord record : records) {
+                    if (count == expectedCount || offset > Integer.MAX_VALUE){
+                        throw new IOException("Dictionary changed or is too large for a snapshot");
+                    }
+                    byte[] key = record.getKey().getBytes(StandardCharsets.UTF_8);
+                    byte[] word = record.getWord().getBytes(StandardCharsets.UTF_8);
+                    hashes[count] = hash(record.getKey());
+                    offsets[count++] = (int) offset;
+                    output.writeInt(key.length);
+                    output.write(key);
+                    output.writeInt(word.length);
+                    output.write(word);
+                    offset += 8 + key.length + word.length;
+                }
+                int indexSize = Integer.highestOneBit(Math.max(2, count * 2 - 1) << 1);
+                int[] index = new int[indexSize * 2];
+                for (int counter = 0; counter < count; counter++) {
+                    int slot = hashes[counter] & (indexSize - 1);
+                    while (index[slot * 2 + 1] != 0){
+                        slot = (slot + 1) & (indexSize - 1);
+                    }
+                    index[slot * 2] = hashes[counter];
+                    index[slot * 2 + 1] = offsets[counter] + 1;
+                }
+                for (int value : index) {
+                    output.writeInt(value);
+                }
+                output.flush();
+                bodyLength = offset + (long) indexSize * INDEX_SLOT_SIZE;
+                if (header.length + bodyLength > Integer.MAX_VALUE){
+                    throw new IOException("Dictionary is too large for a snapshot");
+                }
+                byte[] completeHeader = header(dictionary, statistics, sourceLength, sourceLastModified, count, indexSize, bodyLength, (int) checksum.getValue());
+                ByteBuffer headerBuffer = ByteBuffer.wrap(completeHeader);
+                while (headerBuffer.hasRemaining()){
+                    channel.write(headerBuffer, headerBuffer.position());
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }catch (AtomicMoveNotSupportedException exception){
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }catch (IOException | RuntimeException exception){
+            Files.deleteIfExists(temporary);
+            throw exception;
+        }
+    }
+
+    /**
+     * Назначением функции является открытие снимка словаря с отображением его в память.
+     * @param dictionary
+     * Указатель на словарь.
+     * @return
+     * Снимок словаря, null если снимок отсутствует, устарел или поврежден.
+     */
+    public static DictionarySnapshot open(Dictionary dictionary) throws IOException {
+        File file = snapshotFileOf(dictionary);
+        if (!file.isFile() || !dictionary.isFile()){
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE){
+                return null;
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            DataInputStream input = new DataInputStream(new ByteBufferInputStream(mapped.duplicate()));
+            if (input.readInt() != MAGIC || input.readInt() != VERSION
+                    || input.readLong() != dictionary.length() || input.readLong() != dictionary.lastModified()
+                    || !input.readUTF().equals(DictionaryCharsets.forEncoding(dictionary.getEncoding()).name())
+                    || !input.readUTF().equals(Language.getLanguageName(dictionary.getKeyLanguage()))
+                    || input.readInt() != fingerprint(dictionary.getKeyLanguage(), dictionary)
+                    || !input.readUTF().equals(Language.getLanguageName(dictionary.getWordLanguage()))
+                    || input.readInt() != fingerprint(dictionary.getWordLanguage(), dictionary)
+                    || !input.readUTF().equals(dictionary.getSeparator())){
+                return null;
+            }
+            LoadStatistics statistics = new LoadStatistics(input.readLong(), input.readLong(), input.readLong(), input.readLong(), input.readLong());
+            long recordsCount = input.readLong();
+            int indexSize = input.readInt();
+            long bodyLength = input.readLong();
+            int expectedChecksum = input.readInt();
+            int headerLength = (int) channel.size() - input.available();
+            if (bodyLength != channel.size() - headerLength || (long) indexSize * INDEX_SLOT_SIZE > bodyLength){
+                return null;
+            }
+            mapped.position(headerLength);
+            ByteBuffer body = mapped.slice();
+            CRC32 checksum = new CRC32();
+            checksum.update(body.duplicate());
+            if ((int) checksum.getValue() != expectedChecksum){
+                return null;
+            }
+            return new DictionarySnapshot(body, recordsCount, indexSize, statistics);
+        }catch (EOFException | UTFDataFormatException exception){
+            return null;
+        }
+    }
+
+    /**
+     * Назначением функции является передача всех записей снимка получателю в порядке их хранения.
+     */
+    public void forEach(Consumer<DictionaryRecord> consumer){
+        ByteBuffer buffer = body.duplicate();
+        byte[] bytes = new byte[256];
+        while (buffer.position() < indexOffset){
+            int keyLength = buffer.getInt();
+            bytes = ensureCapacity(bytes, keyLength);
+            buffer.get(bytes, 0, keyLength);
+            String key = new String(bytes, 0, keyLength, StandardCharsets.UTF_8);
+            int wordLength = buffer.getInt();
+            bytes = ensureCapacity(bytes, wordLength);
+            buffer.get(bytes, 0, wordLength);
+            consumer.accept(new DictionaryRecord(key, new String(bytes, 0, wordLength, StandardCharsets.UTF_8)));
+        }
+    }
+
+    /**
+     * Назначением функции является поиск записи снимка по ключу с помощью хэш - индекса без загрузки снимка.
+     * @return
+     * Указатель на запись, null если запись с данным ключом отсутствует.
+     */
+    public DictionaryRecord get(String key){
+        int hash = hash(key);
+        byte[] expected = key.getBytes(StandardCharsets.UTF_8);
+        for (int slot = hash & (indexSize - 1); ; slot = (slot + 1) & (indexSize - 1)) {
+            int position = indexOffset + slot * INDEX_SLOT_SIZE;
+            int offset = body.getInt(position + 4) - 1;
+            if (offset < 0){
+                return null;
+            }
+            if (body.getInt(position) != hash || body.getInt(offset) != expected.length){
+                continue;
+            }
+            ByteBuffer record = body.duplicate();
+            record.position(offset + 4);
+            byte[] actual = new byte[expected.length];
+            record.get(actual);
+            if (Arrays.equals(actual, expected)){
+                byte[] word = new byte[record.getInt()];
+                record.get(word);
+                return new DictionaryRecord(key, new String(word, StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    public long getRecordsCount() {
+        return recordsCount;
+    }
+
+    /**
+     * @return
+     * Счетчики соответствия записей языкам словаря, сохраненные при записи снимка.
+     */
+    public LoadStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Назначением функции является удаление снимка словаря.
+     */
+    public static void delete(Dictionary dictionary) throws IOException {
+        Files.deleteIfExists(snapshotFileOf(dictionary).toPath());
+    }
+
+    private static byte[] header(Dictionary dictionary, LoadStatistics statistics, long sourceLength, long sourceLastModified,
+                                 long recordsCount, int indexSize, long bodyLength, int checksum) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeLong(sourceLength);
+        output.writeLong(sourceLastModified);
+        output.writeUTF(DictionaryCharsets.forEncoding(dictionary.getEncoding()).name());
+        output.writeUTF(Language.getLanguageName(dictionary.getKeyLanguage()));
+        output.writeInt(fingerprint(dictionary.getKeyLanguage(), dictionary));
+        output.writeUTF(Language.getLanguageName(dictionary.getWordLanguage()));
+        output.writeInt(fingerprint(dictionary.getWordLanguage(), dictionary));
+        output.writeUTF(dictionary.getSeparator());
+        output.writeLong(statistics.getRecordsCount());
+        output.writeLong(statistics.getKeySymbolsCount());
+        output.writeLong(statistics.getKeySymbolsLanguageMatches());
+        output.writeLong(statistics.getWordSymbolsCount());
+        output.writeLong(statistics.getWordSymbolsLanguageMatches());
+        output.writeLong(recordsCount);
+        output.writeInt(indexSize);
+        output.writeLong(bodyLength);
+        output.writeInt(checksum);
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return
+     * Отпечаток таблицы интервалов языка для кодировки словаря, изменяющийся при изменении алфавита языка.
+     */
+    private static int fingerprint(Language language, Dictionary dictionary){
+        return Arrays.deepHashCode(language.getEncodingIntervalTable(dictionary.getEncoding()).getIntervals());
+    }
+
+    private static int hash(String key){
+        int hash = key.hashCode() * 0x9e3779b9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static byte[] ensureCapacity(byte[] bytes, int length){
+        return bytes.length >= length ? bytes : new byte[Math.max(length, bytes.length * 2)];
+    }
+
+    /**
+     * Класс, являющий собой модель потока чтения из буфера, используемого для разбора заголовка.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer){
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()){
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package org.SimpleDictionaryService.io;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.DictionaryRecord;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель атомарной записи файла - словаря.
+ * Записи кодируются в кодировке словаря непосредственно в переиспользуемый буфер, который сбрасывается
+ * во временный файл в каталоге словаря. После принудительной записи на диск временный файл атомарно
+ * переименовывается в файл - словарь, поэтому аварийное завершение во время записи никогда не оставляет
+ * файл - словарь усеченным. Права доступа и владелец заменяемого файла переносятся на временный файл.
+ * Записи, которые нельзя закодировать в кодировке словаря, прерывают запись, файл - словарь при этом
+ * остается неизменным.
+ */
+public class DictionaryWriter {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+    public static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+
+    /**
+     * Переиспользуемый буфер закодированных байтов.
+     */
+    private final ByteBuffer buffer;
+
+    public DictionaryWriter(int bufferSize){
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    public DictionaryWriter(){
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Назначением функции является атомарная запись записей в файл - словарь.
+     * @param dictionary
+     * Указатель на словарь, определяющий файл, кодировку и разделитель.
+     * @param records
+     * Записываемые записи в порядке записи.
+     * @return
+     * Количество записанных байтов.
+     * @throws IOException
+     * Если запись не удалась, в том числе если ключ, значение или разделитель нельзя закодировать в кодировке
+     * словаря.
+     */
+    public synchronized long write(Dictionary dictionary, Iterable<DictionaryRecord> records) throws IOException {
+        Path target = dictionary.getAbsoluteFile().toPath();
+        Path directory = target.getParent();
+        Path temporary = Files.createTempFile(directory, target.getFileName().toString(), TEMPORARY_FILE_SUFFIX);
+        CharsetEncoder encoder = DictionaryCharsets.forEncoding(dictionary.getEncoding()).newEncoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        CharBuffer separator = CharBuffer.wrap(dictionary.getSeparator());
+        CharBuffer lineSeparator = CharBuffer.wrap(System.lineSeparator());
+        long written = 0;
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                buffer.clear();
+                for (DictionaryRecord record : records) {
+                    try {
+                        written += encode(channel, encoder, CharBuffer.wrap(record.getKey()));
+                        separator.rewind();
+                        written += encode(channel, encoder, separator);
+                        written += encode(channel, encoder, CharBuffer.wrap(record.getWord()));
+                        lineSeparator.rewind();
+                        written += encode(channel, encoder, lineSeparator);
+                    }catch (CharacterCodingException exception){
+                        throw new IOException("Record cannot be encoded in " + encoder.charset().name() + ": " + record.getKey(), exception);
+                    }
+                }
+                written += drain(channel);
+                channel.force(true);
+            }
+            copyAttributes(target, temporary);
+            try {
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }catch (AtomicMoveNotSupportedException exception){
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }catch (IOException | RuntimeException exception){
+            Files.deleteIfExists(temporary);
+            throw exception;
+        }
+        syncDirectory(directory);
+        return written;
+    }
+
+    /**
+     * Назначением функции является атомарная запись в файл - словарь записей, получаемых по мере записи, например
+     * из DictionaryReader. Объем используемой памяти не зависит от количества записей.
+     * @return
+     * Количество записанных байтов.
+     * @see #write(Dictionary, Iterable)
+     */
+    public long write(Dictionary dictionary, Iterator<DictionaryRecord> records) throws IOException {
+        try {
+            return write(dictionary, () -> records);
+        }catch (UncheckedIOException exception){
+            throw exception.getCause();
+        }
+    }
+
+    /**
+     * @see #write(Dictionary, Iterator)
+     */
+    public long write(Dictionary dictionary, Stream<DictionaryRecord> records) throws IOException {
+        return write(dictionary, records.iterator());
+    }
+
+    /**
+     * Назначением функции является кодирование символов в буфер со сбросом заполненного буфера в канал.
+     * @return
+     * Количество сброшенных в канал байтов.
+     */
+    private long encode(FileChannel channel, CharsetEncoder encoder, CharBuffer chars) throws IOException {
+        long written = 0;
+        encoder.reset();
+        while (true){
+            CoderResult result = encoder.encode(chars, buffer, true);
+            if (result.isError()){
+                result.throwException();
+            }
+            if (result.isOverflow()){
+                written += drain(channel);
+                continue;
+            }
+            result = encoder.flush(buffer);
+            if (result.isOverflow()){
+                written += drain(channel);
+                continue;
+            }
+            return written;
+        }
+    }
+
+    private long drain(FileChannel channel) throws IOException {
+        buffer.flip();
+        long written = buffer.remaining();
+        while (buffer.hasRemaining()){
+            channel.write(buffer);
+        }
+        buffer.clear();
+        return written;
+    }
+
+    /**
+     * Назначением функции является перенос прав доступа, владельца и группы заменяемого файла - словаря на временный
+     * файл, который создается с правами только для владельца. Смена владельца и группы доступна не всем
+     * пользователям, поэтому ее ошибки игнорируются. В файловых системах без атрибутов POSIX перенос не выполняется.
+     */
+    private static void copyAttributes(Path source, Path target) throws IOException {
+        PosixFileAttributeView sourceView = Files.getFileAttributeView(source, PosixFileAttributeView.class);
+        PosixFileAttributeView targetView = Files.getFileAttributeView(target, PosixFileAttributeView.class);
+        if (sourceView == null || targetView == null || !Files.exists(source)){
+            return;
+        }
+        PosixFileAttributes attributes = sourceView.readAttributes();
+        try {
+            targetView.setOwner(attributes.owner());
+        }catch (IOException exception){
+            // владельца может сменить только привилегированный пользователь - файл остается файлом записывающего
+        }
+        try {
+            targetView.setGroup(attributes.group());
+        }catch (IOException exception){
+            // группу можно сменить только на группу записывающего пользователя
+        }
+        targetView.setPermissions(attributes.permissions());
+    }
+
+    /**
+     * Назначением функции является принудительная запись на диск каталога, чтобы переименование файла
+     * пережило аварийное завершение. Не все платформы поддерживают открытие каталога, поэтому ошибки игнорируются.
+     */
+    private static void syncDirectory(Path directory){
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }catch (IOException exception){
+            // каталоги нельзя открыть, например, в Windows - переименование уже выполнено
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.SimpleDictionaryService.io;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleEncodings.Encoding;
+import org.SimpleEncodings.throwable.WrongEncodingException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель определения кодировки файла - словаря по метке порядка байтов и статистике байтов
+ * начала файла. Файлы из одних символов ASCII определяются как UTF-8, так как начало файла не позволяет
+ * утверждать, что остальная часть файла также состоит из символов ASCII.
+ */
+public final class EncodingDetector {
+
+    /**
+     * Размер начала файла, по которому определяется кодировка.
+     */
+    public static final int DEFAULT_SAMPLE_SIZE = 64 * 1024;
+
+    private static final CodeUnits[] BYTE_ORDER_MARKS = {CodeUnits.UTF8, CodeUnits.UTF16LE, CodeUnits.UTF16BE};
+
+    private EncodingDetector(){
+
+    }
+
+    /**
+     * Назначением функции является определение кодировки файла - словаря по его началу.
+     * @return
+     * Кодировка файла, Encoding.UNKNOWN_ENCODING если ни одна из поддерживаемых кодировок не подходит.
+     */
+    public static Encoding detect(Dictionary dictionary) throws IOException {
+        try (FileChannel channel = FileChannel.open(dictionary.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(DEFAULT_SAMPLE_SIZE, channel.size()));
+            while (buffer.hasRemaining() && channel.read(buffer) > 0){
+                // чтение до заполнения буфера
+            }
+            return detect(buffer.array(), buffer.position());
+        }
+    }
+
+    /**
+     * Назначением функции является определение кодировки по началу файла. Метка порядка байтов определяет
+     * кодировку однозначно. Без метки UTF-16 распознается по нулевым старшим байтам единиц и переводам строк,
+     * выровненным по границам единиц, а UTF-8 - по соответствию байтов кодировке.
+     * @param length
+     * Количество байтов начала файла, последний символ может быть незавершенным.
+     */
+    public static Encoding detect(byte[] bytes, int length){
+        CodeUnits marked = byteOrderMarkOf(bytes, length);
+        if (marked != null){
+            return encodingOf(marked);
+        }
+        int evenZeros = 0, oddZeros = 0, littleEndianLineFeeds = 0, bigEndianLineFeeds = 0;
+        for (int index = 0; index + 1 < length; index += 2) {
+            byte even = bytes[index], odd = bytes[index + 1];
+            if (even == 0){
+                evenZeros++;
+                if (odd == '\n'){
+                    bigEndianLineFeeds++;
+                }
+            }
+            if (odd == 0){
+                oddZeros++;
+                if (even == '\n'){
+                    littleEndianLineFeeds++;
+                }
+            }
+        }
+        int evenLength = length & ~1;
+        int littleEndianScore = oddZeros + littleEndianLineFeeds, bigEndianScore = evenZeros + bigEndianLineFeeds;
+        if (littleEndianScore > bigEndianScore && EncodingValidator.forEncoding(Encoding.DEFAULT_UTF16LE).validate(bytes, 0, evenLength) < 0){
+            return Encoding.DEFAULT_UTF16LE;
+        }
+        if (bigEndianScore > littleEndianScore && EncodingValidator.forEncoding(Encoding.DEFAULT_UTF16BE).validate(bytes, 0, evenLength) < 0){
+            return Encoding.DEFAULT_UTF16BE;
+        }
+        if (evenZeros + oddZeros == 0 && EncodingValidator.forEncoding(Encoding.DEFAULT_UTF8).validate(bytes, 0, length) < 0){
+            return Encoding.DEFAULT_UTF8;
+        }
+        return Encoding.UNKNOWN_ENCODING;
+    }
+
+    /**
+     * Назначением функции является определение длины метки порядка байтов в начале файла - словаря.
+     * @return
+     * Длина метки кодировки словаря, 0 если файл начинается не с метки.
+     * @throws WrongEncodingException
+     * Если файл начинается с метки другой кодировки.
+     */
+    public static int byteOrderMarkLength(FileChannel channel, Encoding encoding) throws IOException, WrongEncodingException {
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) > 0){
+            // чтение до заполнения буфера
+        }
+        CodeUnits marked = byteOrderMarkOf(buffer.array(), buffer.position());
+        if (marked == null){
+            return 0;
+        }
+        CodeUnits units = CodeUnits.forEncoding(encoding);
+        if (marked != units || (units == CodeUnits.UTF8 && encoding != Encoding.DEFAULT_UTF8)){
+            throw new WrongEncodingException();
+        }
+        return units.byteOrderMarkLength(buffer.array(), buffer.position());
+    }
+
+    private static CodeUnits byteOrderMarkOf(byte[] bytes, int length){
+        for (CodeUnits units : BYTE_ORDER_MARKS) {
+            if (units.byteOrderMarkLength(bytes, length) > 0){
+                return units;
+            }
+        }
+        return null;
+    }
+
+    private static Encoding encodingOf(CodeUnits units){
+        switch (units){
+            case UTF16LE:
+                return Encoding.DEFAULT_UTF16LE;
+            case UTF16BE:
+                return Encoding.DEFAULT_UTF16BE;
+            default:
+                return Encoding.DEFAULT_UTF8;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package org.SimpleDictionaryService.io;
+
+import org.SimpleEncodings.Encoding;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель потоковой проверки соответствия байтов кодировке словаря. Байты передаются частями
+ * произвольного размера, последовательность байтов одного символа может продолжаться в следующей части, поэтому
+ * файл проверяется без загрузки целиком и без копирования частей. Экземпляр хранит состояние незавершенного
+ * символа и не должен использоваться несколькими потоками.
+ * Проверка UTF-8 и ASCII пропускает символы ASCII по восемь байтов за сравнение: байты читаются как long
+ * и проверяются одной маской старших битов.
+ */
+public abstract class EncodingValidator {
+
+    /**
+     * Маска старших битов восьми байтов long.
+     */
+    private static final long NON_ASCII_MASK = 0x8080808080808080L;
+
+    /**
+     * Обертка последнего проверенного массива для чтения байтов по восемь.
+     */
+    private ByteBuffer words;
+
+    /**
+     * Назначением функции является проверка очередной части байтов.
+     * @return
+     * Позиция первого байта, не соответствующего кодировке, -1 если часть соответствует кодировке.
+     */
+    public abstract int validate(byte[] bytes, int from, int to);
+
+    /**
+     * @return
+     * Признак того, что проверенные байты не заканчиваются незавершенным символом.
+     */
+    public abstract boolean isComplete();
+
+    /**
+     * Назначением функции является сброс состояния для проверки нового файла.
+     */
+    public abstract void reset();
+
+    /**
+     * @return
+     * Новая проверка кодировки словаря. Для кодировок, отличных от UTF-8, UTF-16 и ASCII, части передаются
+     * Encoding.isArrayOfBytesMatchTheEncoding целиком, поэтому не должны разрывать символ.
+     */
+    public static EncodingValidator forEncoding(Encoding encoding){
+        if (encoding == Encoding.DEFAULT_UTF8){
+            return new Utf8();
+        }
+        if (encoding == Encoding.DEFAULT_UTF16LE){
+            return new Utf16(false);
+        }
+        if (encoding == Encoding.DEFAULT_UTF16BE){
+            return new Utf16(true);
+        }
+        if (encoding == Encoding.DEFAULT_ASCII){
+            return new Ascii();
+        }
+        return new Generic(encoding);
+    }
+
+    /**
+     * @return
+     * Позиция первого байта части, не являющегося символом ASCII, to если такого байта нет.
+     */
+    int skipAscii(byte[] bytes, int from, int to){
+        int index = from;
+        if (index + Long.BYTES <= to && bytes[index] >= 0){
+            ByteBuffer words = wordsOf(bytes, ByteOrder.LITTLE_ENDIAN);
+            for (; index + Long.BYTES <= to; index += Long.BYTES) {
+                if ((words.getLong(index) & NON_ASCII_MASK) != 0){
+                    break;
+                }
+            }
+        }
+        while (index < to && bytes[index] >= 0){
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * @return
+     * Обертка массива с заданным порядком байтов, переиспользуемая при проверке того же массива.
+     */
+    ByteBuffer wordsOf(byte[] bytes, ByteOrder order){
+        if (words == null || words.array() != bytes || words.order() != order){
+            words = ByteBuffer.wrap(bytes).order(order);
+        }
+        return words;
+    }
+
+    /**
+     * Класс, являющий собой модель проверки ASCII.
+     */
+    private static final class Ascii extends EncodingValidator {
+
+        @Override
+        public int validate(byte[] bytes, int from, int to) {
+            int index = skipAscii(bytes, from, to);
+            return index == to ? -1 : index;
+        }
+
+        @Override
+        public boolean isComplete() {
+            return true;
+        }
+
+        @Override
+        public void reset() {
+
+        }
+    }
+
+    /**
+     * Класс, являющий собой модель проверки UTF-8 по таблице допустимых последовательностей стандарта Unicode:
+     * отклоняются избыточные представления, суррогаты и символы больше U+10FFFF.
+     */
+    private static final class Utf8 extends EncodingValidator {
+
+        /**
+         * Количество байтов продолжения, ожидаемых до конца текущего символа.
+         */
+        private int needed;
+
+        /**
+         * Допустимые границы следующего байта продолжения.
+         */
+        private int lower = 0x80, upper = 0xBF;
+
+        @Override
+        public int validate(byte[] bytes, int from, int to) {
+            int index = from;
+            while (index < to && needed > 0){
+                int value = bytes[index] & 0xFF;
+                if (value < lower || value > upper){
+                    return index;
+                }
+                lower = 0x80;
+                upper = 0xBF;
+                needed--;
+                index++;
+            }
+            while (index < to){
+                int value = bytes[index];
+                if (value >= 0){
+                    index = skipAscii(bytes, index, to);
+                    continue;
+                }
+                value &= 0xFF;
+                int count, first = 0x80, last = 0xBF;
+                if (value >= 0xC2 && value <= 0xDF){
+                    count = 1;
+                }else if (value >= 0xE0 && value <= 0xEF){
+                    count = 2;
+                    first = value == 0xE0 ? 0xA0 : 0x80;
+                    last = value == 0xED ? 0x9F : 0xBF;
+                }else if (value >= 0xF0 && value <= 0xF4){
+                    count = 3;
+                    first = value == 0xF0 ? 0x90 : 0x80;
+                    last = value == 0xF4 ? 0x8F : 0xBF;
+                }else {
+                    return index;
+                }
+                if (index + count >= to){
+                    needed = count;
+                    lower = first;
+                    upper = last;
+                    return validate(bytes, index + 1, to);
+                }
+                int second = bytes[index + 1] & 0xFF;
+                if (second < first || second > last){
+                    return index + 1;
+                }
+                for (int counter = 2; counter <= count; counter++) {
+                    if ((bytes[index + counter] & 0xC0) != 0x80){
+                        return index + counter;
+                    }
+                }
+                index += count + 1;
+            }
+            return -1;
+        }
+
+        @Override
+        public boolean isComplete() {
+            return needed == 0;
+        }
+
+        @Override
+        public void reset() {
+            needed = 0;
+            lower = 0x80;
+            upper = 0xBF;
+        }
+    }
+
+    /**
+     * Класс, являющий собой модель проверки UTF-16: каждый старший суррогат должен сопровождаться младшим,
+     * а младший суррогат не может встречаться отдельно. Проверяются только старшие байты единиц.
+     */
+    private static final class Utf16 extends EncodingValidator {
+
+        /**
+         * Старшие пять битов единиц long, по которым суррогаты отличаются от остальных единиц.
+         */
+        private static final long SURROGATE_MASK = 0xF800F800F800F800L;
+
+        private static final long SURROGATE_BITS = 0xD800D800D800D800L;
+
+        private static final long LOWEST_BITS = 0x0001000100010001L;
+
+        private static final long HIGHEST_BITS = 0x8000800080008000L;
+
+        private final boolean bigEndian;
+
+        /**
+         * Первый байт единицы, разорванной границей части, -1 если единица не разорвана.
+         */
+        private int pendingByte = -1;
+
+        /**
+         * Признак того, что последняя проверенная единица является старшим суррогатом.
+         */
+        private boolean highSurrogate;
+
+        private Utf16(boolean bigEndian){
+            this.bigEndian = bigEndian;
+        }
+
+        @Override
+        public int validate(byte[] bytes, int from, int to) {
+            int index = from;
+            if (pendingByte >= 0 && index < to){
+                int high = bigEndian ? pendingByte : bytes[index] & 0xFF;
+                pendingByte = -1;
+                if (!acceptHighByte(high)){
+                    return index;
+                }
+                index++;
+            }
+            int highOffset = bigEndian ? 0 : 1;
+            if (!highSurrogate){
+                index = skipUnits(bytes, index, to);
+            }
+            for (; index + 1 < to; index += 2) {
+                int high = bytes[index + highOffset] & 0xFF;
+                if ((high & 0xF8) != 0xD8 && !highSurrogate){
+                    continue;
+                }
+                if (!acceptHighByte(high)){
+                    return index;
+                }
+            }
+            if (index < to){
+                pendingByte = bytes[index] & 0xFF;
+            }
+            return -1;
+        }
+
+        /**
+         * Назначением функции является пропуск единиц, не являющихся суррогатами, по четыре единицы за сравнение.
+         * Единица, старшие пять битов которой равны 11011, обращается в ноль, а нулевая единица находится
+         * вычитанием единицы из каждой единицы long.
+         * @return
+         * Позиция первой группы из четырех единиц, содержащей суррогат, или позиция последних единиц части.
+         */
+        private int skipUnits(byte[] bytes, int from, int to){
+            int index = from;
+            if (index + Long.BYTES <= to){
+                ByteBuffer words = wordsOf(bytes, bigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+                for (; index + Long.BYTES <= to; index += Long.BYTES) {
+                    long units = (words.getLong(index) & SURROGATE_MASK) ^ SURROGATE_BITS;
+                    if (((units - LOWEST_BITS) & ~units & HIGHEST_BITS) != 0){
+                        break;
+                    }
+                }
+            }
+            return index;
+        }
+
+        /**
+         * @return
+         * Признак того, что единица со старшим байтом допустима после предыдущей единицы.
+         */
+        private boolean acceptHighByte(int high){
+            boolean surrogate = (high & 0xF8) == 0xD8;
+            boolean low = (high & 0xFC) == 0xDC;
+            if (highSurrogate != (surrogate && low)){
+                return false;
+            }
+            highSurrogate = surrogate && !low;
+            return true;
+        }
+
+        @Override
+        public boolean isComplete() {
+            return pendingByte < 0 && !highSurrogate;
+        }
+
+        @Override
+        public void reset() {
+            pendingByte = -1;
+            highSurrogate = false;
+        }
+    }
+
+    /**
+     * Класс, являющий собой модель проверки кодировкой SimpleEncodings.
+     */
+    private static final class Generic extends EncodingValidator {
+
+        private final Encoding encoding;
+
+        private Generic(Encoding encoding){
+            this.encoding = encoding;
+        }
+
+        @Override
+        public int validate(byte[] bytes, int from, int to) {
+            byte[] part = from == 0 && to == bytes.length ? bytes : Arrays.copyOfRange(bytes, from, to);
+            return encoding.isArrayOfBytesMatchTheEncoding(part) ? -1 : from;
+        }
+
+        @Override
+        public boolean isComplete() {
+            return true;
+        }
+
+        @Override
+        public void reset() {
+
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package org.SimpleDictionaryService.io;
+
+import org.SimpleDictionaryService.DictionaryRecord;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель разбора строк файла - словаря непосредственно по байтам. Конец строки
+ * и первое вхождение разделителя ищутся за один проход без регулярных выражений и промежуточных строк,
+ * декодируются только ключ и значение записи. Так как UTF-8 не допускает совпадения байтов символа с частью
+ * другого символа, вхождение байтов разделителя всегда начинается на границе символа. В UTF-16 переводы строк
+ * и разделитель ищутся только на границах двухбайтовых единиц (см. CodeUnits), поэтому переданные байты должны
+ * начинаться на границе единицы.
+ * Концом строки считаются "\n", "\r" и "\r\n". Пустые строки пропускаются, строки без разделителя
+ * и с пустым ключом передаются получателю некорректных строк с номером строки.
+ * Экземпляр переиспользует буфер декодирования, поэтому не должен использоваться несколькими потоками.
+ */
+public final class LineTokenizer {
+
+    /**
+     * Наибольший размер окна, в котором ищется конец строки, см. grownWindowSize.
+     */
+    public static final int MAX_WINDOW_SIZE = Integer.MAX_VALUE - 8;
+
+    private final byte[] separator;
+
+    private final CodeUnits units;
+
+    /**
+     * Переиспользуемый буфер декодирования строк, содержащих не только символы ASCII.
+     */
+    private char[] chars = new char[256];
+
+    public LineTokenizer(String separator, CodeUnits units){
+        this.separator = units.encode(separator);
+        this.units = units;
+    }
+
+    /**
+     * Разбор строк в UTF-8.
+     */
+    public LineTokenizer(String separator){
+        this(separator, CodeUnits.UTF8);
+    }
+
+    /**
+     * Назначением функции является разбор всех строк части массива байтов на записи.
+     * @param bytes
+     * Байты строк, последняя строка может не заканчиваться переводом строки.
+     * @param length
+     * Количество байтов строк.
+     * @param firstLineNumber
+     * Номер первой строки в файле, используется для сообщений о некорректных строках.
+     * @param records
+     * Список, в который добавляются записи в порядке следования строк.
+     * @param handler
+     * Получатель некорректных строк.
+     * @return
+     * Количество разобранных строк, включая пустые и некорректные.
+     */
+    public long tokenize(byte[] bytes, int length, long firstLineNumber, List<DictionaryRecord> records, MalformedLineHandler handler){
+        if (units != CodeUnits.UTF8){
+            return tokenizeUnits(bytes, length, firstLineNumber, records, handler);
+        }
+        byte separatorStart = separator[0];
+        long lineNumber = firstLineNumber;
+        int lineStart = 0;
+        while (lineStart < length){
+            int separatorIndex = -1;
+            int lineEnd = lineStart;
+            for (; lineEnd < length; lineEnd++) {
+                byte value = bytes[lineEnd];
+                if (value == '\n' || value == '\r'){
+                    break;
+                }
+                if (value == separatorStart && separatorIndex < 0 && matchesSeparator(bytes, lineEnd, length)){
+                    separatorIndex = lineEnd;
+                }
+            }
+            if (lineEnd > lineStart){
+                DictionaryRecord record = recordOf(bytes, lineStart, lineEnd, separatorIndex, lineNumber, handler);
+                if (record != null){
+                    records.add(record);
+                }
+            }
+            if (lineEnd + 1 < length && bytes[lineEnd] == '\r' && bytes[lineEnd + 1] == '\n'){
+                lineEnd++;
+            }
+            lineStart = lineEnd + 1;
+            lineNumber++;
+        }
+        return lineNumber - firstLineNumber;
+    }
+
+    /**
+     * Назначением функции является разбор строк UTF-16 по двухбайтовым единицам. Нечетный последний байт
+     * не является частью строки и пропускается.
+     * @see #tokenize(byte[], int, long, List, MalformedLineHandler)
+     */
+    private long tokenizeUnits(byte[] bytes, int length, long firstLineNumber, List<DictionaryRecord> records, MalformedLineHandler handler){
+        length &= ~1;
+        byte separatorStart = separator[0];
+        int lowOffset = units == CodeUnits.UTF16LE ? 0 : 1, highOffset = 1 - lowOffset;
+        long lineNumber = firstLineNumber;
+        int lineStart = 0;
+        while (lineStart < length){
+            int separatorIndex = -1;
+            int lineEnd = lineStart;
+            for (; lineEnd < length; lineEnd += 2) {
+                if (bytes[lineEnd + highOffset] == 0){
+                    byte value = bytes[lineEnd + lowOffset];
+                    if (value == '\n' || value == '\r'){
+                        break;
+                    }
+                }
+                if (bytes[lineEnd] == separatorStart && separatorIndex < 0 && matchesSeparator(bytes, lineEnd, length)){
+                    separatorIndex = lineEnd;
+                }
+            }
+            if (lineEnd > lineStart){
+                DictionaryRecord record = recordOf(bytes, lineStart, lineEnd, separatorIndex, lineNumber, handler);
+                if (record != null){
+                    records.add(record);
+                }
+            }
+            if (lineEnd + 3 < length && units.unitAt(bytes, lineEnd) == '\r' && units.unitAt(bytes, lineEnd + 2) == '\n'){
+                lineEnd += 2;
+            }
+            lineStart = lineEnd + 2;
+            lineNumber++;
+        }
+        return lineNumber - firstLineNumber;
+    }
+
+    /**
+     * Назначением функции является разбор одной строки без перевода строки.
+     * @return
+     * Запись строки, null если строка пустая или некорректная.
+     */
+    public DictionaryRecord parseLine(byte[] bytes, int from, int to, long lineNumber, MalformedLineHandler handler){
+        if (from == to){
+            return null;
+        }
+        return recordOf(bytes, from, to, indexOfSeparator(bytes, from, to), lineNumber, handler);
+    }
+
+    public DictionaryRecord parseLine(byte[] bytes, int from, int to){
+        return parseLine(bytes, from, to, 0, MalformedLineHandler.IGNORE);
+    }
+
+    /**
+     * @return
+     * Позиция первого вхождения разделителя в части массива, -1 если разделителя нет.
+     */
+    public int indexOfSeparator(byte[] bytes, int from, int to){
+        byte separatorStart = separator[0];
+        int width = units.getWidth();
+        for (int index = from; index < to; index += width) {
+            if (bytes[index] == separatorStart && matchesSeparator(bytes, index, to)){
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private DictionaryRecord recordOf(byte[] bytes, int lineStart, int lineEnd, int separatorIndex, long lineNumber, MalformedLineHandler handler){
+        if (separatorIndex < 0 || separatorIndex == lineStart){
+            handler.malformedLine(lineNumber, decode(bytes, lineStart, lineEnd),
+                    separatorIndex < 0 ? MalformedLineHandler.Reason.MISSING_SEPARATOR : MalformedLineHandler.Reason.EMPTY_KEY);
+            return null;
+        }
+        int wordStart = separatorIndex + separator.length;
+        return new DictionaryRecord(decode(bytes, lineStart, separatorIndex), decode(bytes, wordStart, lineEnd));
+    }
+
+    private String decode(byte[] bytes, int from, int to){
+        return units == CodeUnits.UTF8 ? decodeUtf8(bytes, from, to) : decodeUtf16(bytes, from, to);
+    }
+
+    /**
+     * Назначением функции является декодирование части массива байтов UTF-16 через переиспользуемый буфер.
+     * Суррогаты переносятся в строку без проверки, так как соответствие кодировке проверяется до разбора.
+     */
+    private String decodeUtf16(byte[] bytes, int from, int to){
+        int length = (to - from) / 2;
+        if (chars.length < length){
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        int lowOffset = units == CodeUnits.UTF16LE ? 0 : 1, highOffset = 1 - lowOffset;
+        for (int counter = 0, index = from; counter < length; counter++, index += 2) {
+            chars[counter] = (char) ((bytes[index + highOffset] & 0xFF) << 8 | (bytes[index + lowOffset] & 0xFF));
+        }
+        return new String(chars, 0, length);
+    }
+
+    /**
+     * Назначением функции является декодирование части массива байтов UTF-8 с выделением памяти только под
+     * результат. Строки из символов ASCII копируются без декодирования, остальные декодируются в переиспользуемый
+     * буфер. Некорректные последовательности байтов заменяются символом U+FFFD.
+     */
+    private String decodeUtf8(byte[] bytes, int from, int to){
+        int index = from;
+        while (index < to && bytes[index] >= 0){
+            index++;
+        }
+        if (index == to){
+            return new String(bytes, from, to - from, StandardCharsets.ISO_8859_1);
+        }
+        if (chars.length < to - from){
+            chars = new char[Math.max(to - from, chars.length * 2)];
+        }
+        int length = 0;
+        for (int counter = from; counter < index; counter++) {
+            chars[length++] = (char) bytes[counter];
+        }
+        while (index < to){
+            int first = bytes[index++];
+            if (first >= 0){
+                chars[length++] = (char) first;
+                continue;
+            }
+            first &= 0xFF;
+            if (first >= 0xC2 && first <= 0xDF && index < to && isContinuation(bytes[index])){
+                chars[length++] = (char) (((first & 0x1F) << 6) | (bytes[index++] & 0x3F));
+            }else if (first >= 0xE0 && first <= 0xEF && index + 1 < to && isContinuation(bytes[index]) && isContinuation(bytes[index + 1])
+                    && (first != 0xE0 || (bytes[index] & 0xFF) >= 0xA0) && (first != 0xED || (bytes[index] & 0xFF) <= 0x9F)){
+                chars[length++] = (char) (((first & 0x0F) << 12) | ((bytes[index] & 0x3F) << 6) | (bytes[index + 1] & 0x3F));
+                index += 2;
+            }else if (first >= 0xF0 && first <= 0xF4 && index + 2 < to && isContinuation(bytes[index]) && isContinuation(bytes[index + 1]) && isContinuation(bytes[index + 2])
+                    && (first != 0xF0 || (bytes[index] & 0xFF) >= 0x90) && (first != 0xF4 || (bytes[index] & 0xFF) <= 0x8F)){
+                int codePoint = ((first & 0x07) << 18) | ((bytes[index] & 0x3F) << 12) | ((bytes[index + 1] & 0x3F) << 6) | (bytes[index + 2] & 0x3F);
+                chars[length++] = Character.highSurrogate(codePoint);
+                chars[length++] = Character.lowSurrogate(codePoint);
+                index += 3;
+            }else {
+                chars[length++] = '\uFFFD';
+            }
+        }
+        return new String(chars, 0, length);
+    }
+
+    /**
+     * @return
+     * Количество байтов части массива до конца последней строки включительно, 0 если часть не содержит перевода
+     * строки. Концом строки, как и при разборе, считаются "\n", "\r" и "\r\n", но "\r" в последней единице части
+     * не считается концом строки, так как за ним может следовать "\n" за пределами части. Часть должна начинаться
+     * на границе единицы.
+     */
+    public int lastLineEnd(ByteBuffer buffer, int from, int to){
+        int width = units.getWidth();
+        int last = to - (to - from) % width - width;
+        for (int index = last; index >= from; index -= width) {
+            int unit = units.unitAt(buffer, index);
+            if (unit == '\n' || unit == '\r' && index < last){
+                return index + width - from;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Назначением функции является увеличение окна, в котором не найден конец строки.
+     * @param windowSize
+     * Текущий размер окна.
+     * @return
+     * Удвоенный размер окна, не больше MAX_WINDOW_SIZE.
+     * @throws IOException
+     * Если окно уже имеет наибольший размер, то есть строка длиннее MAX_WINDOW_SIZE байтов.
+     */
+    public static int grownWindowSize(int windowSize) throws IOException {
+        if (windowSize >= MAX_WINDOW_SIZE){
+            throw new IOException("Line is too long: no line end within " + MAX_WINDOW_SIZE + " bytes");
+        }
+        return (int) Math.min(MAX_WINDOW_SIZE, (long) windowSize * 2);
+    }
+
+    public CodeUnits getUnits() {
+        return units;
+    }
+
+    private static boolean isContinuation(byte value){
+        return (value & 0xC0) == 0x80;
+    }
+
+    private boolean matchesSeparator(byte[] bytes, int index, int to){
+        if (index + separator.length > to){
+            return false;
+        }
+        for (int counter = 1; counter < separator.length; counter++) {
+            if (bytes[index + counter] != separator[counter]){
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,36 @@
+package org.SimpleDictionaryService.io;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Перечисление, являющее собой модель этапов загрузки файла - словаря, время которых учитывается загрузчиком.
+ */
+public enum LoadPhase {
+
+    /**
+     * Отображение окна файла в память и копирование его байтов.
+     */
+    READ,
+
+    /**
+     * Проверка соответствия байтов кодировке словаря.
+     */
+    ENCODING_VALIDATION,
+
+    /**
+     * Разбор строк на записи. Строки разбираются непосредственно по байтам, поэтому сюда входит и декодирование
+     * ключей и значений в символы.
+     */
+    PARSE,
+
+    /**
+     * Подсчет символов ключей и значений, соответствующих языкам словаря.
+     */
+    LANGUAGE_SCORING,
+
+    /**
+     * Передача записей получателю, как правило добавление в хранилище.
+     */
+    STORE
+}
@@ -0,0 +1,165 @@
+package org.SimpleDictionaryService.io;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель счетчиков соответствия загруженных ключей и значений языкам словаря.
+ * Загрузчики дополнительно учитывают объем прочитанных байтов и время этапов загрузки.
+ */
+public class LoadStatistics {
+
+    private long recordsCount;
+
+    private long keySymbolsCount;
+
+    private long keySymbolsLanguageMatches;
+
+    private long wordSymbolsCount;
+
+    private long wordSymbolsLanguageMatches;
+
+    /**
+     * Количество прочитанных байтов файла - словаря.
+     */
+    private long bytesCount;
+
+    /**
+     * Количество прочитанных строк файла - словаря, включая пустые и некорректные.
+     */
+    private long linesCount;
+
+    /**
+     * Количество строк, которые не являются записями.
+     */
+    private long malformedLinesCount;
+
+    /**
+     * Время этапов загрузки в наносекундах, индексы соответствуют LoadPhase.ordinal().
+     */
+    private final long[] phaseNanos = new long[LoadPhase.values().length];
+
+    public LoadStatistics(){
+
+    }
+
+    /**
+     * Счетчики с заданными значениями, например сохраненными в снимке словаря.
+     */
+    public LoadStatistics(long recordsCount, long keySymbolsCount, long keySymbolsLanguageMatches, long wordSymbolsCount, long wordSymbolsLanguageMatches){
+        this.recordsCount = recordsCount;
+        this.keySymbolsCount = keySymbolsCount;
+        this.keySymbolsLanguageMatches = keySymbolsLanguageMatches;
+        this.wordSymbolsCount = wordSymbolsCount;
+        this.wordSymbolsLanguageMatches = wordSymbolsLanguageMatches;
+    }
+
+    /**
+     * Назначением функции является учет очередной загруженной записи.
+     */
+    public void addRecord(int keyLength, int keyMatches, int wordLength, int wordMatches){
+        recordsCount++;
+        keySymbolsCount += keyLength;
+        keySymbolsLanguageMatches += keyMatches;
+        wordSymbolsCount += wordLength;
+        wordSymbolsLanguageMatches += wordMatches;
+    }
+
+    /**
+     * Назначением функции является добавление к данным счетчикам значений других счетчиков.
+     * @param other
+     * Указатель на добавляемые счетчики.
+     */
+    public void merge(LoadStatistics other){
+        recordsCount += other.recordsCount;
+        keySymbolsCount += other.keySymbolsCount;
+        keySymbolsLanguageMatches += other.keySymbolsLanguageMatches;
+        wordSymbolsCount += other.wordSymbolsCount;
+        wordSymbolsLanguageMatches += other.wordSymbolsLanguageMatches;
+        bytesCount += other.bytesCount;
+        linesCount += other.linesCount;
+        malformedLinesCount += other.malformedLinesCount;
+        for (int counter = 0; counter < phaseNanos.length; counter++) {
+            phaseNanos[counter] += other.phaseNanos[counter];
+        }
+    }
+
+    /**
+     * Назначением функции является учет прочитанных байтов файла - словаря.
+     */
+    public void addBytes(long bytes){
+        bytesCount += bytes;
+    }
+
+    public void addLines(long lines){
+        linesCount += lines;
+    }
+
+    public void addMalformedLine(){
+        malformedLinesCount++;
+    }
+
+    /**
+     * Назначением функции является учет времени этапа загрузки. Время измеряется загрузчиком для окна файла
+     * целиком, а не для отдельных записей, поэтому учет не замедляет загрузку.
+     */
+    public void addPhaseTime(LoadPhase phase, long nanos){
+        phaseNanos[phase.ordinal()] += nanos;
+    }
+
+    /**
+     * @return
+     * Доля символов ключей, соответствующих языку ключей словаря.
+     */
+    public double getKeyLanguageRatio(){
+        return (double) keySymbolsLanguageMatches / keySymbolsCount;
+    }
+
+    /**
+     * @return
+     * Доля символов значений, соответствующих языку значений словаря.
+     */
+    public double getWordLanguageRatio(){
+        return (double) wordSymbolsLanguageMatches / wordSymbolsCount;
+    }
+
+    public long getRecordsCount() {
+        return recordsCount;
+    }
+
+    public long getKeySymbolsCount() {
+        return keySymbolsCount;
+    }
+
+    public long getKeySymbolsLanguageMatches() {
+        return keySymbolsLanguageMatches;
+    }
+
+    public long getWordSymbolsCount() {
+        return wordSymbolsCount;
+    }
+
+    public long getWordSymbolsLanguageMatches() {
+        return wordSymbolsLanguageMatches;
+    }
+
+    public long getBytesCount() {
+        return bytesCount;
+    }
+
+    public long getLinesCount() {
+        return linesCount;
+    }
+
+    public long getMalformedLinesCount() {
+        return malformedLinesCount;
+    }
+
+    /**
+     * @return
+     * Время этапа загрузки в наносекундах. Для параллельной загрузки - суммарное время всех потоков.
+     */
+    public long getPhaseNanos(LoadPhase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+}
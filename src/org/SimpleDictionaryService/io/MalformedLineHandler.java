@@ -0,0 +1,41 @@
+package org.SimpleDictionaryService.io;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Интерфейс, являющий собой модель получателя строк файла - словаря, которые не являются записями.
+ * Такие строки пропускаются, загрузка продолжается.
+ */
+@FunctionalInterface
+public interface MalformedLineHandler {
+
+    /**
+     * Получатель, выводящий строки в стандартный поток ошибок.
+     */
+    MalformedLineHandler PRINT = (lineNumber, line, reason) ->
+            System.err.println("Malformed dictionary line " + lineNumber + " (" + reason + "): " + line);
+
+    MalformedLineHandler IGNORE = (lineNumber, line, reason) -> { };
+
+    /**
+     * Назначением функции является получение пропущенной строки.
+     * @param lineNumber
+     * Номер строки в файле, начиная с 1.
+     * @param line
+     * Текст строки.
+     * @param reason
+     * Причина, по которой строка не является записью.
+     */
+    void malformedLine(long lineNumber, String line, Reason reason);
+
+    /**
+     * Перечисление, являющее собой модель причин, по которым строка не является записью.
+     */
+    enum Reason {
+
+        MISSING_SEPARATOR,
+
+        EMPTY_KEY
+    }
+}
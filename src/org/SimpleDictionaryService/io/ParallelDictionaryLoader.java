@@ -0,0 +1,216 @@
+package org.SimpleDictionaryService.io;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.DictionaryRecord;
+import org.SimpleEncodings.throwable.WrongEncodingException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель параллельного загрузчика файла - словаря.
+ * Файл делится на части, выровненные по границам строк, которые разбираются и оцениваются на соответствие
+ * языкам словаря параллельно в пуле fork-join. Записи частей передаются получателю строго в порядке
+ * следования в файле, поэтому при повторяющихся ключах сохраняется первая запись, как и при
+ * последовательной загрузке.
+ */
+public class ParallelDictionaryLoader extends DictionaryLoader {
+
+    public static final long DEFAULT_MINIMAL_CHUNK_SIZE = 1024 * 1024;
+
+    /**
+     * Количество частей файла, приходящихся на один поток пула.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Минимальный размер части файла в байтах.
+     */
+    private final long minimalChunkSize;
+
+    public ParallelDictionaryLoader(ForkJoinPool pool, long minimalChunkSize, int windowSize){
+        super(windowSize);
+        this.pool = pool;
+        this.minimalChunkSize = minimalChunkSize;
+    }
+
+    public ParallelDictionaryLoader(ForkJoinPool pool){
+        this(pool, DEFAULT_MINIMAL_CHUNK_SIZE, DEFAULT_WINDOW_SIZE);
+    }
+
+    public ParallelDictionaryLoader(){
+        this(ForkJoinPool.commonPool());
+    }
+
+    @Override
+    public LoadStatistics load(Dictionary dictionary, Consumer<DictionaryRecord> consumer) throws IOException, WrongEncodingException {
+        try (FileChannel channel = FileChannel.open(dictionary.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            int dataStart = EncodingDetector.byteOrderMarkLength(channel, dictionary.getEncoding());
+            long[] boundaries = chunkBoundaries(channel, dataStart, size, CodeUnits.forEncoding(dictionary.getEncoding()));
+            List<ForkJoinTask<ChunkResult>> tasks = new ArrayList<>(boundaries.length - 1);
+            for (int counter = 0; counter < boundaries.length - 1; counter++) {
+                long start = boundaries[counter], end = boundaries[counter + 1];
+                tasks.add(pool.submit(() -> {
+                    ChunkResult result = new ChunkResult();
+                    result.statistics = loadRange(dictionary, channel, start, end, true, result.records::add,
+                            (lineNumber, line, reason) -> result.malformedLines.add(new MalformedLine(lineNumber, line, reason)));
+                    return result;
+                }));
+            }
+            LoadStatistics statistics = new LoadStatistics();
+            MalformedLineHandler handler = getMalformedLineHandler();
+            try {
+                for (int counter = 0; counter < tasks.size(); counter++) {
+                    ChunkResult result = join(tasks.get(counter));
+                    tasks.set(counter, null);
+                    for (MalformedLine malformedLine : result.malformedLines) {
+                        handler.malformedLine(statistics.getLinesCount() + malformedLine.lineNumber, malformedLine.line, malformedLine.reason);
+                    }
+                    long storeStart = System.nanoTime();
+                    result.records.forEach(consumer);
+                    statistics.addPhaseTime(LoadPhase.STORE, System.nanoTime() - storeStart);
+                    statistics.merge(result.statistics);
+                }
+            }finally {
+                for (ForkJoinTask<ChunkResult> task : tasks) {
+                    if (task != null){
+                        task.cancel(true);
+                    }
+                }
+            }
+            return statistics;
+        }
+    }
+
+    /**
+     * Назначением функции является разбиение файла на части, каждая из которых начинается с начала строки.
+     * @param dataStart
+     * Позиция начала первой строки файла после метки порядка байтов.
+     * @return
+     * Массив границ частей, первая граница равна dataStart, последняя - размеру файла.
+     */
+    private long[] chunkBoundaries(FileChannel channel, long dataStart, long size, CodeUnits units) throws IOException {
+        int chunksCount = (int) Math.max(1, Math.min((long) pool.getParallelism() * CHUNKS_PER_THREAD, size / minimalChunkSize));
+        List<Long> boundaries = new ArrayList<>(chunksCount + 1);
+        boundaries.add(dataStart);
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        for (int counter = 1; counter < chunksCount; counter++) {
+            long boundary = nextLineStart(channel, Math.max(size * counter / chunksCount, boundaries.get(boundaries.size() - 1)), dataStart, size, buffer, units);
+            if (boundary > boundaries.get(boundaries.size() - 1) && boundary < size){
+                boundaries.add(boundary);
+            }
+        }
+        boundaries.add(size);
+        long[] result = new long[boundaries.size()];
+        for (int counter = 0; counter < result.length; counter++) {
+            result[counter] = boundaries.get(counter);
+        }
+        return result;
+    }
+
+    /**
+     * @return
+     * Позиция начала первой строки, начинающейся не раньше переданной позиции, или размер файла. Переводы строк
+     * ищутся на границах единиц текста, отсчитываемых от dataStart.
+     */
+    private static long nextLineStart(FileChannel channel, long position, long dataStart, long size, ByteBuffer buffer, CodeUnits units) throws IOException {
+        int width = units.getWidth();
+        if (position <= dataStart){
+            return dataStart;
+        }
+        long current = position - width;
+        current -= (current - dataStart) % width;
+        while (current < size){
+            buffer.clear();
+            int read = channel.read(buffer, current);
+            read -= read % width;
+            if (read <= 0){
+                break;
+            }
+            for (int index = 0; index < read; index += width) {
+                int unit = units.unitAt(buffer, index);
+                if (unit == '\n'){
+                    return current + index + width;
+                }
+                if (unit == '\r' && index + width < read){
+                    return current + index + (units.unitAt(buffer, index + width) == '\n' ? 2 * width : width);
+                }
+            }
+            current += read;
+        }
+        return size;
+    }
+
+    private static ChunkResult join(ForkJoinTask<ChunkResult> task) throws IOException, WrongEncodingException {
+        try {
+            return task.get();
+        }catch (InterruptedException exception){
+            Thread.currentThread().interrupt();
+            throw new IOException(exception);
+        }catch (ExecutionException exception){
+            Throwable cause = exception.getCause();
+            if (cause instanceof IOException){
+                throw (IOException) cause;
+            }
+            if (cause instanceof WrongEncodingException){
+                throw (WrongEncodingException) cause;
+            }
+            if (cause instanceof RuntimeException){
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Класс, являющий собой модель результата загрузки части файла.
+     */
+    private static final class ChunkResult {
+
+        private final List<DictionaryRecord> records = new ArrayList<>();
+
+        /**
+         * Некорректные строки части файла с номерами строк от начала части.
+         */
+        private final List<MalformedLine> malformedLines = new ArrayList<>();
+
+        private LoadStatistics statistics;
+    }
+
+    private static final class MalformedLine {
+
+        private final long lineNumber;
+
+        private final String line;
+
+        private final MalformedLineHandler.Reason reason;
+
+        private MalformedLine(long lineNumber, String line, MalformedLineHandler.Reason reason){
+            this.lineNumber = lineNumber;
+            this.line = line;
+            this.reason = reason;
+        }
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public long getMinimalChunkSize() {
+        return minimalChunkSize;
+    }
+}
@@ -0,0 +1,444 @@
+package org.SimpleDictionaryService.journal;
+
+import org.SimpleDictionaryService.DictionaryRecord;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель журнала изменений словаря (write-ahead log).
+ * Каждое изменение словаря дописывается в конец файла журнала в виде компактного вхождения
+ * вместо перезаписи всего файла - словаря. Когда размер журнала превышает порог, журнал сворачивается
+ * в основной файл словаря: в фоновом режиме, если снимок словаря можно записывать во время изменений записей,
+ * и в потоке, дописавшем вхождение, в противном случае.
+ *
+ * Формат вхождения: [int длина][int crc32][byte тип][int длина ключа][ключ][int длина значения][значение],
+ * строки хранятся в UTF-8, длина значения вхождения типа REMOVE равна -1.
+ */
+public class DictionaryJournal implements Closeable {
+
+    public static final String JOURNAL_SUFFIX                   = ".journal";
+    public static final String COMPACTING_JOURNAL_SUFFIX        = ".journal.compacting";
+    public static final long   DEFAULT_COMPACTION_THRESHOLD     = 64L * 1024 * 1024;
+    public static final long   DEFAULT_SYNC_PERIOD_MILLIS       = 1000;
+
+    private static final int   ENTRY_HEADER_SIZE                = 8;
+
+    /**
+     * Интерфейс функции, которая записывает полное текущее состояние словаря в основной файл.
+     */
+    public interface SnapshotWriter {
+        void writeSnapshot() throws IOException;
+    }
+
+    private final File journalFile;
+
+    private final File compactingJournalFile;
+
+    private final JournalSyncPolicy syncPolicy;
+
+    private final long compactionThreshold;
+
+    private final SnapshotWriter snapshotWriter;
+
+    /**
+     * Признак того, что снимок словаря можно записывать в фоновом потоке во время изменений записей.
+     */
+    private final boolean backgroundCompaction;
+
+    /**
+     * Поток, выполняющий периодическую запись журнала на диск и сворачивание журнала.
+     */
+    private final ScheduledExecutorService backgroundExecutor;
+
+    /**
+     * Блокировка дописывания вхождений в журнал.
+     */
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    /**
+     * Монитор принудительной записи журнала на диск.
+     */
+    private final Object syncMonitor = new Object();
+
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    /**
+     * Переиспользуемый буфер кодирования вхождений, защищен appendLock.
+     */
+    private ByteBuffer entryBuffer = ByteBuffer.allocate(4096);
+
+    private FileChannel channel;
+
+    /**
+     * Номер текущего файла журнала, увеличивается при каждом сворачивании.
+     */
+    private volatile long generation;
+
+    /**
+     * Количество записанных в текущий файл журнала байтов.
+     */
+    private volatile long writtenPosition;
+
+    /**
+     * Количество записанных в текущий файл журнала байтов, которые гарантированно находятся на диске.
+     */
+    private long syncedPosition;
+
+    /**
+     * @param backgroundCompaction
+     * Признак того, что snapshotWriter можно вызывать в фоновом потоке во время изменений записей словаря,
+     * то есть записи хранятся в потокобезопасном хранилище. Иначе журнал сворачивается в потоке, вызвавшем append.
+     */
+    public DictionaryJournal(File dictionaryFile, JournalSyncPolicy syncPolicy, long syncPeriodMillis, long compactionThreshold, SnapshotWriter snapshotWriter, boolean backgroundCompaction) throws IOException {
+        this.journalFile = journalFileOf(dictionaryFile);
+        this.compactingJournalFile = compactingJournalFileOf(dictionaryFile);
+        this.syncPolicy = syncPolicy;
+        this.compactionThreshold = compactionThreshold;
+        this.snapshotWriter = snapshotWriter;
+        this.backgroundCompaction = backgroundCompaction;
+        this.backgroundExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dictionary-journal-" + journalFile.getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.channel = openChannel();
+        if (syncPolicy == JournalSyncPolicy.PERIODIC){
+            backgroundExecutor.scheduleWithFixedDelay(this::syncQuietly, syncPeriodMillis, syncPeriodMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public DictionaryJournal(File dictionaryFile, JournalSyncPolicy syncPolicy, SnapshotWriter snapshotWriter) throws IOException {
+        this(dictionaryFile, syncPolicy, DEFAULT_SYNC_PERIOD_MILLIS, DEFAULT_COMPACTION_THRESHOLD, snapshotWriter, false);
+    }
+
+    /**
+     * Назначением функции является дописывание в журнал текущего состояния записей с переданными ключами.
+     * Состояние считывается под блокировкой журнала, поэтому последнее вхождение каждого ключа
+     * всегда соответствует последнему изменению этого ключа, даже если изменения выполнялись параллельно.
+     * @param keys
+     * Ключи измененных записей.
+     * @param currentState
+     * Функция получения текущей записи по ключу, возвращающая null для отсутствующих записей.
+     */
+    public void append(Collection<String> keys, Function<String, DictionaryRecord> currentState) throws IOException {
+        long entryGeneration, entryPosition;
+        appendLock.lock();
+        try {
+            entryBuffer.clear();
+            for (String key : keys) {
+                DictionaryRecord record = currentState.apply(key);
+                encode(record == null ? JournalEntry.remove(key) : JournalEntry.put(record));
+            }
+            entryBuffer.flip();
+            while (entryBuffer.hasRemaining()){
+                channel.write(entryBuffer);
+            }
+            writtenPosition = channel.position();
+            entryGeneration = generation;
+            entryPosition = writtenPosition;
+        }finally {
+            appendLock.unlock();
+        }
+        if (syncPolicy != JournalSyncPolicy.PERIODIC){
+            syncTo(entryGeneration, entryPosition);
+        }
+        if (entryPosition >= compactionThreshold){
+            if (backgroundCompaction){
+                compactInBackground();
+            }else {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * Назначением функции является принудительная запись всех дописанных вхождений на диск.
+     */
+    public void sync() throws IOException {
+        syncTo(generation, writtenPosition);
+    }
+
+    /**
+     * Назначением функции является запуск сворачивания журнала в основной файл словаря в фоновом режиме.
+     * Повторные запуски во время выполняющегося сворачивания игнорируются. Если журнал создан без признака
+     * backgroundCompaction, журнал сворачивается в вызывающем потоке, так как снимок словаря нельзя
+     * записывать параллельно с изменениями записей.
+     */
+    public void compactInBackground(){
+        if (!backgroundCompaction){
+            compact();
+            return;
+        }
+        if (!compacting.compareAndSet(false, true)){
+            return;
+        }
+        backgroundExecutor.execute(() -> {
+            try {
+                writeCompaction();
+            }finally {
+                compacting.set(false);
+            }
+        });
+    }
+
+    /**
+     * Назначением функции является сворачивание журнала в основной файл словаря в вызывающем потоке.
+     * Вызов во время выполняющегося сворачивания игнорируется.
+     */
+    public void compact(){
+        if (!compacting.compareAndSet(false, true)){
+            return;
+        }
+        try {
+            writeCompaction();
+        }finally {
+            compacting.set(false);
+        }
+    }
+
+    /**
+     * Назначением функции является замена журнала, запись снимка словаря и удаление свернутого журнала.
+     * Ошибки выводятся и не прерывают работу журнала: свернутый журнал остается на диске и будет
+     * включен в следующий снимок или применен при следующем выборе словаря.
+     */
+    private void writeCompaction(){
+        try {
+            if (!compactingJournalFile.exists()){
+                rotate();
+            }
+            snapshotWriter.writeSnapshot();
+            Files.deleteIfExists(compactingJournalFile.toPath());
+        }catch (IOException | RuntimeException exception){
+            exception.printStackTrace();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        backgroundExecutor.shutdown();
+        try {
+            backgroundExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }catch (InterruptedException exception){
+            Thread.currentThread().interrupt();
+        }
+        appendLock.lock();
+        try {
+            synchronized (syncMonitor){
+                channel.force(false);
+                channel.close();
+            }
+        }finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Назначением функции является применение всех вхождений журналов словаря в порядке их записи.
+     * @param dictionaryFile
+     * Файл словаря, журналы которого требуется применить.
+     * @param consumer
+     * Функция, применяющая вхождение.
+     * @return
+     * true, если был применен хотя бы один журнал, в противном случае false.
+     */
+    public static boolean replay(File dictionaryFile, Consumer<JournalEntry> consumer) throws IOException {
+        boolean replayed = false;
+        for (File file : new File[]{compactingJournalFileOf(dictionaryFile), journalFileOf(dictionaryFile)}) {
+            if (file.exists()){
+                readEntries(file, consumer);
+                replayed = true;
+            }
+        }
+        return replayed;
+    }
+
+    /**
+     * Назначением функции является удаление всех журналов словаря. Вызывается после того, как
+     * состояние словаря, включающее вхождения журналов, было записано в основной файл.
+     */
+    public static void delete(File dictionaryFile) throws IOException {
+        Files.deleteIfExists(compactingJournalFileOf(dictionaryFile).toPath());
+        Files.deleteIfExists(journalFileOf(dictionaryFile).toPath());
+    }
+
+    public static File journalFileOf(File dictionaryFile){
+        return new File(dictionaryFile.getPath() + JOURNAL_SUFFIX);
+    }
+
+    public static File compactingJournalFileOf(File dictionaryFile){
+        return new File(dictionaryFile.getPath() + COMPACTING_JOURNAL_SUFFIX);
+    }
+
+    public JournalSyncPolicy getSyncPolicy() {
+        return syncPolicy;
+    }
+
+    public long getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    /**
+     * Назначением функции является считывание вхождений файла журнала. Считывание прекращается на первом
+     * неполном или поврежденном вхождении, которое могло остаться после аварийного завершения.
+     * @return
+     * Количество байтов, занимаемых корректными вхождениями.
+     */
+    private static long readEntries(File file, Consumer<JournalEntry> consumer) throws IOException {
+        long validLength = 0;
+        CRC32 crc = new CRC32();
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+            byte[] payload = new byte[256];
+            while (true){
+                int length, checksum;
+                try {
+                    length = inputStream.readInt();
+                    checksum = inputStream.readInt();
+                    if (length < 0){
+                        break;
+                    }
+                    if (payload.length < length){
+                        payload = new byte[Math.max(length, payload.length * 2)];
+                    }
+                    inputStream.readFully(payload, 0, length);
+                }catch (EOFException exception){
+                    break;
+                }
+                crc.reset();
+                crc.update(payload, 0, length);
+                if ((int) crc.getValue() != checksum){
+                    break;
+                }
+                consumer.accept(decode(ByteBuffer.wrap(payload, 0, length)));
+                validLength += ENTRY_HEADER_SIZE + length;
+            }
+        }
+        return validLength;
+    }
+
+    private static JournalEntry decode(ByteBuffer payload){
+        JournalEntry.Type type = JournalEntry.Type.values()[payload.get()];
+        String key = readString(payload);
+        String word = readString(payload);
+        return type == JournalEntry.Type.PUT ? JournalEntry.put(new DictionaryRecord(key, word)) : JournalEntry.remove(key);
+    }
+
+    private static String readString(ByteBuffer payload){
+        int length = payload.getInt();
+        if (length < 0){
+            return null;
+        }
+        String value = new String(payload.array(), payload.arrayOffset() + payload.position(), length, StandardCharsets.UTF_8);
+        payload.position(payload.position() + length);
+        return value;
+    }
+
+    /**
+     * Назначением функции является кодирование вхождения в буфер entryBuffer. Вызывается под appendLock.
+     */
+    private void encode(JournalEntry entry){
+        byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+        byte[] word = entry.getWord() == null ? null : entry.getWord().getBytes(StandardCharsets.UTF_8);
+        int length = 1 + 4 + key.length + 4 + (word == null ? 0 : word.length);
+        ensureCapacity(ENTRY_HEADER_SIZE + length);
+        int start = entryBuffer.position();
+        entryBuffer.putInt(length).putInt(0).put((byte) entry.getType().ordinal()).putInt(key.length).put(key);
+        if (word == null){
+            entryBuffer.putInt(-1);
+        }else {
+            entryBuffer.putInt(word.length).put(word);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(entryBuffer.array(), start + ENTRY_HEADER_SIZE, length);
+        entryBuffer.putInt(start + 4, (int) crc.getValue());
+    }
+
+    private void ensureCapacity(int required){
+        if (entryBuffer.remaining() < required){
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(entryBuffer.capacity() * 2, entryBuffer.position() + required));
+            entryBuffer.flip();
+            grown.put(entryBuffer);
+            entryBuffer = grown;
+        }
+    }
+
+    /**
+     * Назначением функции является принудительная запись журнала на диск до указанной позиции.
+     * Вызовы, ожидающие монитор во время выполняющейся записи, обнаруживают, что их
+     * вхождения уже записаны, и не обращаются к диску повторно. При политике PER_OPERATION каждый вызов
+     * выполняет собственное обращение к диску. Вхождения свернутого файла журнала уже записаны на диск при его замене.
+     */
+    private void syncTo(long entryGeneration, long entryPosition) throws IOException {
+        synchronized (syncMonitor){
+            if (entryGeneration != generation){
+                return;
+            }
+            if (syncPolicy != JournalSyncPolicy.PER_OPERATION && syncedPosition >= entryPosition){
+                return;
+            }
+            long target = writtenPosition;
+            channel.force(false);
+            syncedPosition = target;
+        }
+    }
+
+    private void syncQuietly(){
+        try {
+            sync();
+        }catch (IOException exception){
+            exception.printStackTrace();
+        }
+    }
+
+    /**
+     * Назначением функции является замена текущего файла журнала новым. Текущий файл становится
+     * сворачиваемым журналом, вхождения которого будут включены в следующий снимок словаря.
+     */
+    private void rotate() throws IOException {
+        appendLock.lock();
+        try {
+            synchronized (syncMonitor){
+                channel.force(false);
+                channel.close();
+                Files.move(journalFile.toPath(), compactingJournalFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                channel = openChannel();
+                generation++;
+                writtenPosition = 0;
+                syncedPosition = 0;
+            }
+        }finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Назначением функции является открытие файла журнала для дописывания. Неполное вхождение в конце
+     * файла, оставшееся после аварийного завершения, отбрасывается.
+     */
+    private FileChannel openChannel() throws IOException {
+        long validLength = journalFile.exists() ? readEntries(journalFile, entry -> {}) : 0;
+        FileChannel fileChannel = FileChannel.open(journalFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        fileChannel.truncate(validLength);
+        fileChannel.position(validLength);
+        writtenPosition = validLength;
+        syncedPosition = validLength;
+        return fileChannel;
+    }
+}
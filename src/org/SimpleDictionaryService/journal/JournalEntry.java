@@ -0,0 +1,57 @@
+package org.SimpleDictionaryService.journal;
+
+import org.SimpleDictionaryService.DictionaryRecord;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель вхождения журнала изменений словаря.
+ * Вхождение описывает результат изменения, а не саму операцию, поэтому повторное применение
+ * вхождений журнала к любому промежуточному состоянию словаря приводит к одному и тому же результату.
+ */
+public class JournalEntry {
+
+    /**
+     * Перечисление типов вхождений журнала.
+     */
+    public enum Type {
+        PUT,
+        REMOVE
+    }
+
+    private final Type type;
+
+    private final String key;
+
+    /**
+     * Новое значение записи, null для вхождений типа REMOVE.
+     */
+    private final String word;
+
+    private JournalEntry(Type type, String key, String word){
+        this.type = type;
+        this.key = key;
+        this.word = word;
+    }
+
+    public static JournalEntry put(DictionaryRecord record){
+        return new JournalEntry(Type.PUT, record.getKey(), record.getWord());
+    }
+
+    public static JournalEntry remove(String key){
+        return new JournalEntry(Type.REMOVE, key, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getWord() {
+        return word;
+    }
+}
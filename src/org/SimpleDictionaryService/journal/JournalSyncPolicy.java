@@ -0,0 +1,24 @@
+package org.SimpleDictionaryService.journal;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Перечисление политик принудительной записи журнала изменений на диск.
+ */
+public enum JournalSyncPolicy {
+    /**
+     * Каждая операция дожидается записи своего вхождения на диск и выполняет собственное обращение к диску,
+     * даже если ее вхождение уже записано обращением другой операции.
+     */
+    PER_OPERATION,
+    /**
+     * Каждая операция дожидается записи своего вхождения на диск, при этом вхождения
+     * одновременно выполняющихся операций записываются одним обращением к диску.
+     */
+    GROUPED,
+    /**
+     * Вхождения записываются на диск периодически, операции не дожидаются записи.
+     */
+    PERIODIC
+}
@@ -2,6 +2,8 @@ package org.SimpleDictionaryService.language;
 
 import org.SimpleEncodings.Encoding;
 
+import java.util.Arrays;
+
 /**
  * @author Savchenko Kirill
  * @version 1.0
@@ -20,7 +22,47 @@ public class EncodingIntervalTable {
     /**
      * Массив интервалов, описывающих расположение символов языка в символьной таблице целевой кодировки.
      */
-    private int[][] intervals;
+    private volatile int[][] intervals;
+
+    /**
+     * Количество кодов базовой многоязычной плоскости, принадлежность которых хранится в битовом множестве.
+     */
+    private static final int BMP_SIZE = 0x10000;
+
+    /**
+     * Структуры быстрой проверки принадлежности кодов таблице. Строятся при первом обращении и публикуются
+     * одной записью, поэтому contains не может наблюдать битовое множество и интервалы разных построений.
+     */
+    private volatile Lookup lookup;
+
+    /**
+     * Класс, являющий собой модель неизменяемых структур быстрой проверки принадлежности кодов таблице,
+     * построенных по одному массиву интервалов.
+     */
+    private static final class Lookup {
+
+        /**
+         * Массив интервалов, по которому построены структуры.
+         */
+        private final int[][] source;
+
+        /**
+         * Битовое множество кодов базовой многоязычной плоскости, принадлежащих таблице, включая служебные
+         * символы ASCII.
+         */
+        private final long[] bmpMembership;
+
+        /**
+         * Отсортированные и объединенные интервалы таблицы для кодов за пределами базовой многоязычной плоскости.
+         */
+        private final int[][] sortedIntervals;
+
+        private Lookup(int[][] source, long[] bmpMembership, int[][] sortedIntervals){
+            this.source = source;
+            this.bmpMembership = bmpMembership;
+            this.sortedIntervals = sortedIntervals;
+        }
+    }
 
     public EncodingIntervalTable(Encoding encoding, int[]... intervals){
         this.encoding = encoding;
@@ -45,5 +87,74 @@ public class EncodingIntervalTable {
 
     public void setIntervals(int[][] intervals) {
         this.intervals = intervals;
+        this.lookup = null;
+    }
+
+    /**
+     * Назначением функции является определение, принадлежит ли код символа данной таблице. Код принадлежит
+     * таблице, если он входит в один из интервалов или является кодом служебного символа ASCII.
+     * Для кодов базовой многоязычной плоскости проверка выполняется за O(1) по битовому множеству,
+     * для остальных кодов - двоичным поиском по отсортированным интервалам.
+     * @param code
+     * Код символа.
+     * @return
+     * true, если код принадлежит таблице, в противном случае false.
+     */
+    public boolean contains(int code){
+        Lookup current = lookup;
+        if (current == null || current.source != intervals){
+            current = compile();
+        }
+        if (code >= 0 && code < BMP_SIZE){
+            return (current.bmpMembership[code >>> 6] & (1L << code)) != 0;
+        }
+        int[][] ranges = current.sortedIntervals;
+        int low = 0, high = ranges.length - 1;
+        while (low <= high){
+            int middle = (low + high) >>> 1;
+            if (code < ranges[middle][0]){
+                high = middle - 1;
+            }else if (code > ranges[middle][1]){
+                low = middle + 1;
+            }else {
+                return true;
+            }
+        }
+        return ranges.length > 0 && Encoding.isASCIIServiceSymbolCode(code);
+    }
+
+    /**
+     * Назначением функции является построение и публикация структур быстрой проверки принадлежности кодов
+     * таблице по текущему массиву интервалов. Структуры, построенные по замененному массиву, будут построены
+     * заново при следующем обращении.
+     */
+    private Lookup compile(){
+        int[][] source = intervals;
+        int[][] sorted = source == null ? new int[0][] : source.clone();
+        Arrays.sort(sorted, (first, second) -> Integer.compare(first[0], second[0]));
+        int count = 0;
+        for (int[] interval : sorted) {
+            if (count > 0 && interval[0] <= sorted[count - 1][1] + 1){
+                sorted[count - 1] = new int[]{sorted[count - 1][0], Math.max(sorted[count - 1][1], interval[1])};
+            }else {
+                sorted[count++] = interval;
+            }
+        }
+        long[] membership = new long[BMP_SIZE / 64];
+        if (count > 0){
+            for (int counter = 0; counter < count; counter++) {
+                for (int code = Math.max(0, sorted[counter][0]); code <= Math.min(BMP_SIZE - 1, sorted[counter][1]); code++) {
+                    membership[code >>> 6] |= 1L << code;
+                }
+            }
+            for (int code = 0; code < BMP_SIZE; code++) {
+                if (Encoding.isASCIIServiceSymbolCode(code)){
+                    membership[code >>> 6] |= 1L << code;
+                }
+            }
+        }
+        Lookup compiled = new Lookup(source, membership, Arrays.copyOf(sorted, count));
+        lookup = compiled;
+        return compiled;
     }
 }
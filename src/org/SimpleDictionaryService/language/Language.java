@@ -4,6 +4,7 @@ import org.SimpleEncodings.Encoding;
 import org.SimpleEncodings.Symbol;
 
 import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * @author Savchenko Kirill
@@ -129,17 +130,12 @@ public class Language {
         if (symbolEncodingIntervalTable == EncodingIntervalTable.UNDEFINED_INTERVAL_TABLE){
             return false;
         }
-        int symbolNumericEquivalent = symbolEncoding.getSymbolValuablePart(symbol);
-        for (int[] currentInterval : symbolEncodingIntervalTable.getIntervals()) {
-            if ( (symbolNumericEquivalent >= currentInterval[0] && symbolNumericEquivalent <= currentInterval[1]) || Encoding.isASCIIServiceSymbolCode(symbolNumericEquivalent)){
-                return true;
-            }
-        }
-        return false;
+        return symbolEncodingIntervalTable.contains(symbolEncoding.getSymbolValuablePart(symbol));
     }
 
     /**
      * Назначением функции является просчет количества соответствующих вхождений строки - аргумента данному языку.
+     * Каждый символ учитывается не более одного раза, служебные символы ASCII считаются соответствующими языку.
      * @param strArg
      * Строка - аргумент.
      * @param encoding
@@ -154,10 +150,8 @@ public class Language {
         }
         int count = 0;
         for (int counter = 0; counter < strArg.length(); counter++) {
-            for (int[] currentInterval : symbolEncodingIntervalTable.getIntervals()) {
-                if ( ((int)strArg.charAt(counter) >= currentInterval[0] && (int)strArg.charAt(counter) <= currentInterval[1]) || Encoding.isASCIIServiceSymbolCode((int)strArg.charAt(counter))){
-                    count++;
-                }
+            if (symbolEncodingIntervalTable.contains(strArg.charAt(counter))){
+                count++;
             }
         }
         return count;
@@ -168,6 +162,19 @@ public class Language {
         return UNKNOWN_LANGUAGE;
     }
 
+    /**
+     * @return
+     * Имя стандартного языка, пустая строка если язык не является стандартным.
+     */
+    public static String getLanguageName(Language language){
+        for (Map.Entry<String, Language> description : stdLanguageDescriptions.entrySet()) {
+            if (description.getValue() == language){
+                return description.getKey();
+            }
+        }
+        return "";
+    }
+
     public void setIntervalTables(EncodingIntervalTable[] intervalTables) {
         this.intervalTables = intervalTables;
     }
@@ -0,0 +1,180 @@
+package org.SimpleDictionaryService.language;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.DictionaryRecord;
+import org.SimpleDictionaryService.io.LoadStatistics;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель счетчиков соответствия ключей и значений записей языкам словаря, которые
+ * поддерживаются при каждом изменении словаря. Изменение записи обновляет счетчики за время, пропорциональное
+ * длине ее ключа и значений, поэтому доли соответствия языкам всегда актуальны без повторной проверки словаря.
+ */
+public class LanguageStatistics {
+
+    private long recordsCount;
+
+    private long keySymbolsCount;
+
+    private long keySymbolsLanguageMatches;
+
+    private long wordSymbolsCount;
+
+    private long wordSymbolsLanguageMatches;
+
+    /**
+     * Назначением функции является обнуление счетчиков перед загрузкой словаря.
+     */
+    public synchronized void reset(){
+        apply(-recordsCount, -keySymbolsCount, -keySymbolsLanguageMatches, -wordSymbolsCount, -wordSymbolsLanguageMatches);
+    }
+
+    /**
+     * Назначением функции является учет результатов загрузки словаря.
+     */
+    public synchronized void add(LoadStatistics statistics){
+        apply(statistics.getRecordsCount(), statistics.getKeySymbolsCount(), statistics.getKeySymbolsLanguageMatches(),
+                statistics.getWordSymbolsCount(), statistics.getWordSymbolsLanguageMatches());
+    }
+
+    /**
+     * Назначением функции является учет замены записи.
+     * @param previous
+     * Оценка записи до изменения, null если запись добавлена.
+     * @param current
+     * Оценка записи после изменения, null если запись удалена.
+     */
+    public synchronized void recordChanged(Score previous, Score current){
+        if (previous != null){
+            apply(-1, -previous.keyLength, -previous.keyMatches, -previous.wordLength, -previous.wordMatches);
+        }
+        if (current != null){
+            apply(1, current.keyLength, current.keyMatches, current.wordLength, current.wordMatches);
+        }
+    }
+
+    /**
+     * Назначением функции является учет замены записи, если после нее доли соответствия языкам словаря
+     * не опустятся ниже минимальных. Проверка и учет выполняются атомарно.
+     * @return
+     * Признак того, что замена учтена.
+     * @see #recordChanged(Score, Score)
+     */
+    public synchronized boolean recordChangedIfRatiosKept(Score previous, Score current){
+        LanguageStatistics delta = new LanguageStatistics();
+        delta.recordChanged(previous, current);
+        if (!keepsRatios(delta)){
+            return false;
+        }
+        recordChanged(previous, current);
+        return true;
+    }
+
+    /**
+     * Назначением функции является проверка того, что после применения разности счетчиков доли соответствия
+     * языкам словаря не опустятся ниже минимальных. Доля, которая уже ниже минимальной, может расти.
+     * @param delta
+     * Разность счетчиков, например накопленная по пакету операций.
+     */
+    public synchronized boolean keepsRatios(LanguageStatistics delta){
+        return keepsRatio(keySymbolsLanguageMatches, keySymbolsCount, delta.keySymbolsLanguageMatches, delta.keySymbolsCount, Dictionary.KEY_LANGUAGE_MINIMAL_RATIO)
+                && keepsRatio(wordSymbolsLanguageMatches, wordSymbolsCount, delta.wordSymbolsLanguageMatches, delta.wordSymbolsCount, Dictionary.WORD_LANGUAGE_MINIMAL_RATIO);
+    }
+
+    private static boolean keepsRatio(long matches, long symbols, long deltaMatches, long deltaSymbols, double minimalRatio){
+        double ratio = ratio(matches + deltaMatches, symbols + deltaSymbols);
+        return !(ratio < minimalRatio) || ratio >= ratio(matches, symbols);
+    }
+
+    private void apply(long records, long keySymbols, long keyMatches, long wordSymbols, long wordMatches){
+        recordsCount += records;
+        keySymbolsCount += keySymbols;
+        keySymbolsLanguageMatches += keyMatches;
+        wordSymbolsCount += wordSymbols;
+        wordSymbolsLanguageMatches += wordMatches;
+    }
+
+    public synchronized double getKeyLanguageRatio(){
+        return ratio(keySymbolsLanguageMatches, keySymbolsCount);
+    }
+
+    public synchronized double getWordLanguageRatio(){
+        return ratio(wordSymbolsLanguageMatches, wordSymbolsCount);
+    }
+
+    public synchronized long getRecordsCount() {
+        return recordsCount;
+    }
+
+    /**
+     * @return
+     * Копия текущих значений счетчиков.
+     */
+    public synchronized LoadStatistics toLoadStatistics(){
+        return new LoadStatistics(recordsCount, keySymbolsCount, keySymbolsLanguageMatches, wordSymbolsCount, wordSymbolsLanguageMatches);
+    }
+
+    /**
+     * @return
+     * Доля соответствующих символов, NaN при отсутствии символов, что не считается нарушением.
+     */
+    private static double ratio(long matches, long symbols){
+        return (double) matches / symbols;
+    }
+
+    /**
+     * Класс, являющий собой модель оценки соответствия одной записи языкам словаря.
+     */
+    public static final class Score {
+
+        private final int keyLength;
+
+        private final int keyMatches;
+
+        private final int wordLength;
+
+        private final int wordMatches;
+
+        public Score(int keyLength, int keyMatches, int wordLength, int wordMatches){
+            this.keyLength = keyLength;
+            this.keyMatches = keyMatches;
+            this.wordLength = wordLength;
+            this.wordMatches = wordMatches;
+        }
+
+        /**
+         * Назначением функции является оценка записи за время, пропорциональное длине ее ключа и значения.
+         */
+        public static Score of(DictionaryRecord record, Dictionary dictionary){
+            return new Score(
+                    record.getKey().length(), dictionary.getKeyLanguage().countOfMatches(record.getKey(), dictionary.getEncoding()),
+                    record.getWord().length(), dictionary.getWordLanguage().countOfMatches(record.getWord(), dictionary.getEncoding()));
+        }
+
+        public boolean isKeyValid(){
+            return !(ratio(keyMatches, keyLength) < Dictionary.KEY_LANGUAGE_MINIMAL_RATIO);
+        }
+
+        public boolean isWordValid(){
+            return !(ratio(wordMatches, wordLength) < Dictionary.WORD_LANGUAGE_MINIMAL_RATIO);
+        }
+
+        public int getKeyLength() {
+            return keyLength;
+        }
+
+        public int getKeyMatches() {
+            return keyMatches;
+        }
+
+        public int getWordLength() {
+            return wordLength;
+        }
+
+        public int getWordMatches() {
+            return wordMatches;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.SimpleDictionaryService.language;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Перечисление, являющее собой модель политики проверки соответствия изменяемых записей языкам словаря.
+ */
+public enum LanguageValidationPolicy {
+
+    /**
+     * Записи не проверяются, счетчики соответствия только обновляются.
+     */
+    ACCEPT_ALL,
+
+    /**
+     * Отклоняется запись, доля символов ключа или значения которой, соответствующих языку, меньше
+     * Dictionary.KEY_LANGUAGE_MINIMAL_RATIO или Dictionary.WORD_LANGUAGE_MINIMAL_RATIO соответственно.
+     */
+    REJECT_RECORD,
+
+    /**
+     * Отклоняется изменение, после которого доля соответствующих языку символов всего словаря стала бы меньше
+     * минимальной. Отдельные записи на другом языке допускаются, пока словарь в целом соответствует языкам.
+     */
+    REJECT_RATIO_DROP
+}
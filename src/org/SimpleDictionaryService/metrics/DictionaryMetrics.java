@@ -0,0 +1,226 @@
+package org.SimpleDictionaryService.metrics;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.DictionaryService;
+import org.SimpleDictionaryService.io.LoadPhase;
+import org.SimpleDictionaryService.io.LoadStatistics;
+import org.SimpleDictionaryService.store.DiskRecordStore;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель встроенного получателя измерений сервиса словарей: счетчики и гистограммы
+ * длительностей операций, объем и длительность записи словаря. Результаты последней загрузки, состояние кеша,
+ * индексов и соответствия языкам читаются у сервиса при запросе. Измерения публикуются через JMX функцией
+ * registerMBean.
+ */
+public class DictionaryMetrics implements DictionaryMetricsListener, DictionaryMetricsMXBean {
+
+    public static final String OBJECT_NAME_DOMAIN = "org.SimpleDictionaryService";
+
+    private final DictionaryService service;
+
+    private final Map<ServiceOperation, LatencyHistogram> histograms = new EnumMap<>(ServiceOperation.class);
+
+    private final LongAdder errorsCount = new LongAdder();
+
+    private final LongAdder persistCount = new LongAdder();
+
+    private final LongAdder persistedBytes = new LongAdder();
+
+    private volatile long lastPersistNanos;
+
+    /**
+     * Имя, под которым измерения зарегистрированы в JMX, null если они не зарегистрированы.
+     */
+    private ObjectName objectName;
+
+    public DictionaryMetrics(DictionaryService service){
+        this.service = service;
+        for (ServiceOperation operation : ServiceOperation.values()) {
+            histograms.put(operation, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Назначением функции является создание измерений и установка их получателем измерений сервиса.
+     */
+    public static DictionaryMetrics attach(DictionaryService service){
+        DictionaryMetrics metrics = new DictionaryMetrics(service);
+        service.setMetricsListener(metrics);
+        return metrics;
+    }
+
+    @Override
+    public void operationCompleted(ServiceOperation operation, long nanos) {
+        histograms.get(operation).record(nanos);
+    }
+
+    @Override
+    public void loadCompleted(Dictionary dictionary, LoadStatistics statistics, long nanos) {
+        histograms.get(ServiceOperation.LOAD).record(nanos);
+    }
+
+    @Override
+    public void persistCompleted(Dictionary dictionary, long bytes, long nanos) {
+        histograms.get(ServiceOperation.PERSIST).record(nanos);
+        persistCount.increment();
+        persistedBytes.add(bytes);
+        lastPersistNanos = nanos;
+    }
+
+    @Override
+    public void errorOccurred(Exception exception) {
+        errorsCount.increment();
+    }
+
+    /**
+     * Назначением функции является регистрация измерений в платформенном MBeanServer под именем
+     * "org.SimpleDictionaryService:type=DictionaryService,name=&lt;имя файла - словаря&gt;".
+     */
+    public synchronized void registerMBean() throws JMException {
+        if (objectName != null){
+            return;
+        }
+        ObjectName name = ObjectName.getInstance(OBJECT_NAME_DOMAIN + ":type=DictionaryService,name=" + ObjectName.quote(getDictionaryName()));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+        objectName = name;
+    }
+
+    public synchronized void unregisterMBean() throws JMException {
+        if (objectName == null){
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (server.isRegistered(objectName)){
+            server.unregisterMBean(objectName);
+        }
+        objectName = null;
+    }
+
+    public LatencyHistogram getHistogram(ServiceOperation operation){
+        return histograms.get(operation);
+    }
+
+    @Override
+    public String getDictionaryName() {
+        Dictionary dictionary = service.getCurrentDictionary();
+        return dictionary == null ? "" : dictionary.getName();
+    }
+
+    @Override
+    public long getRecordsCount() {
+        return service.getRecordStore().size();
+    }
+
+    @Override
+    public Map<String, OperationStatistics> getOperations() {
+        Map<String, OperationStatistics> operations = new LinkedHashMap<>();
+        for (Map.Entry<ServiceOperation, LatencyHistogram> entry : histograms.entrySet()) {
+            if (entry.getValue().getCount() > 0){
+                operations.put(entry.getKey().name(), new OperationStatistics(entry.getValue()));
+            }
+        }
+        return operations;
+    }
+
+    @Override
+    public long getErrorsCount() {
+        return errorsCount.sum();
+    }
+
+    @Override
+    public long getPersistCount() {
+        return persistCount.sum();
+    }
+
+    @Override
+    public long getPersistedBytes() {
+        return persistedBytes.sum();
+    }
+
+    @Override
+    public double getLastPersistMillis() {
+        return lastPersistNanos / 1e6;
+    }
+
+    @Override
+    public long getLoadedBytes() {
+        LoadStatistics statistics = service.getLastLoadStatistics();
+        return statistics == null ? 0 : statistics.getBytesCount();
+    }
+
+    @Override
+    public double getLastLoadMillis() {
+        return service.getLastLoadNanos() / 1e6;
+    }
+
+    @Override
+    public Map<String, Double> getLastLoadPhaseMillis() {
+        Map<String, Double> phases = new LinkedHashMap<>();
+        LoadStatistics statistics = service.getLastLoadStatistics();
+        if (statistics != null){
+            for (LoadPhase phase : LoadPhase.values()) {
+                phases.put(phase.name(), statistics.getPhaseNanos(phase) / 1e6);
+            }
+        }
+        return phases;
+    }
+
+    @Override
+    public double getCacheHitRatio() {
+        return service.getRecordStore() instanceof DiskRecordStore
+                ? ((DiskRecordStore) service.getRecordStore()).getCache().getHitRatio()
+                : Double.NaN;
+    }
+
+    @Override
+    public long getCacheEvictionsCount() {
+        return service.getRecordStore() instanceof DiskRecordStore
+                ? ((DiskRecordStore) service.getRecordStore()).getCache().getEvictionCount()
+                : 0;
+    }
+
+    @Override
+    public int getWordIndexSize() {
+        return service.getWordIndexSize();
+    }
+
+    @Override
+    public double getKeyLanguageRatio() {
+        return service.getKeyLanguageRatio();
+    }
+
+    @Override
+    public double getWordLanguageRatio() {
+        return service.getWordLanguageRatio();
+    }
+
+    @Override
+    public long getRejectedChangesCount() {
+        return service.getRejectedChangesCount();
+    }
+
+    @Override
+    public void resetStatistics() {
+        for (LatencyHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+        errorsCount.reset();
+        persistCount.reset();
+        persistedBytes.reset();
+        if (service.getRecordStore() instanceof DiskRecordStore){
+            ((DiskRecordStore) service.getRecordStore()).getCache().resetCounters();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.SimpleDictionaryService.metrics;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.io.LoadStatistics;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Интерфейс, являющий собой модель получателя измерений сервиса словарей. Функции вызываются в потоке,
+ * выполнившем операцию, поэтому должны быть быстрыми и потокобезопасными. Пока получатель не установлен,
+ * сервис не измеряет время операций.
+ */
+public interface DictionaryMetricsListener {
+
+    /**
+     * Назначением функции является получение длительности завершенной операции.
+     * @param operation
+     * Тип операции.
+     * @param nanos
+     * Длительность операции в наносекундах.
+     */
+    default void operationCompleted(ServiceOperation operation, long nanos){
+
+    }
+
+    /**
+     * Назначением функции является получение результатов загрузки словаря.
+     * @param statistics
+     * Счетчики загрузчика, в том числе время этапов загрузки, если словарь загружался из файла - словаря.
+     * @param nanos
+     * Общая длительность выбора словаря, включая применение журналов изменений и построение индексов.
+     */
+    default void loadCompleted(Dictionary dictionary, LoadStatistics statistics, long nanos){
+
+    }
+
+    /**
+     * Назначением функции является получение результатов записи словаря на диск.
+     * @param bytes
+     * Количество записанных байтов.
+     */
+    default void persistCompleted(Dictionary dictionary, long bytes, long nanos){
+
+    }
+
+    /**
+     * Назначением функции является получение ошибки, которая была выведена сервисом в стандартный поток ошибок.
+     */
+    default void errorOccurred(Exception exception){
+
+    }
+}
@@ -0,0 +1,62 @@
+package org.SimpleDictionaryService.metrics;
+
+import java.util.Map;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Интерфейс, являющий собой модель измерений сервиса словарей, доступных через JMX.
+ */
+public interface DictionaryMetricsMXBean {
+
+    String getDictionaryName();
+
+    long getRecordsCount();
+
+    /**
+     * @return
+     * Измерения операций по именам ServiceOperation, только для операций, которые выполнялись.
+     */
+    Map<String, OperationStatistics> getOperations();
+
+    long getErrorsCount();
+
+    long getPersistCount();
+
+    long getPersistedBytes();
+
+    double getLastPersistMillis();
+
+    long getLoadedBytes();
+
+    double getLastLoadMillis();
+
+    /**
+     * @return
+     * Время этапов последней загрузки из файла - словаря в миллисекундах по именам LoadPhase.
+     */
+    Map<String, Double> getLastLoadPhaseMillis();
+
+    /**
+     * @return
+     * Доля попаданий в кеш записей хранилища, NaN если хранилище не использует кеш.
+     */
+    double getCacheHitRatio();
+
+    long getCacheEvictionsCount();
+
+    /**
+     * @return
+     * Количество различных значений в обратном индексе, -1 если индекс не построен.
+     */
+    int getWordIndexSize();
+
+    double getKeyLanguageRatio();
+
+    double getWordLanguageRatio();
+
+    long getRejectedChangesCount();
+
+    void resetStatistics();
+}
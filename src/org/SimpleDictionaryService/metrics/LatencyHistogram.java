@@ -0,0 +1,123 @@
+package org.SimpleDictionaryService.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель потокобезопасной гистограммы длительностей с логарифмическими интервалами.
+ * Каждая степень двойки делится на SUB_BUCKETS_COUNT равных интервалов, поэтому относительная погрешность
+ * значений не превышает 1 / SUB_BUCKETS_COUNT, а объем памяти не зависит от количества измерений.
+ */
+public class LatencyHistogram {
+
+    public static final int SUB_BUCKETS_COUNT = 16;
+
+    private static final int SUB_BUCKET_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS_COUNT);
+
+    private static final int BUCKETS_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS_COUNT);
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * Назначением функции является учет очередного измерения.
+     * @param value
+     * Длительность в наносекундах, отрицательные значения считаются нулевыми.
+     */
+    public void record(long value){
+        value = Math.max(0, value);
+        counts.incrementAndGet(bucketOf(value));
+        count.increment();
+        sum.add(value);
+    }
+
+    public long getCount(){
+        return count.sum();
+    }
+
+    public long getSum(){
+        return sum.sum();
+    }
+
+    public double getMean(){
+        long currentCount = count.sum();
+        return currentCount == 0 ? 0 : (double) sum.sum() / currentCount;
+    }
+
+    /**
+     * @param percentile
+     * Процентиль от 0 до 100.
+     * @return
+     * Наибольшее значение интервала, в который попадает процентиль, 0 если измерений не было.
+     */
+    public long getPercentile(double percentile){
+        long[] snapshot = new long[BUCKETS_COUNT];
+        long total = 0;
+        for (int bucket = 0; bucket < BUCKETS_COUNT; bucket++) {
+            snapshot[bucket] = counts.get(bucket);
+            total += snapshot[bucket];
+        }
+        if (total == 0){
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS_COUNT; bucket++) {
+            seen += snapshot[bucket];
+            if (seen >= rank){
+                return highestValueOf(bucket);
+            }
+        }
+        return highestValueOf(BUCKETS_COUNT - 1);
+    }
+
+    /**
+     * @return
+     * Наибольшее значение интервала наибольшего измерения, 0 если измерений не было.
+     */
+    public long getMax(){
+        for (int bucket = BUCKETS_COUNT - 1; bucket >= 0; bucket--) {
+            if (counts.get(bucket) > 0){
+                return highestValueOf(bucket);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Назначением функции является обнуление гистограммы. Измерения, выполняемые одновременно с обнулением,
+     * могут быть учтены частично.
+     */
+    public void reset(){
+        for (int bucket = 0; bucket < BUCKETS_COUNT; bucket++) {
+            counts.set(bucket, 0);
+        }
+        count.reset();
+        sum.reset();
+    }
+
+    static int bucketOf(long value){
+        if (value < SUB_BUCKETS_COUNT){
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS_COUNT + subBucket;
+    }
+
+    static long highestValueOf(int bucket){
+        if (bucket < SUB_BUCKETS_COUNT){
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS_COUNT + SUB_BUCKET_BITS - 1;
+        long lowest = (long) (SUB_BUCKETS_COUNT + bucket % SUB_BUCKETS_COUNT) << (exponent - SUB_BUCKET_BITS);
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return lowest + width - 1 < 0 ? Long.MAX_VALUE : lowest + width - 1;
+    }
+}
@@ -0,0 +1,60 @@
+package org.SimpleDictionaryService.metrics;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель снимка измерений одного типа операций в микросекундах.
+ */
+public class OperationStatistics {
+
+    private final long count;
+
+    private final double meanMicros;
+
+    private final double p50Micros;
+
+    private final double p99Micros;
+
+    private final double p999Micros;
+
+    private final double maxMicros;
+
+    public OperationStatistics(LatencyHistogram histogram){
+        this.count = histogram.getCount();
+        this.meanMicros = histogram.getMean() / 1000;
+        this.p50Micros = histogram.getPercentile(50) / 1000.0;
+        this.p99Micros = histogram.getPercentile(99) / 1000.0;
+        this.p999Micros = histogram.getPercentile(99.9) / 1000.0;
+        this.maxMicros = histogram.getMax() / 1000.0;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanMicros() {
+        return meanMicros;
+    }
+
+    public double getP50Micros() {
+        return p50Micros;
+    }
+
+    public double getP99Micros() {
+        return p99Micros;
+    }
+
+    public double getP999Micros() {
+        return p999Micros;
+    }
+
+    public double getMaxMicros() {
+        return maxMicros;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%.1fus p50=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus", count, meanMicros, p50Micros, p99Micros, p999Micros, maxMicros);
+    }
+}
@@ -0,0 +1,47 @@
+package org.SimpleDictionaryService.metrics;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Перечисление, являющее собой модель операций сервиса словарей, время выполнения которых измеряется.
+ */
+public enum ServiceOperation {
+
+    READ,
+
+    READ_BATCH,
+
+    CREATE,
+
+    UPDATE,
+
+    DELETE,
+
+    APPLY_OPERATIONS,
+
+    /**
+     * Поиск по префиксу, диапазону, значению или похожим ключам.
+     */
+    QUERY,
+
+    /**
+     * Завершение изменения: запись в журнал изменений или сохранение словаря в зависимости от типа выполнения операций.
+     */
+    FINALIZE,
+
+    /**
+     * Запись словаря на диск целиком.
+     */
+    PERSIST,
+
+    /**
+     * Загрузка словаря при его выборе.
+     */
+    LOAD,
+
+    /**
+     * Применение изменений файла - словаря, сделанных вне сервиса.
+     */
+    APPLY_FILE_CHANGES
+}
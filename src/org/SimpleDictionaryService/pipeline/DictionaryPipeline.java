@@ -0,0 +1,560 @@
+package org.SimpleDictionaryService.pipeline;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.DictionaryOperation;
+import org.SimpleDictionaryService.DictionaryRecord;
+import org.SimpleDictionaryService.io.CodeUnits;
+import org.SimpleDictionaryService.io.DictionaryReader;
+import org.SimpleDictionaryService.io.DictionaryWriter;
+import org.SimpleDictionaryService.io.EncodingDetector;
+import org.SimpleDictionaryService.io.LineTokenizer;
+import org.SimpleDictionaryService.io.MalformedLineHandler;
+import org.SimpleDictionaryService.throwable.KeyConflictException;
+import org.SimpleEncodings.throwable.WrongEncodingException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель потоковых преобразований файлов - словарей: преобразования кодировки
+ * и разделителя, объединения, сравнения и распределения по нескольким словарям. Записи читаются DictionaryReader
+ * и пишутся DictionaryWriter по мере обработки, объединение и сравнение используют внешнюю сортировку, поэтому
+ * словари могут быть больше доступной памяти. Результат записывается атомарно, поэтому файл - результат может
+ * совпадать с одним из исходных файлов.
+ */
+public final class DictionaryPipeline {
+
+    /**
+     * Размер части файла, разбираемой за один раз при сравнении по строкам.
+     */
+    private static final int LINE_DIFF_WINDOW_SIZE = 8 * 1024 * 1024;
+
+    private DictionaryPipeline(){
+
+    }
+
+    /**
+     * Назначением функции является запись записей исходного словаря в словарь с другими кодировкой или разделителем.
+     * Записи, ключ которых содержит разделитель результата, пропускаются, так как нарушили бы формат файла - словаря.
+     * @return
+     * Количество записанных записей.
+     */
+    public static long convert(Dictionary source, Dictionary target) throws IOException {
+        try (DictionaryReader reader = new DictionaryReader(source)) {
+            CountingRecords records = new CountingRecords(reader, target.getSeparator());
+            new DictionaryWriter().write(target, records);
+            return records.count;
+        }
+    }
+
+    /**
+     * Назначением функции является объединение словарей в словарь, записи которого упорядочены по ключу.
+     * Объединение одного словаря сортирует его и удаляет повторяющиеся ключи.
+     * @param target
+     * Словарь - результат, определяющий файл, кодировку и разделитель.
+     * @param policy
+     * Политика выбора записи при совпадении ключей.
+     * @param sorter
+     * Внешняя сортировка, определяющая ограничение памяти и каталог временных файлов.
+     * @param sources
+     * Объединяемые словари в порядке, учитываемом политикой.
+     * @return
+     * Количество записанных записей.
+     */
+    public static long merge(Dictionary target, KeyConflictPolicy policy, ExternalSorter sorter, Dictionary... sources) throws IOException, KeyConflictException {
+        try (ConcatenatedRecords concatenated = new ConcatenatedRecords(Arrays.asList(sources));
+             ExternalSorter.SortedRecords sorted = sorter.sort(concatenated)) {
+            CountingRecords records = new CountingRecords(new DistinctRecords(sorted, policy), target.getSeparator());
+            new DictionaryWriter().write(target, records);
+            return records.count;
+        }catch (ConflictException exception){
+            throw exception.conflict;
+        }
+    }
+
+    public static long merge(Dictionary target, KeyConflictPolicy policy, Dictionary... sources) throws IOException, KeyConflictException {
+        return merge(target, policy, new ExternalSorter(), sources);
+    }
+
+    /**
+     * Назначением функции является вычисление операций, переводящих один словарь в другой. Как и при загрузке
+     * словаря, из повторяющихся ключей учитывается первая запись.
+     * @param from
+     * Исходный словарь.
+     * @param to
+     * Целевой словарь.
+     * @param consumer
+     * Функция, получающая операции в порядке возрастания ключей.
+     * @return
+     * Количество операций.
+     */
+    public static long diff(Dictionary from, Dictionary to, ExternalSorter sorter, Consumer<DictionaryOperation> consumer) throws IOException {
+        try (DictionaryReader fromReader = new DictionaryReader(from);
+             DictionaryReader toReader = new DictionaryReader(to);
+             ExternalSorter.SortedRecords fromSorted = sorter.sort(fromReader);
+             ExternalSorter.SortedRecords toSorted = sorter.sort(toReader)) {
+            DistinctRecords fromRecords = new DistinctRecords(fromSorted, KeyConflictPolicy.KEEP_FIRST);
+            DistinctRecords toRecords = new DistinctRecords(toSorted, KeyConflictPolicy.KEEP_FIRST);
+            DictionaryRecord fromRecord = fromRecords.hasNext() ? fromRecords.next() : null;
+            DictionaryRecord toRecord = toRecords.hasNext() ? toRecords.next() : null;
+            long count = 0;
+            while (fromRecord != null || toRecord != null){
+                int order = fromRecord == null ? 1 : toRecord == null ? -1 : fromRecord.getKey().compareTo(toRecord.getKey());
+                if (order < 0){
+                    consumer.accept(DictionaryOperation.delete(fromRecord.getKey()));
+                    count++;
+                }else if (order > 0){
+                    consumer.accept(DictionaryOperation.create(toRecord));
+                    count++;
+                }else if (!fromRecord.getWord().equals(toRecord.getWord())){
+                    consumer.accept(DictionaryOperation.update(toRecord.getKey(), toRecord.getWord()));
+                    count++;
+                }
+                if (order <= 0){
+                    fromRecord = fromRecords.hasNext() ? fromRecords.next() : null;
+                }
+                if (order >= 0){
+                    toRecord = toRecords.hasNext() ? toRecords.next() : null;
+                }
+            }
+            return count;
+        }catch (UncheckedIOException exception){
+            throw exception.getCause();
+        }
+    }
+
+    public static long diff(Dictionary from, Dictionary to, Consumer<DictionaryOperation> consumer) throws IOException {
+        return diff(from, to, new ExternalSorter(), consumer);
+    }
+
+    /**
+     * Назначением функции является вычисление операций, переводящих один словарь в другой, для словарей, которые
+     * отличаются небольшим участком строк, например двух версий одного файла - словаря. Общие начало и конец файлов
+     * находятся сравнением байтов, записи разбираются только в различающемся участке, а общие начало и конец
+     * просматриваются лишь для учета повторяющихся ключей, поэтому операции совпадают с операциями diff.
+     * Если различающийся участок больше четверти ограничения памяти внешней сортировки, файлы больше 2 ГБ,
+     * или словари отличаются кодировкой, разделителем или меткой порядка байтов, выполняется diff.
+     * @param consumer
+     * Функция, получающая операции в порядке следования ключей в различающемся участке.
+     * @return
+     * Количество операций.
+     */
+    public static long lineDiff(Dictionary from, Dictionary to, ExternalSorter sorter, Consumer<DictionaryOperation> consumer) throws IOException {
+        if (from.getEncoding() != to.getEncoding() || !from.getSeparator().equals(to.getSeparator())){
+            return diff(from, to, sorter, consumer);
+        }
+        try (FileChannel fromChannel = FileChannel.open(from.toPath(), StandardOpenOption.READ);
+             FileChannel toChannel = FileChannel.open(to.toPath(), StandardOpenOption.READ)) {
+            CodeUnits units = CodeUnits.forEncoding(to.getEncoding());
+            int width = units.getWidth();
+            long fromSize = fromChannel.size(), toSize = toChannel.size();
+            int dataStart;
+            try {
+                dataStart = EncodingDetector.byteOrderMarkLength(toChannel, to.getEncoding());
+                if (EncodingDetector.byteOrderMarkLength(fromChannel, from.getEncoding()) != dataStart){
+                    dataStart = -1;
+                }
+            }catch (WrongEncodingException exception){
+                dataStart = -1;
+            }
+            if (dataStart < 0 || Math.max(fromSize, toSize) > Integer.MAX_VALUE
+                    || (fromSize - dataStart) % width != 0 || (toSize - dataStart) % width != 0){
+                return diff(from, to, sorter, consumer);
+            }
+            ByteBuffer fromBytes = fromChannel.map(FileChannel.MapMode.READ_ONLY, 0, fromSize);
+            ByteBuffer toBytes = toChannel.map(FileChannel.MapMode.READ_ONLY, 0, toSize);
+            int fromEnd = (int) fromSize, toEnd = (int) toSize;
+            int prefixEnd = commonPrefix(fromBytes, toBytes, Math.min(fromEnd, toEnd));
+            if (prefixEnd == fromEnd && prefixEnd == toEnd){
+                return 0;
+            }
+            prefixEnd = lineStart(toBytes, prefixEnd - (prefixEnd - dataStart) % width, dataStart, units);
+            int suffixStart = toEnd - commonSuffix(fromBytes, toBytes, fromEnd, toEnd, Math.min(fromEnd, toEnd) - prefixEnd);
+            suffixStart = nextLineStart(toBytes, suffixStart + (toEnd - suffixStart) % width, toEnd, units);
+            int fromMiddleEnd = fromEnd - (toEnd - suffixStart);
+            if (Math.max(fromMiddleEnd, suffixStart) - prefixEnd > sorter.getMemoryLimit() / 4){
+                return diff(from, to, sorter, consumer);
+            }
+            LineTokenizer tokenizer = new LineTokenizer(to.getSeparator(), units);
+            Map<String, String> fromWords = new HashMap<>(), toWords = new HashMap<>();
+            Set<String> keys = new LinkedHashSet<>();
+            forEachRecord(toBytes, prefixEnd, suffixStart, tokenizer, record -> {
+                toWords.putIfAbsent(record.getKey(), record.getWord());
+                keys.add(record.getKey());
+            });
+            forEachRecord(fromBytes, prefixEnd, fromMiddleEnd, tokenizer, record -> {
+                fromWords.putIfAbsent(record.getKey(), record.getWord());
+                keys.add(record.getKey());
+            });
+            if (!keys.isEmpty()){
+                forEachRecord(toBytes, dataStart, prefixEnd, tokenizer, record -> keys.remove(record.getKey()));
+            }
+            Map<String, String> suffixWords = new HashMap<>();
+            if (!keys.isEmpty()){
+                forEachRecord(toBytes, suffixStart, toEnd, tokenizer, record -> {
+                    if (keys.contains(record.getKey())){
+                        suffixWords.putIfAbsent(record.getKey(), record.getWord());
+                    }
+                });
+            }
+            long count = 0;
+            for (String key : keys) {
+                String fromWord = fromWords.containsKey(key) ? fromWords.get(key) : suffixWords.get(key);
+                String toWord = toWords.containsKey(key) ? toWords.get(key) : suffixWords.get(key);
+                if (fromWord == null){
+                    consumer.accept(DictionaryOperation.create(key, toWord));
+                }else if (toWord == null){
+                    consumer.accept(DictionaryOperation.delete(key));
+                }else if (!fromWord.equals(toWord)){
+                    consumer.accept(DictionaryOperation.update(key, toWord));
+                }else {
+                    continue;
+                }
+                count++;
+            }
+            return count;
+        }
+    }
+
+    public static long lineDiff(Dictionary from, Dictionary to, Consumer<DictionaryOperation> consumer) throws IOException {
+        return lineDiff(from, to, new ExternalSorter(), consumer);
+    }
+
+    /**
+     * @return
+     * Длина общего начала частей массивов длиной size в байтах.
+     */
+    private static int commonPrefix(ByteBuffer first, ByteBuffer second, int size){
+        int index = 0;
+        for (; index + Long.BYTES <= size; index += Long.BYTES) {
+            if (first.getLong(index) != second.getLong(index)){
+                break;
+            }
+        }
+        while (index < size && first.get(index) == second.get(index)){
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * @return
+     * Длина общего конца массивов в байтах, не больше limit.
+     */
+    private static int commonSuffix(ByteBuffer first, ByteBuffer second, int firstEnd, int secondEnd, int limit){
+        int length = 0;
+        while (length + Long.BYTES <= limit && first.getLong(firstEnd - length - Long.BYTES) == second.getLong(secondEnd - length - Long.BYTES)){
+            length += Long.BYTES;
+        }
+        while (length < limit && first.get(firstEnd - length - 1) == second.get(secondEnd - length - 1)){
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * @return
+     * Позиция начала строки, содержащей единицу текста в позиции position, или начала данных. Концом строки
+     * считаются "\n", "\r" и "\r\n", как в LineTokenizer, но "\r" непосредственно перед position не считается
+     * концом строки, чтобы не разделить "\r\n".
+     */
+    private static int lineStart(ByteBuffer bytes, int position, int dataStart, CodeUnits units){
+        int width = units.getWidth();
+        for (int index = position - width; index >= dataStart; index -= width) {
+            int unit = units.unitAt(bytes, index);
+            if (unit == '\n' || unit == '\r' && index + width < position){
+                return index + width;
+            }
+        }
+        return dataStart;
+    }
+
+    /**
+     * @return
+     * Позиция, следующая за первым переводом строки не раньше позиции position, или end. "\r\n" считается
+     * одним переводом строки.
+     */
+    private static int nextLineStart(ByteBuffer bytes, int position, int end, CodeUnits units){
+        int width = units.getWidth();
+        for (int index = position; index + width <= end; index += width) {
+            int unit = units.unitAt(bytes, index);
+            if (unit == '\n'){
+                return index + width;
+            }
+            if (unit == '\r' && index + 2 * width <= end){
+                return index + (units.unitAt(bytes, index + width) == '\n' ? 2 * width : width);
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Назначением функции является разбор записей части файла, начинающейся и заканчивающейся на границе строки.
+     * Часть разбирается окнами размером LINE_DIFF_WINDOW_SIZE, некорректные строки пропускаются.
+     */
+    private static void forEachRecord(ByteBuffer bytes, int start, int end, LineTokenizer tokenizer, Consumer<DictionaryRecord> consumer) throws IOException {
+        byte[] window = new byte[0];
+        List<DictionaryRecord> records = new ArrayList<>();
+        int windowSize = LINE_DIFF_WINDOW_SIZE;
+        int position = start;
+        while (position < end){
+            int length = (int) Math.min(end - position, (long) windowSize);
+            if (position + length < end){
+                length = tokenizer.lastLineEnd(bytes, position, position + length);
+                if (length == 0){
+                    windowSize = LineTokenizer.grownWindowSize(windowSize);
+                    continue;
+                }
+            }
+            if (window.length < length){
+                window = new byte[length];
+            }
+            ByteBuffer part = bytes.duplicate();
+            part.position(position);
+            part.get(window, 0, length);
+            records.clear();
+            tokenizer.tokenize(window, length, 1, records, MalformedLineHandler.IGNORE);
+            records.forEach(consumer);
+            position += length;
+        }
+    }
+
+    /**
+     * Назначением функции является распределение записей исходных словарей по словарям - результатам. Каждый
+     * результат записывается отдельным проходом по исходным словарям, проходы выполняются параллельно, поэтому
+     * объем используемой памяти не зависит от количества записей. Порядок записей и повторяющиеся ключи сохраняются.
+     * Записи, ключ которых содержит разделитель результата, пропускаются. Словари - результаты не должны совпадать
+     * с исходными словарями, так как исходные словари читаются несколькими проходами.
+     * @param partitioner
+     * Функция, возвращающая по ключу номер словаря - результата.
+     * @return
+     * Количество записанных записей каждого словаря - результата.
+     */
+    public static long[] partition(List<Dictionary> sources, List<Dictionary> targets, ToIntFunction<String> partitioner) throws IOException {
+        long[] counts = new long[targets.size()];
+        try {
+            IntStream.range(0, targets.size()).parallel().forEach(index -> {
+                Dictionary target = targets.get(index);
+                try (ConcatenatedRecords concatenated = new ConcatenatedRecords(sources)) {
+                    Iterator<DictionaryRecord> selected = new SelectedRecords(concatenated, key -> partitioner.applyAsInt(key) == index);
+                    CountingRecords records = new CountingRecords(selected, target.getSeparator());
+                    new DictionaryWriter().write(target, records);
+                    counts[index] = records.count;
+                }catch (IOException exception){
+                    throw new UncheckedIOException(exception);
+                }
+            });
+        }catch (UncheckedIOException exception){
+            throw exception.getCause();
+        }
+        return counts;
+    }
+
+    /**
+     * Класс, являющий собой модель последовательного чтения нескольких словарей подряд. Каждый файл открывается
+     * только после полного чтения предыдущего.
+     */
+    private static final class ConcatenatedRecords implements Iterator<DictionaryRecord>, Closeable {
+
+        private final Iterator<Dictionary> dictionaries;
+
+        private DictionaryReader reader;
+
+        private ConcatenatedRecords(List<Dictionary> dictionaries){
+            this.dictionaries = dictionaries.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (reader == null || !reader.hasNext()){
+                    if (reader != null){
+                        reader.close();
+                        reader = null;
+                    }
+                    if (!dictionaries.hasNext()){
+                        return false;
+                    }
+                    reader = new DictionaryReader(dictionaries.next());
+                }
+                return true;
+            }catch (IOException exception){
+                throw new UncheckedIOException(exception);
+            }
+        }
+
+        @Override
+        public DictionaryRecord next() {
+            if (!hasNext()){
+                throw new NoSuchElementException();
+            }
+            return reader.next();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (reader != null){
+                reader.close();
+                reader = null;
+            }
+        }
+    }
+
+    /**
+     * Класс, являющий собой модель отбора одной записи из последовательных записей с равными ключами.
+     */
+    private static final class DistinctRecords implements Iterator<DictionaryRecord> {
+
+        private final Iterator<DictionaryRecord> sorted;
+
+        private final KeyConflictPolicy policy;
+
+        /**
+         * Прочитанная, но еще не обработанная запись.
+         */
+        private DictionaryRecord pending;
+
+        private DistinctRecords(Iterator<DictionaryRecord> sorted, KeyConflictPolicy policy){
+            this.sorted = sorted;
+            this.policy = policy;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pending != null || sorted.hasNext();
+        }
+
+        @Override
+        public DictionaryRecord next() {
+            DictionaryRecord result = pending != null ? pending : sorted.next();
+            pending = null;
+            while (sorted.hasNext()){
+                DictionaryRecord record = sorted.next();
+                if (!record.getKey().equals(result.getKey())){
+                    pending = record;
+                    break;
+                }
+                if (policy == KeyConflictPolicy.FAIL){
+                    throw new ConflictException(new KeyConflictException("Key " + record.getKey() + " occurs more than once"));
+                }
+                if (policy == KeyConflictPolicy.KEEP_LAST){
+                    result = record;
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Класс, являющий собой модель отбора записей по ключу.
+     */
+    private static final class SelectedRecords implements Iterator<DictionaryRecord> {
+
+        private final Iterator<DictionaryRecord> records;
+
+        private final Predicate<String> selector;
+
+        private DictionaryRecord next;
+
+        private SelectedRecords(Iterator<DictionaryRecord> records, Predicate<String> selector){
+            this.records = records;
+            this.selector = selector;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && records.hasNext()){
+                DictionaryRecord record = records.next();
+                if (selector.test(record.getKey())){
+                    next = record;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public DictionaryRecord next() {
+            if (!hasNext()){
+                throw new NoSuchElementException();
+            }
+            DictionaryRecord record = next;
+            next = null;
+            return record;
+        }
+    }
+
+    /**
+     * Класс, являющий собой модель счетчика записываемых записей, пропускающего записи, ключ которых содержит
+     * разделитель словаря - результата.
+     */
+    private static final class CountingRecords implements Iterator<DictionaryRecord> {
+
+        private final Iterator<DictionaryRecord> records;
+
+        private final String separator;
+
+        private DictionaryRecord next;
+
+        private long count;
+
+        private CountingRecords(Iterator<DictionaryRecord> records, String separator){
+            this.records = records;
+            this.separator = separator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && records.hasNext()){
+                DictionaryRecord record = records.next();
+                if (!record.getKey().contains(separator)){
+                    next = record;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public DictionaryRecord next() {
+            if (!hasNext()){
+                throw new NoSuchElementException();
+            }
+            DictionaryRecord record = next;
+            next = null;
+            count++;
+            return record;
+        }
+    }
+
+    /**
+     * Класс, являющий собой модель передачи KeyConflictException через Iterator.
+     */
+    private static final class ConflictException extends RuntimeException {
+
+        private final KeyConflictException conflict;
+
+        private ConflictException(KeyConflictException conflict){
+            super(conflict);
+            this.conflict = conflict;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.SimpleDictionaryService.pipeline;
+
+import org.SimpleDictionaryService.Dictionary;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель разбиения словаря на сегменты. Записи распределяются по сегментам по хэшу ключа,
+ * каждый сегмент является отдельным файлом - словарем с кодировкой, языками и разделителем исходного словаря.
+ * Файл сегмента называется по имени исходного словаря, номеру сегмента и количеству сегментов, например
+ * "words.txt.3-of-16.shard", поэтому сегменты разных разбиений одного словаря не пересекаются.
+ */
+public final class DictionarySharding {
+
+    public static final String SHARD_FILE_SUFFIX = ".shard";
+
+    private DictionarySharding(){
+
+    }
+
+    /**
+     * Назначением функции является вычисление номера сегмента ключа. Функция определяет формат разбиения
+     * на диске и не должна меняться.
+     * @return
+     * Номер сегмента от 0 до shardsCount - 1.
+     */
+    public static int shardOf(String key, int shardsCount){
+        int hash = key.hashCode();
+        return ((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % shardsCount;
+    }
+
+    /**
+     * @return
+     * Сегмент словаря с переданным номером.
+     */
+    public static Dictionary shardDictionary(Dictionary dictionary, int index, int shardsCount){
+        if (index < 0 || index >= shardsCount){
+            throw new IllegalArgumentException("Shard " + index + " is out of " + shardsCount);
+        }
+        Dictionary shard = new Dictionary(dictionary.getPath() + "." + index + "-of-" + shardsCount + SHARD_FILE_SUFFIX,
+                dictionary.getEncoding(), dictionary.getWordLanguage(), dictionary.getKeyLanguage(), dictionary.getSeparator());
+        shard.setReverseLookupEnabled(dictionary.isReverseLookupEnabled());
+        return shard;
+    }
+
+    /**
+     * @return
+     * Все сегменты словаря в порядке номеров.
+     */
+    public static List<Dictionary> shardDictionaries(Dictionary dictionary, int shardsCount){
+        if (shardsCount < 1){
+            throw new IllegalArgumentException("Shards count must be positive: " + shardsCount);
+        }
+        List<Dictionary> shards = new ArrayList<>(shardsCount);
+        for (int index = 0; index < shardsCount; index++) {
+            shards.add(shardDictionary(dictionary, index, shardsCount));
+        }
+        return shards;
+    }
+
+    /**
+     * Назначением функции является разбиение файла - словаря на сегменты. Исходный файл не изменяется.
+     * @return
+     * Количество записей каждого сегмента.
+     */
+    public static long[] split(Dictionary dictionary, int shardsCount) throws IOException {
+        return DictionaryPipeline.partition(Collections.singletonList(dictionary), shardDictionaries(dictionary, shardsCount),
+                key -> shardOf(key, shardsCount));
+    }
+
+    /**
+     * Назначением функции является перераспределение записей словаря по другому количеству сегментов.
+     * Прежние сегменты удаляются только после записи всех новых сегментов. Отсутствующие прежние сегменты
+     * считаются пустыми.
+     * @return
+     * Количество записей каждого нового сегмента.
+     */
+    public static long[] reshard(Dictionary dictionary, int shardsCount, int newShardsCount) throws IOException {
+        if (shardsCount == newShardsCount){
+            throw new IllegalArgumentException("Dictionary already has " + shardsCount + " shards");
+        }
+        List<Dictionary> shards = new ArrayList<>(shardDictionaries(dictionary, shardsCount));
+        List<Dictionary> newShards = shardDictionaries(dictionary, newShardsCount);
+        shards.removeIf(shard -> !shard.exists());
+        long[] counts = DictionaryPipeline.partition(shards, newShards, key -> shardOf(key, newShardsCount));
+        for (Dictionary shard : shards) {
+            Files.deleteIfExists(shard.toPath());
+        }
+        return counts;
+    }
+
+    /**
+     * Назначением функции является объединение сегментов словаря в один файл - словарь, например в исходный файл
+     * словаря. Сегменты не удаляются.
+     * @param target
+     * Словарь - результат, определяющий файл, кодировку и разделитель.
+     * @return
+     * Количество записанных записей.
+     */
+    public static long join(Dictionary dictionary, int shardsCount, Dictionary target) throws IOException {
+        List<Dictionary> shards = new ArrayList<>(shardDictionaries(dictionary, shardsCount));
+        shards.removeIf(shard -> !shard.exists());
+        return DictionaryPipeline.partition(shards, Collections.singletonList(target), key -> 0)[0];
+    }
+}
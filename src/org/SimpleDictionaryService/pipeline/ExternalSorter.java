@@ -0,0 +1,282 @@
+package org.SimpleDictionaryService.pipeline;
+
+import org.SimpleDictionaryService.DictionaryRecord;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель внешней сортировки записей по ключу. Записи накапливаются в памяти до достижения
+ * ограничения, сортируются и сбрасываются во временные файлы - серии, которые затем сливаются. Сортировка
+ * устойчива: записи с равными ключами следуют в порядке поступления.
+ */
+public class ExternalSorter {
+
+    public static final long DEFAULT_MEMORY_LIMIT = 64L * 1024 * 1024;
+
+    /**
+     * Оценка объема памяти записи без учета символов ключа и значения: заголовки записи, двух строк, их массивов
+     * и ссылка в списке.
+     */
+    private static final int RECORD_OVERHEAD = 96;
+
+    private static final int RUN_BUFFER_SIZE = 64 * 1024;
+
+    private static final Comparator<DictionaryRecord> BY_KEY = Comparator.comparing(DictionaryRecord::getKey);
+
+    /**
+     * Ограничение объема памяти, занимаемой накопленными записями, в байтах.
+     */
+    private final long memoryLimit;
+
+    /**
+     * Каталог временных файлов - серий.
+     */
+    private final File temporaryDirectory;
+
+    public ExternalSorter(long memoryLimit, File temporaryDirectory){
+        this.memoryLimit = memoryLimit;
+        this.temporaryDirectory = temporaryDirectory;
+    }
+
+    public ExternalSorter(long memoryLimit){
+        this(memoryLimit, new File(System.getProperty("java.io.tmpdir")));
+    }
+
+    public ExternalSorter(){
+        this(DEFAULT_MEMORY_LIMIT);
+    }
+
+    /**
+     * Назначением функции является сортировка записей по ключу.
+     * @param records
+     * Сортируемые записи, читаются полностью до возврата из функции.
+     * @return
+     * Отсортированные записи. Временные файлы удаляются при закрытии результата.
+     */
+    public SortedRecords sort(Iterator<DictionaryRecord> records) throws IOException {
+        List<DictionaryRecord> chunk = new ArrayList<>();
+        List<File> runs = new ArrayList<>();
+        long used = 0;
+        try {
+            while (records.hasNext()){
+                DictionaryRecord record = records.next();
+                chunk.add(record);
+                used += RECORD_OVERHEAD + 2L * (record.getKey().length() + record.getWord().length());
+                if (used >= memoryLimit){
+                    runs.add(writeRun(chunk));
+                    chunk.clear();
+                    used = 0;
+                }
+            }
+            chunk.sort(BY_KEY);
+            return new SortedRecords(runs, chunk);
+        }catch (IOException | RuntimeException exception){
+            for (File run : runs) {
+                Files.deleteIfExists(run.toPath());
+            }
+            if (exception instanceof UncheckedIOException){
+                throw ((UncheckedIOException) exception).getCause();
+            }
+            throw exception;
+        }
+    }
+
+    /**
+     * Назначением функции является запись отсортированной серии во временный файл в формате
+     * [длина ключа][ключ в UTF-8][длина значения][значение в UTF-8].
+     */
+    private File writeRun(List<DictionaryRecord> chunk) throws IOException {
+        chunk.sort(BY_KEY);
+        File run = File.createTempFile("dictionary-run-", ".tmp", temporaryDirectory);
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(run), RUN_BUFFER_SIZE))) {
+            for (DictionaryRecord record : chunk) {
+                writeString(output, record.getKey());
+                writeString(output, record.getWord());
+            }
+        }catch (IOException | RuntimeException exception){
+            Files.deleteIfExists(run.toPath());
+            throw exception;
+        }
+        return run;
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    public long getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    public File getTemporaryDirectory() {
+        return temporaryDirectory;
+    }
+
+    /**
+     * Класс, являющий собой модель результата внешней сортировки: слияния серий и последней части записей,
+     * оставшейся в памяти. При равных ключах раньше выдается запись более ранней серии.
+     */
+    public static final class SortedRecords implements Iterator<DictionaryRecord>, Closeable {
+
+        private final List<File> runs;
+
+        private final List<Cursor> cursors = new ArrayList<>();
+
+        private final PriorityQueue<Cursor> queue;
+
+        private SortedRecords(List<File> runs, List<DictionaryRecord> chunk) throws IOException {
+            this.runs = runs;
+            this.queue = new PriorityQueue<>(runs.size() + 1, (first, second) -> {
+                int result = first.current.getKey().compareTo(second.current.getKey());
+                return result != 0 ? result : Integer.compare(first.order, second.order);
+            });
+            try {
+                for (File run : runs) {
+                    cursors.add(new RunCursor(cursors.size(), run));
+                }
+                cursors.add(new ListCursor(cursors.size(), chunk.iterator()));
+                for (Cursor cursor : cursors) {
+                    if (cursor.advance()){
+                        queue.add(cursor);
+                    }
+                }
+            }catch (IOException | RuntimeException exception){
+                close();
+                throw exception;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public DictionaryRecord next() {
+            Cursor cursor = queue.poll();
+            if (cursor == null){
+                throw new NoSuchElementException();
+            }
+            DictionaryRecord record = cursor.current;
+            try {
+                if (cursor.advance()){
+                    queue.add(cursor);
+                }
+            }catch (IOException exception){
+                throw new UncheckedIOException(exception);
+            }
+            return record;
+        }
+
+        /**
+         * @return
+         * Количество временных файлов - серий, 0 если все записи поместились в память.
+         */
+        public int getRunsCount(){
+            return runs.size();
+        }
+
+        @Override
+        public void close() throws IOException {
+            queue.clear();
+            for (Cursor cursor : cursors) {
+                cursor.close();
+            }
+            for (File run : runs) {
+                Files.deleteIfExists(run.toPath());
+            }
+        }
+    }
+
+    /**
+     * Класс, являющий собой модель позиции чтения одного источника слияния.
+     */
+    private static abstract class Cursor implements Closeable {
+
+        /**
+         * Порядковый номер источника, определяющий порядок записей с равными ключами.
+         */
+        private final int order;
+
+        DictionaryRecord current;
+
+        Cursor(int order){
+            this.order = order;
+        }
+
+        /**
+         * @return
+         * Признак того, что прочитана следующая запись источника.
+         */
+        abstract boolean advance() throws IOException;
+
+        @Override
+        public void close() throws IOException {
+
+        }
+    }
+
+    private static final class RunCursor extends Cursor {
+
+        private final DataInputStream input;
+
+        private RunCursor(int order, File run) throws IOException {
+            super(order);
+            this.input = new DataInputStream(new BufferedInputStream(new FileInputStream(run), RUN_BUFFER_SIZE));
+        }
+
+        @Override
+        boolean advance() throws IOException {
+            int length;
+            try {
+                length = input.readInt();
+            }catch (EOFException exception){
+                current = null;
+                return false;
+            }
+            String key = readString(length);
+            current = new DictionaryRecord(key, readString(input.readInt()));
+            return true;
+        }
+
+        private String readString(int length) throws IOException {
+            byte[] bytes = new byte[length];
+            input.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+    }
+
+    private static final class ListCursor extends Cursor {
+
+        private final Iterator<DictionaryRecord> iterator;
+
+        private ListCursor(int order, Iterator<DictionaryRecord> iterator){
+            super(order);
+            this.iterator = iterator;
+        }
+
+        @Override
+        boolean advance() {
+            current = iterator.hasNext() ? iterator.next() : null;
+            return current != null;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.SimpleDictionaryService.pipeline;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Перечисление, являющее собой модель политики выбора записи при совпадении ключей объединяемых словарей.
+ * Записи упорядочены по порядку передачи словарей и по порядку строк внутри словаря.
+ */
+public enum KeyConflictPolicy {
+
+    /**
+     * Сохраняется первая запись с ключом, как при загрузке словаря с повторяющимися ключами.
+     */
+    KEEP_FIRST,
+
+    /**
+     * Сохраняется последняя запись с ключом, то есть более поздние словари переопределяют более ранние.
+     */
+    KEEP_LAST,
+
+    /**
+     * Объединение прерывается с KeyConflictException при первом совпадении ключей.
+     */
+    FAIL
+}
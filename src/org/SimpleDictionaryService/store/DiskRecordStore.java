@@ -0,0 +1,579 @@
+package org.SimpleDictionaryService.store;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.DictionaryRecord;
+import org.SimpleDictionaryService.io.CodeUnits;
+import org.SimpleDictionaryService.io.EncodingDetector;
+import org.SimpleDictionaryService.io.EncodingValidator;
+import org.SimpleDictionaryService.io.LineTokenizer;
+import org.SimpleDictionaryService.io.LoadStatistics;
+import org.SimpleDictionaryService.io.MalformedLineHandler;
+import org.SimpleEncodings.throwable.WrongEncodingException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель хранилища записей, читающего записи из файла - словаря по требованию.
+ * При открытии файл просматривается один раз и для каждой записи запоминаются только хэш ключа, позиция
+ * и длина строки (16 байтов на ячейку таблицы, от 21 до 43 байтов на запись). Найденные записи помещаются
+ * в ограниченный кэш, поэтому в памяти не хранятся ни ключи, ни значения, кроме кэшированных и измененных. Измененные и добавленные
+ * записи хранятся в памяти до следующей записи словаря на диск, после которой хранилище открывается заново.
+ * Строки файла разбираются в кодировке словаря и проверяются на соответствие ей так же, как и загрузчиком
+ * DictionaryLoader.
+ */
+public class DiskRecordStore implements FileBackedRecordStore {
+
+    public static final int DEFAULT_CACHE_CAPACITY = 10_000;
+
+    private static final int INITIAL_TABLE_SIZE = 1024;
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private static final long EMPTY_SLOT = -1;
+
+    private static final long REMOVED_SLOT = -2;
+
+    private final RecordCache cache;
+
+    private Dictionary dictionary;
+
+    private LineTokenizer tokenizer;
+
+    /**
+     * Позиция начала первой строки файла после метки порядка байтов.
+     */
+    private int dataStart;
+
+    /**
+     * Получатель строк файла, которые не являются записями.
+     */
+    private volatile MalformedLineHandler malformedLineHandler = MalformedLineHandler.PRINT;
+
+    private FileChannel channel;
+
+    /**
+     * Позиции строк файла в таблице с открытой адресацией, EMPTY_SLOT или REMOVED_SLOT для свободных ячеек.
+     */
+    private long[] positions;
+
+    /**
+     * Длины строк файла в байтах без перевода строки.
+     */
+    private int[] lengths;
+
+    private int[] hashes;
+
+    private int usedSlots;
+
+    private int liveFileRecords;
+
+    /**
+     * Записи файла, значения которых изменены после открытия.
+     */
+    private final HashMap<String, DictionaryRecord> changed = new HashMap<>();
+
+    /**
+     * Записи, добавленные после открытия, в порядке добавления.
+     */
+    private final LinkedHashMap<String, DictionaryRecord> added = new LinkedHashMap<>();
+
+    /**
+     * Запись, прочитанная последним успешным вызовом locate.
+     */
+    private DictionaryRecord located;
+
+    public DiskRecordStore(int cacheCapacity, EvictionPolicy evictionPolicy){
+        this.cache = new RecordCache(cacheCapacity, evictionPolicy);
+        resetTable(INITIAL_TABLE_SIZE);
+    }
+
+    public DiskRecordStore(int cacheCapacity){
+        this(cacheCapacity, EvictionPolicy.LRU);
+    }
+
+    public DiskRecordStore(){
+        this(DEFAULT_CACHE_CAPACITY);
+    }
+
+    @Override
+    public synchronized LoadStatistics open(Dictionary dictionary) throws IOException, WrongEncodingException {
+        close();
+        clear();
+        this.dictionary = dictionary;
+        this.tokenizer = new LineTokenizer(dictionary.getSeparator(), CodeUnits.forEncoding(dictionary.getEncoding()));
+        channel = FileChannel.open(dictionary.toPath(), StandardOpenOption.READ);
+        dataStart = EncodingDetector.byteOrderMarkLength(channel, dictionary.getEncoding());
+        LoadStatistics statistics = new LoadStatistics();
+        statistics.addBytes(channel.size());
+        EncodingValidator validator = EncodingValidator.forEncoding(dictionary.getEncoding());
+        MalformedLineHandler handler = malformedLineHandler;
+        MalformedLineHandler countingHandler = (lineNumber, line, reason) -> {
+            statistics.addMalformedLine();
+            handler.malformedLine(lineNumber, line, reason);
+        };
+        LineReader reader = new LineReader(channel, dataStart, tokenizer.getUnits());
+        while (reader.next()){
+            if (validator.validate(reader.line, 0, reader.length) >= 0 || !validator.isComplete()){
+                throw new WrongEncodingException();
+            }
+            statistics.addLines(1);
+            DictionaryRecord record = tokenizer.parseLine(reader.line, 0, reader.length, statistics.getLinesCount(), countingHandler);
+            if (record == null){
+                continue;
+            }
+            if (locate(record.getKey()) < 0){
+                insertSlot(hash(record.getKey()), reader.offset, reader.length);
+                liveFileRecords++;
+                statistics.addRecord(
+                        record.getKey().length(), dictionary.getKeyLanguage().countOfMatches(record.getKey(), dictionary.getEncoding()),
+                        record.getWord().length(), dictionary.getWordLanguage().countOfMatches(record.getWord(), dictionary.getEncoding()));
+            }
+        }
+        return statistics;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null){
+            channel.close();
+            channel = null;
+        }
+    }
+
+    @Override
+    public synchronized DictionaryRecord get(String key) {
+        DictionaryRecord record = overlayRecord(key);
+        if (record != null){
+            return record;
+        }
+        record = cache.get(key);
+        if (record != null){
+            return record;
+        }
+        if (locate(key) < 0){
+            return null;
+        }
+        cache.put(located);
+        return located;
+    }
+
+    @Override
+    public synchronized boolean containsKey(String key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public synchronized boolean putIfAbsent(DictionaryRecord record) {
+        if (get(record.getKey()) != null){
+            return false;
+        }
+        added.put(record.getKey(), record);
+        return true;
+    }
+
+    @Override
+    public synchronized DictionaryRecord put(DictionaryRecord record) {
+        DictionaryRecord previous = replace(record);
+        if (previous == null){
+            added.put(record.getKey(), record);
+        }
+        return previous;
+    }
+
+    @Override
+    public synchronized DictionaryRecord replace(DictionaryRecord record) {
+        String key = record.getKey();
+        if (added.containsKey(key)){
+            return added.put(key, record);
+        }
+        DictionaryRecord previous = changed.get(key);
+        if (previous == null){
+            if (locate(key) < 0){
+                return null;
+            }
+            previous = located;
+        }
+        changed.put(key, record);
+        cache.invalidate(key);
+        return previous;
+    }
+
+    @Override
+    public synchronized DictionaryRecord remove(String key) {
+        DictionaryRecord previous = added.remove(key);
+        if (previous != null){
+            return previous;
+        }
+        int slot = locate(key);
+        if (slot < 0){
+            return null;
+        }
+        previous = changed.remove(key);
+        positions[slot] = REMOVED_SLOT;
+        liveFileRecords--;
+        cache.invalidate(key);
+        return previous == null ? located : previous;
+    }
+
+    @Override
+    public synchronized int size() {
+        return liveFileRecords + added.size();
+    }
+
+    @Override
+    public synchronized void clear() {
+        resetTable(INITIAL_TABLE_SIZE);
+        liveFileRecords = 0;
+        changed.clear();
+        added.clear();
+        cache.clear();
+    }
+
+    @Override
+    public Collection<DictionaryRecord> records() {
+        return new AbstractCollection<DictionaryRecord>() {
+            @Override
+            public Iterator<DictionaryRecord> iterator() {
+                return new RecordIterator();
+            }
+
+            @Override
+            public int size() {
+                return DiskRecordStore.this.size();
+            }
+        };
+    }
+
+    /**
+     * @return
+     * Кэш записей, прочитанных из файла, вместе со счетчиками попаданий, промахов и вытеснений.
+     */
+    public RecordCache getCache() {
+        return cache;
+    }
+
+    public MalformedLineHandler getMalformedLineHandler() {
+        return malformedLineHandler;
+    }
+
+    /**
+     * Назначением функции является смена получателя строк файла, которые не являются записями.
+     * Получатель вызывается при открытии словаря.
+     */
+    public void setMalformedLineHandler(MalformedLineHandler malformedLineHandler) {
+        this.malformedLineHandler = malformedLineHandler;
+    }
+
+    /**
+     * @return
+     * Количество записей, измененных или добавленных после открытия файла и хранящихся в памяти.
+     */
+    public synchronized int getPendingChangesCount(){
+        return changed.size() + added.size();
+    }
+
+    private DictionaryRecord overlayRecord(String key){
+        DictionaryRecord record = added.get(key);
+        return record == null ? changed.get(key) : record;
+    }
+
+    /**
+     * Назначением функции является поиск строки файла по ключу с чтением совпавших по хэшу строк.
+     * @return
+     * Индекс ячейки таблицы, -1 если ключ отсутствует в файле или запись удалена. Прочитанная запись
+     * сохраняется в поле located.
+     */
+    private int locate(String key){
+        if (channel == null){
+            return -1;
+        }
+        int hash = hash(key);
+        int mask = positions.length - 1;
+        for (int slot = hash & mask; positions[slot] != EMPTY_SLOT; slot = (slot + 1) & mask) {
+            if (positions[slot] == REMOVED_SLOT || hashes[slot] != hash){
+                continue;
+            }
+            DictionaryRecord record = readSlot(slot);
+            if (record != null && record.getKey().equals(key)){
+                located = record;
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return
+     * Индекс ячейки, в которой хранится строка файла с данной позицией, -1 если запись этой строки удалена
+     * или строка повторяет ключ одной из предыдущих строк.
+     */
+    private int slotOf(String key, long position){
+        int mask = positions.length - 1;
+        for (int slot = hash(key) & mask; positions[slot] != EMPTY_SLOT; slot = (slot + 1) & mask) {
+            if (positions[slot] == position){
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private DictionaryRecord readSlot(int slot){
+        ByteBuffer buffer = ByteBuffer.allocate(lengths[slot]);
+        try {
+            long position = positions[slot];
+            while (buffer.hasRemaining()){
+                if (channel.read(buffer, position + buffer.position()) < 0){
+                    break;
+                }
+            }
+        }catch (IOException exception){
+            throw new UncheckedIOException(exception);
+        }
+        return parse(buffer.array(), buffer.position());
+    }
+
+    private DictionaryRecord parse(byte[] line, int length){
+        return tokenizer.parseLine(line, 0, length);
+    }
+
+    private void insertSlot(int hash, long position, int length){
+        if ((usedSlots + 1) * 4L > positions.length * 3L){
+            rehash(positions.length * 2);
+        }
+        int mask = positions.length - 1;
+        int slot = hash & mask;
+        while (positions[slot] != EMPTY_SLOT){
+            slot = (slot + 1) & mask;
+        }
+        positions[slot] = position;
+        lengths[slot] = length;
+        hashes[slot] = hash;
+        usedSlots++;
+    }
+
+    private void rehash(int size){
+        long[] oldPositions = positions;
+        int[] oldLengths = lengths, oldHashes = hashes;
+        resetTable(size);
+        for (int slot = 0; slot < oldPositions.length; slot++) {
+            if (oldPositions[slot] >= 0){
+                insertSlot(oldHashes[slot], oldPositions[slot], oldLengths[slot]);
+            }
+        }
+    }
+
+    private void resetTable(int size){
+        positions = new long[size];
+        Arrays.fill(positions, EMPTY_SLOT);
+        lengths = new int[size];
+        hashes = new int[size];
+        usedSlots = 0;
+    }
+
+    private static int hash(String key){
+        int hash = key.hashCode() * 0x9e3779b9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Назначением функции является выбор записи строки файла при обходе хранилища.
+     * @return
+     * Текущая запись строки, null если запись удалена или строка повторяет ключ одной из предыдущих строк.
+     */
+    private synchronized DictionaryRecord liveRecordOf(DictionaryRecord record, long position){
+        if (slotOf(record.getKey(), position) < 0){
+            return null;
+        }
+        DictionaryRecord current = changed.get(record.getKey());
+        return current == null ? record : current;
+    }
+
+    private synchronized List<DictionaryRecord> addedRecords(){
+        return new ArrayList<>(added.values());
+    }
+
+    /**
+     * Класс, являющий собой модель обхода записей хранилища: сначала записи файла в порядке следования строк,
+     * затем добавленные записи в порядке добавления. Файл читается отдельным каналом и разбирается отдельным
+     * разборщиком строк, так как обход выполняется без блокировки хранилища.
+     */
+    private final class RecordIterator implements Iterator<DictionaryRecord> {
+
+        private LineReader reader;
+
+        private FileChannel iteratorChannel;
+
+        private LineTokenizer iteratorTokenizer;
+
+        private Iterator<DictionaryRecord> addedIterator;
+
+        private DictionaryRecord next;
+
+        private RecordIterator(){
+            synchronized (DiskRecordStore.this){
+                if (dictionary != null && channel != null){
+                    try {
+                        iteratorChannel = FileChannel.open(dictionary.toPath(), StandardOpenOption.READ);
+                        iteratorTokenizer = new LineTokenizer(dictionary.getSeparator(), tokenizer.getUnits());
+                        reader = new LineReader(iteratorChannel, dataStart, tokenizer.getUnits());
+                    }catch (IOException exception){
+                        throw new UncheckedIOException(exception);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null){
+                next = advance();
+            }
+            return next != null;
+        }
+
+        @Override
+        public DictionaryRecord next() {
+            if (!hasNext()){
+                throw new NoSuchElementException();
+            }
+            DictionaryRecord record = next;
+            next = null;
+            return record;
+        }
+
+        private DictionaryRecord advance(){
+            try {
+                while (reader != null && reader.next()){
+                    DictionaryRecord record = iteratorTokenizer.parseLine(reader.line, 0, reader.length);
+                    if (record != null && (record = liveRecordOf(record, reader.offset)) != null){
+                        return record;
+                    }
+                }
+                if (iteratorChannel != null){
+                    iteratorChannel.close();
+                    iteratorChannel = null;
+                    reader = null;
+                }
+            }catch (IOException exception){
+                throw new UncheckedIOException(exception);
+            }
+            if (addedIterator == null){
+                addedIterator = addedRecords().iterator();
+            }
+            return addedIterator.hasNext() ? addedIterator.next() : null;
+        }
+    }
+
+    /**
+     * Класс, являющий собой модель последовательного чтения строк файла с их позициями. Переводы строк
+     * ищутся на границах единиц текста кодировки словаря, концом строки, как и в LineTokenizer, считаются
+     * "\n", "\r" и "\r\n".
+     */
+    private static final class LineReader {
+
+        private final FileChannel channel;
+
+        private final CodeUnits units;
+
+        private final ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+
+        private long bufferStart;
+
+        /**
+         * Позиция начала текущей строки в файле.
+         */
+        private long offset;
+
+        /**
+         * Байты текущей строки без перевода строки.
+         */
+        private byte[] line = new byte[256];
+
+        private int length;
+
+        /**
+         * @param start
+         * Позиция начала первой строки файла.
+         */
+        private LineReader(FileChannel channel, long start, CodeUnits units){
+            this.channel = channel;
+            this.units = units;
+            this.bufferStart = start;
+            buffer.flip();
+        }
+
+        private boolean next() throws IOException {
+            int width = units.getWidth();
+            offset = bufferStart + buffer.position();
+            length = 0;
+            boolean read = false;
+            while (true){
+                if (!buffer.hasRemaining()){
+                    bufferStart += buffer.limit();
+                    buffer.clear();
+                    int count = channel.read(buffer, bufferStart);
+                    buffer.flip();
+                    if (count <= 0){
+                        if (!read){
+                            return false;
+                        }
+                        break;
+                    }
+                }
+                read = true;
+                if (length == line.length){
+                    line = Arrays.copyOf(line, length * 2);
+                }
+                line[length++] = buffer.get();
+                if (length % width == 0){
+                    int unit = units.unitAt(line, length - width);
+                    if (unit == '\n' || unit == '\r'){
+                        length -= width;
+                        if (unit == '\r'){
+                            skipLineFeed(width);
+                        }
+                        break;
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Назначением функции является пропуск "\n", следующего сразу за "\r", чтобы "\r\n" считался одним
+         * переводом строки. Недочитанные байты буфера сохраняются.
+         */
+        private void skipLineFeed(int width) throws IOException {
+            if (buffer.remaining() < width){
+                bufferStart += buffer.position();
+                buffer.compact();
+                while (buffer.position() < width && channel.read(buffer, bufferStart + buffer.position()) > 0){
+                    // дочитываем единицу текста, разделенную границей чтения
+                }
+                buffer.flip();
+                if (buffer.remaining() < width){
+                    return;
+                }
+            }
+            if (units.unitAt(buffer, buffer.position()) == '\n'){
+                buffer.position(buffer.position() + width);
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.SimpleDictionaryService.store;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Перечисление, являющее собой модель политики вытеснения записей из кэша.
+ */
+public enum EvictionPolicy {
+
+    /**
+     * Вытесняется запись, к которой дольше всего не обращались.
+     */
+    LRU,
+
+    /**
+     * Вытесняется запись с наименьшим количеством обращений, при равенстве - добавленная раньше.
+     */
+    LFU,
+
+    /**
+     * Новые записи попадают в небольшое LRU окно, из которого допускаются в основную сегментированную LRU
+     * область только если оценка частоты обращений к ним выше, чем к вытесняемой записи. Частоты оцениваются
+     * count-min скетчем с периодическим старением, поэтому политика устойчива и к сканированию, и к смене
+     * рабочего множества.
+     */
+    W_TINY_LFU
+}
@@ -0,0 +1,29 @@
+package org.SimpleDictionaryService.store;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.io.LoadStatistics;
+import org.SimpleEncodings.throwable.WrongEncodingException;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Интерфейс, являющий собой модель хранилища записей, которое читает записи непосредственно из файла - словаря
+ * вместо загрузки их загрузчиком. Сервис словарей открывает такое хранилище при выборе словаря и повторно
+ * после каждой записи словаря на диск.
+ */
+public interface FileBackedRecordStore extends RecordStore, Closeable {
+
+    /**
+     * Назначением функции является открытие файла - словаря. Изменения, сделанные в хранилище до открытия,
+     * отбрасываются.
+     * @param dictionary
+     * Указатель на открываемый словарь.
+     * @return
+     * Счетчики соответствия ключей и значений файла языкам словаря.
+     */
+    LoadStatistics open(Dictionary dictionary) throws IOException, WrongEncodingException;
+}
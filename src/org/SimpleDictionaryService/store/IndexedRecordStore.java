@@ -0,0 +1,75 @@
+package org.SimpleDictionaryService.store;
+
+import org.SimpleDictionaryService.DictionaryRecord;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель хранилища записей, индексированного по ключу.
+ * Поиск, добавление и удаление записей выполняются за O(1), порядок добавления сохраняется.
+ */
+public class IndexedRecordStore implements RecordStore {
+
+    /**
+     * Отображение ключей на записи словаря в порядке добавления.
+     */
+    private final LinkedHashMap<String, DictionaryRecord> records;
+
+    public IndexedRecordStore(int expectedSize){
+        this.records = new LinkedHashMap<>(Math.max(16, (int)(expectedSize / 0.75f) + 1));
+    }
+
+    public IndexedRecordStore(){
+        this.records = new LinkedHashMap<>();
+    }
+
+    @Override
+    public DictionaryRecord get(String key) {
+        return records.get(key);
+    }
+
+    @Override
+    public boolean containsKey(String key) {
+        return records.containsKey(key);
+    }
+
+    @Override
+    public boolean putIfAbsent(DictionaryRecord record) {
+        return records.putIfAbsent(record.getKey(), record) == null;
+    }
+
+    @Override
+    public DictionaryRecord put(DictionaryRecord record) {
+        return records.put(record.getKey(), record);
+    }
+
+    @Override
+    public DictionaryRecord replace(DictionaryRecord record) {
+        return records.replace(record.getKey(), record);
+    }
+
+    @Override
+    public DictionaryRecord remove(String key) {
+        return records.remove(key);
+    }
+
+    @Override
+    public int size() {
+        return records.size();
+    }
+
+    @Override
+    public void clear() {
+        records.clear();
+    }
+
+    @Override
+    public Collection<DictionaryRecord> records() {
+        return Collections.unmodifiableCollection(records.values());
+    }
+}
@@ -0,0 +1,429 @@
+package org.SimpleDictionaryService.store;
+
+import org.SimpleDictionaryService.DictionaryRecord;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель компактного хранилища записей для очень больших словарей.
+ * Ключи и значения хранятся в кодировке UTF-8 в больших буферах (в куче или вне кучи), записи адресуются
+ * смещениями типа long, а поиск по ключу выполняется по таблице с открытой адресацией из массивов int.
+ * Обьекты DictionaryRecord создаются только при чтении, поэтому накладные расходы на запись составляют
+ * около 20 байтов вместо сотни с лишним байтов у IndexedRecordStore.
+ *
+ * Формат записи в буфере: [int длина ключа][int длина значения][ключ][значение].
+ * Хранилище не является потокобезопасным для изменений, как и IndexedRecordStore.
+ */
+public class PackedRecordStore implements RecordStore {
+
+    public static final int DEFAULT_ARENA_SIZE = 16 * 1024 * 1024;
+
+    private static final int  ENTRY_HEADER_SIZE = 8;
+    private static final long REMOVED_SLOT      = -1;
+    private static final int  EMPTY_BUCKET      = 0;
+    private static final int  REMOVED_BUCKET    = -1;
+
+    /**
+     * Признак размещения буферов вне кучи.
+     */
+    private final boolean offHeap;
+
+    /**
+     * Размер одного буфера в байтах.
+     */
+    private final int arenaSize;
+
+    private final List<ByteBuffer> arenas = new ArrayList<>();
+
+    /**
+     * Адреса записей в порядке добавления: старшие 32 бита - номер буфера, младшие - смещение в буфере.
+     * Адрес удаленной записи равен REMOVED_SLOT.
+     */
+    private long[] slots = new long[16];
+
+    private int slotsCount;
+
+    private int size;
+
+    /**
+     * Таблица с открытой адресацией: номер слота записи, увеличенный на 1, EMPTY_BUCKET или REMOVED_BUCKET.
+     */
+    private int[] buckets = new int[32];
+
+    /**
+     * Хэши ключей записей таблицы.
+     */
+    private int[] bucketHashes = new int[32];
+
+    /**
+     * Количество занятых и удаленных элементов таблицы.
+     */
+    private int usedBuckets;
+
+    private long liveBytes;
+
+    private long deadBytes;
+
+    public PackedRecordStore(int arenaSize, boolean offHeap){
+        this.arenaSize = arenaSize;
+        this.offHeap = offHeap;
+    }
+
+    public PackedRecordStore(boolean offHeap){
+        this(DEFAULT_ARENA_SIZE, offHeap);
+    }
+
+    public PackedRecordStore(){
+        this(false);
+    }
+
+    @Override
+    public DictionaryRecord get(String key) {
+        int bucket = find(key, hash(key));
+        return bucket < 0 ? null : materialize(slots[buckets[bucket] - 1]);
+    }
+
+    @Override
+    public boolean containsKey(String key) {
+        return find(key, hash(key)) >= 0;
+    }
+
+    @Override
+    public boolean putIfAbsent(DictionaryRecord record) {
+        int hash = hash(record.getKey());
+        if (find(record.getKey(), hash) >= 0){
+            return false;
+        }
+        insert(record, hash);
+        return true;
+    }
+
+    @Override
+    public DictionaryRecord put(DictionaryRecord record) {
+        int hash = hash(record.getKey());
+        int bucket = find(record.getKey(), hash);
+        if (bucket < 0){
+            insert(record, hash);
+            return null;
+        }
+        return overwrite(buckets[bucket] - 1, record);
+    }
+
+    @Override
+    public DictionaryRecord replace(DictionaryRecord record) {
+        int bucket = find(record.getKey(), hash(record.getKey()));
+        return bucket < 0 ? null : overwrite(buckets[bucket] - 1, record);
+    }
+
+    @Override
+    public DictionaryRecord remove(String key) {
+        int bucket = find(key, hash(key));
+        if (bucket < 0){
+            return null;
+        }
+        int slot = buckets[bucket] - 1;
+        DictionaryRecord removed = materialize(slots[slot]);
+        long released = entrySize(slots[slot]);
+        liveBytes -= released;
+        deadBytes += released;
+        slots[slot] = REMOVED_SLOT;
+        buckets[bucket] = REMOVED_BUCKET;
+        size--;
+        compactIfNeeded();
+        return removed;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        arenas.clear();
+        slots = new long[16];
+        slotsCount = 0;
+        size = 0;
+        buckets = new int[32];
+        bucketHashes = new int[32];
+        usedBuckets = 0;
+        liveBytes = 0;
+        deadBytes = 0;
+    }
+
+    @Override
+    public Collection<DictionaryRecord> records() {
+        return new AbstractCollection<DictionaryRecord>() {
+            @Override
+            public Iterator<DictionaryRecord> iterator() {
+                return new Iterator<DictionaryRecord>() {
+
+                    private int slot = nextLiveSlot(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return slot < slotsCount;
+                    }
+
+                    @Override
+                    public DictionaryRecord next() {
+                        if (slot >= slotsCount){
+                            throw new NoSuchElementException();
+                        }
+                        DictionaryRecord record = materialize(slots[slot]);
+                        slot = nextLiveSlot(slot + 1);
+                        return record;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * @return
+     * Количество байтов буферов, занятых действительными записями.
+     */
+    public long getLiveBytes() {
+        return liveBytes;
+    }
+
+    /**
+     * @return
+     * Общий размер выделенных буферов в байтах.
+     */
+    public long getAllocatedBytes() {
+        long allocated = 0;
+        for (ByteBuffer arena : arenas) {
+            allocated += arena.capacity();
+        }
+        return allocated;
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    private int nextLiveSlot(int slot){
+        while (slot < slotsCount && slots[slot] == REMOVED_SLOT){
+            slot++;
+        }
+        return slot;
+    }
+
+    /**
+     * @return
+     * Номер элемента таблицы, содержащего ключ, или -1.
+     */
+    private int find(String key, int hash){
+        byte[] keyBytes = null;
+        int mask = buckets.length - 1;
+        for (int bucket = hash & mask; ; bucket = (bucket + 1) & mask) {
+            int value = buckets[bucket];
+            if (value == EMPTY_BUCKET){
+                return -1;
+            }
+            if (value != REMOVED_BUCKET && bucketHashes[bucket] == hash){
+                if (keyBytes == null){
+                    keyBytes = key.getBytes(StandardCharsets.UTF_8);
+                }
+                if (keyEquals(slots[value - 1], keyBytes)){
+                    return bucket;
+                }
+            }
+        }
+    }
+
+    private void insert(DictionaryRecord record, int hash){
+        if (slotsCount == slots.length){
+            slots = Arrays.copyOf(slots, slots.length * 2);
+        }
+        int slot = slotsCount++;
+        slots[slot] = append(record);
+        liveBytes += entrySize(slots[slot]);
+        size++;
+        if ((usedBuckets + 1) * 4L >= buckets.length * 3L){
+            rehash(size * 4 >= buckets.length ? buckets.length * 2 : buckets.length);
+        }
+        placeInBucket(slot, hash);
+        usedBuckets++;
+    }
+
+    private DictionaryRecord overwrite(int slot, DictionaryRecord record){
+        DictionaryRecord previous = materialize(slots[slot]);
+        long released = entrySize(slots[slot]);
+        slots[slot] = append(record);
+        liveBytes += entrySize(slots[slot]) - released;
+        deadBytes += released;
+        compactIfNeeded();
+        return previous;
+    }
+
+    private void placeInBucket(int slot, int hash){
+        int mask = buckets.length - 1;
+        int bucket = hash & mask;
+        while (buckets[bucket] != EMPTY_BUCKET){
+            bucket = (bucket + 1) & mask;
+        }
+        buckets[bucket] = slot + 1;
+        bucketHashes[bucket] = hash;
+    }
+
+    /**
+     * Назначением функции является перестроение таблицы без удаленных элементов.
+     */
+    private void rehash(int capacity){
+        int[] oldBuckets = buckets, oldHashes = bucketHashes;
+        buckets = new int[capacity];
+        bucketHashes = new int[capacity];
+        usedBuckets = 0;
+        for (int bucket = 0; bucket < oldBuckets.length; bucket++) {
+            if (oldBuckets[bucket] > 0){
+                placeInBucket(oldBuckets[bucket] - 1, oldHashes[bucket]);
+                usedBuckets++;
+            }
+        }
+    }
+
+    /**
+     * Назначением функции является копирование действительных записей в новые буферы, когда удаленные
+     * и перезаписанные записи занимают больше места, чем действительные.
+     */
+    private void compactIfNeeded(){
+        if (deadBytes < arenaSize || deadBytes < liveBytes){
+            return;
+        }
+        List<ByteBuffer> oldArenas = new ArrayList<>(arenas);
+        long[] oldSlots = slots;
+        int oldSlotsCount = slotsCount;
+        arenas.clear();
+        slots = new long[Math.max(16, size)];
+        slotsCount = 0;
+        int[] renumbered = new int[oldSlotsCount];
+        for (int slot = 0; slot < oldSlotsCount; slot++) {
+            if (oldSlots[slot] != REMOVED_SLOT){
+                renumbered[slot] = slotsCount;
+                slots[slotsCount++] = append(oldArenas, oldSlots[slot]);
+            }
+        }
+        for (int bucket = 0; bucket < buckets.length; bucket++) {
+            if (buckets[bucket] > 0){
+                buckets[bucket] = renumbered[buckets[bucket] - 1] + 1;
+            }
+        }
+        rehash(buckets.length);
+        deadBytes = 0;
+    }
+
+    /**
+     * @return
+     * Адрес записи, добавленной в конец последнего буфера.
+     */
+    private long append(DictionaryRecord record){
+        byte[] key = record.getKey().getBytes(StandardCharsets.UTF_8);
+        byte[] word = record.getWord().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer arena = arenaFor(ENTRY_HEADER_SIZE + key.length + word.length);
+        long address = address(arenas.size() - 1, arena.position());
+        arena.putInt(key.length).putInt(word.length).put(key).put(word);
+        return address;
+    }
+
+    /**
+     * @return
+     * Адрес копии записи из старых буферов, добавленной в конец последнего буфера.
+     */
+    private long append(List<ByteBuffer> oldArenas, long oldAddress){
+        ByteBuffer source = oldArenas.get(arenaOf(oldAddress)).duplicate();
+        int offset = offsetOf(oldAddress);
+        int length = ENTRY_HEADER_SIZE + source.getInt(offset) + source.getInt(offset + 4);
+        ByteBuffer arena = arenaFor(length);
+        long address = address(arenas.size() - 1, arena.position());
+        source.limit(offset + length).position(offset);
+        arena.put(source);
+        return address;
+    }
+
+    private ByteBuffer arenaFor(int length){
+        ByteBuffer arena = arenas.isEmpty() ? null : arenas.get(arenas.size() - 1);
+        if (arena == null || arena.remaining() < length){
+            int capacity = Math.max(arenaSize, length);
+            arena = offHeap ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+            arenas.add(arena);
+        }
+        return arena;
+    }
+
+    private boolean keyEquals(long address, byte[] keyBytes){
+        ByteBuffer arena = arenas.get(arenaOf(address));
+        int offset = offsetOf(address);
+        if (arena.getInt(offset) != keyBytes.length){
+            return false;
+        }
+        int start = offset + ENTRY_HEADER_SIZE;
+        for (int index = 0; index < keyBytes.length; index++) {
+            if (arena.get(start + index) != keyBytes[index]){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private DictionaryRecord materialize(long address){
+        ByteBuffer arena = arenas.get(arenaOf(address));
+        int offset = offsetOf(address);
+        int keyLength = arena.getInt(offset), wordLength = arena.getInt(offset + 4);
+        int start = offset + ENTRY_HEADER_SIZE;
+        if (arena.hasArray()){
+            byte[] array = arena.array();
+            int base = arena.arrayOffset() + start;
+            return new DictionaryRecord(
+                    new String(array, base, keyLength, StandardCharsets.UTF_8),
+                    new String(array, base + keyLength, wordLength, StandardCharsets.UTF_8));
+        }
+        byte[] bytes = new byte[keyLength + wordLength];
+        ByteBuffer view = arena.duplicate();
+        view.position(start);
+        view.get(bytes);
+        return new DictionaryRecord(
+                new String(bytes, 0, keyLength, StandardCharsets.UTF_8),
+                new String(bytes, keyLength, wordLength, StandardCharsets.UTF_8));
+    }
+
+    private long entrySize(long address){
+        ByteBuffer arena = arenas.get(arenaOf(address));
+        int offset = offsetOf(address);
+        return ENTRY_HEADER_SIZE + arena.getInt(offset) + arena.getInt(offset + 4);
+    }
+
+    private static long address(int arena, int offset){
+        return ((long) arena << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    private static int arenaOf(long address){
+        return (int) (address >>> 32);
+    }
+
+    private static int offsetOf(long address){
+        return (int) address;
+    }
+
+    private static int hash(String key){
+        int hash = key.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
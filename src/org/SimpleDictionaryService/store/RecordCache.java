@@ -0,0 +1,486 @@
+package org.SimpleDictionaryService.store;
+
+import org.SimpleDictionaryService.DictionaryRecord;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель ограниченного по количеству записей кэша записей словаря
+ * с настраиваемой политикой вытеснения и счетчиками попаданий, промахов и вытеснений.
+ */
+public class RecordCache {
+
+    private final int capacity;
+
+    private final EvictionPolicy policy;
+
+    private final Segments segments;
+
+    private long hitCount;
+
+    private long missCount;
+
+    private long evictionCount;
+
+    public RecordCache(int capacity, EvictionPolicy policy){
+        if (capacity <= 0){
+            throw new IllegalArgumentException("Cache capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.policy = policy;
+        switch (policy){
+            case LFU:
+                segments = new LfuSegments(capacity);
+                break;
+            case W_TINY_LFU:
+                segments = new WindowTinyLfuSegments(capacity);
+                break;
+            default:
+                segments = new LruSegments(capacity);
+        }
+    }
+
+    /**
+     * Назначением функции является поиск записи в кэше с учетом обращения к ней.
+     * @return
+     * Указатель на запись, null если запись отсутствует в кэше.
+     */
+    public synchronized DictionaryRecord get(String key){
+        DictionaryRecord record = segments.get(key);
+        if (record == null){
+            missCount++;
+        }else {
+            hitCount++;
+        }
+        return record;
+    }
+
+    /**
+     * Назначением функции является добавление записи в кэш или замена записи с тем же ключом.
+     */
+    public synchronized void put(DictionaryRecord record){
+        evictionCount += segments.put(record.getKey(), record);
+    }
+
+    /**
+     * Назначением функции является удаление записи из кэша, например после ее изменения.
+     */
+    public synchronized void invalidate(String key){
+        segments.remove(key);
+    }
+
+    public synchronized void clear(){
+        segments.clear();
+    }
+
+    public synchronized int size(){
+        return segments.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public EvictionPolicy getPolicy() {
+        return policy;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return
+     * Доля обращений, завершившихся попаданием, 0 если обращений не было.
+     */
+    public synchronized double getHitRatio(){
+        long requests = hitCount + missCount;
+        return requests == 0 ? 0 : (double) hitCount / requests;
+    }
+
+    public synchronized void resetCounters(){
+        hitCount = 0;
+        missCount = 0;
+        evictionCount = 0;
+    }
+
+    /**
+     * Интерфейс, являющий собой модель хранения записей кэша по политике вытеснения.
+     */
+    private interface Segments {
+
+        DictionaryRecord get(String key);
+
+        /**
+         * @return
+         * Количество вытесненных записей.
+         */
+        int put(String key, DictionaryRecord record);
+
+        void remove(String key);
+
+        void clear();
+
+        int size();
+    }
+
+    private static final class LruSegments implements Segments {
+
+        private final int capacity;
+
+        private final LinkedHashMap<String, DictionaryRecord> records = new LinkedHashMap<>(16, 0.75f, true);
+
+        private LruSegments(int capacity){
+            this.capacity = capacity;
+        }
+
+        @Override
+        public DictionaryRecord get(String key) {
+            return records.get(key);
+        }
+
+        @Override
+        public int put(String key, DictionaryRecord record) {
+            records.put(key, record);
+            if (records.size() > capacity){
+                Iterator<String> eldest = records.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                return 1;
+            }
+            return 0;
+        }
+
+        @Override
+        public void remove(String key) {
+            records.remove(key);
+        }
+
+        @Override
+        public void clear() {
+            records.clear();
+        }
+
+        @Override
+        public int size() {
+            return records.size();
+        }
+    }
+
+    private static final class LfuSegments implements Segments {
+
+        private final int capacity;
+
+        private final HashMap<String, LfuEntry> entries = new HashMap<>();
+
+        /**
+         * Ключи записей по количеству обращений, внутри одного количества - в порядке последнего обращения.
+         */
+        private final HashMap<Integer, LinkedHashSet<String>> keysByFrequency = new HashMap<>();
+
+        private int minimalFrequency;
+
+        private LfuSegments(int capacity){
+            this.capacity = capacity;
+        }
+
+        @Override
+        public DictionaryRecord get(String key) {
+            LfuEntry entry = entries.get(key);
+            if (entry == null){
+                return null;
+            }
+            touch(key, entry);
+            return entry.record;
+        }
+
+        private void touch(String key, LfuEntry entry){
+            LinkedHashSet<String> keys = keysByFrequency.get(entry.frequency);
+            keys.remove(key);
+            if (keys.isEmpty()){
+                keysByFrequency.remove(entry.frequency);
+                if (minimalFrequency == entry.frequency){
+                    minimalFrequency++;
+                }
+            }
+            entry.frequency++;
+            keysByFrequency.computeIfAbsent(entry.frequency, frequency -> new LinkedHashSet<>()).add(key);
+        }
+
+        @Override
+        public int put(String key, DictionaryRecord record) {
+            LfuEntry entry = entries.get(key);
+            if (entry != null){
+                entry.record = record;
+                touch(key, entry);
+                return 0;
+            }
+            int evicted = 0;
+            if (entries.size() >= capacity){
+                LinkedHashSet<String> keys = keysByFrequency.get(minimalFrequency);
+                Iterator<String> eldest = keys.iterator();
+                entries.remove(eldest.next());
+                eldest.remove();
+                if (keys.isEmpty()){
+                    keysByFrequency.remove(minimalFrequency);
+                }
+                evicted = 1;
+            }
+            entries.put(key, new LfuEntry(record));
+            keysByFrequency.computeIfAbsent(1, frequency -> new LinkedHashSet<>()).add(key);
+            minimalFrequency = 1;
+            return evicted;
+        }
+
+        @Override
+        public void remove(String key) {
+            LfuEntry entry = entries.remove(key);
+            if (entry == null){
+                return;
+            }
+            LinkedHashSet<String> keys = keysByFrequency.get(entry.frequency);
+            keys.remove(key);
+            if (keys.isEmpty()){
+                keysByFrequency.remove(entry.frequency);
+                if (minimalFrequency == entry.frequency){
+                    minimalFrequency = 0;
+                    for (Integer frequency : keysByFrequency.keySet()) {
+                        if (minimalFrequency == 0 || frequency < minimalFrequency){
+                            minimalFrequency = frequency;
+                        }
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void clear() {
+            entries.clear();
+            keysByFrequency.clear();
+            minimalFrequency = 0;
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+
+        private static final class LfuEntry {
+
+            private DictionaryRecord record;
+
+            private int frequency = 1;
+
+            private LfuEntry(DictionaryRecord record){
+                this.record = record;
+            }
+        }
+    }
+
+    private static final class WindowTinyLfuSegments implements Segments {
+
+        private final int windowCapacity;
+
+        private final int probationCapacity;
+
+        private final int protectedCapacity;
+
+        /**
+         * Окно новых записей, упорядоченное по последнему обращению.
+         */
+        private final LinkedHashMap<String, DictionaryRecord> window = new LinkedHashMap<>(16, 0.75f, true);
+
+        /**
+         * Записи основной области, к которым не обращались после допуска из окна.
+         */
+        private final LinkedHashMap<String, DictionaryRecord> probation = new LinkedHashMap<>(16, 0.75f, true);
+
+        /**
+         * Записи основной области, к которым обращались повторно.
+         */
+        private final LinkedHashMap<String, DictionaryRecord> protectedRecords = new LinkedHashMap<>(16, 0.75f, true);
+
+        private final FrequencySketch sketch;
+
+        private WindowTinyLfuSegments(int capacity){
+            this.windowCapacity = Math.max(1, capacity / 100);
+            int mainCapacity = capacity - windowCapacity;
+            this.protectedCapacity = mainCapacity * 4 / 5;
+            this.probationCapacity = mainCapacity - protectedCapacity;
+            this.sketch = new FrequencySketch(capacity);
+        }
+
+        @Override
+        public DictionaryRecord get(String key) {
+            sketch.increment(key);
+            DictionaryRecord record = window.get(key);
+            if (record != null){
+                return record;
+            }
+            record = protectedRecords.get(key);
+            if (record != null){
+                return record;
+            }
+            record = probation.remove(key);
+            if (record != null){
+                promote(key, record);
+            }
+            return record;
+        }
+
+        private void promote(String key, DictionaryRecord record){
+            protectedRecords.put(key, record);
+            if (protectedRecords.size() > protectedCapacity){
+                Iterator<Map.Entry<String, DictionaryRecord>> eldest = protectedRecords.entrySet().iterator();
+                Map.Entry<String, DictionaryRecord> demoted = eldest.next();
+                eldest.remove();
+                probation.put(demoted.getKey(), demoted.getValue());
+            }
+        }
+
+        @Override
+        public int put(String key, DictionaryRecord record) {
+            if (window.containsKey(key)){
+                window.put(key, record);
+                return 0;
+            }
+            if (protectedRecords.containsKey(key)){
+                protectedRecords.put(key, record);
+                return 0;
+            }
+            if (probation.containsKey(key)){
+                probation.put(key, record);
+                return 0;
+            }
+            window.put(key, record);
+            if (window.size() <= windowCapacity){
+                return 0;
+            }
+            Iterator<Map.Entry<String, DictionaryRecord>> eldest = window.entrySet().iterator();
+            Map.Entry<String, DictionaryRecord> candidate = eldest.next();
+            eldest.remove();
+            if (probation.size() + protectedRecords.size() < probationCapacity + protectedCapacity){
+                probation.put(candidate.getKey(), candidate.getValue());
+                return 0;
+            }
+            if (probation.isEmpty() && protectedRecords.isEmpty()){
+                return 1;
+            }
+            LinkedHashMap<String, DictionaryRecord> victims = probation.isEmpty() ? protectedRecords : probation;
+            Iterator<Map.Entry<String, DictionaryRecord>> victimIterator = victims.entrySet().iterator();
+            Map.Entry<String, DictionaryRecord> victim = victimIterator.next();
+            if (sketch.frequency(candidate.getKey()) > sketch.frequency(victim.getKey())){
+                victimIterator.remove();
+                probation.put(candidate.getKey(), candidate.getValue());
+            }
+            return 1;
+        }
+
+        @Override
+        public void remove(String key) {
+            if (window.remove(key) == null && probation.remove(key) == null){
+                protectedRecords.remove(key);
+            }
+        }
+
+        @Override
+        public void clear() {
+            window.clear();
+            probation.clear();
+            protectedRecords.clear();
+            sketch.clear();
+        }
+
+        @Override
+        public int size() {
+            return window.size() + probation.size() + protectedRecords.size();
+        }
+    }
+
+    /**
+     * Класс, являющий собой модель count-min скетча с четырьмя строками четырехбитных счетчиков. После
+     * количества увеличений, в десять раз превышающего емкость кэша, все счетчики уменьшаются вдвое.
+     */
+    private static final class FrequencySketch {
+
+        private static final int MAXIMAL_COUNT = 15;
+
+        private static final int[] SEEDS = {0x97cb3127, 0xb1ee2b3f, 0xd3a2646c, 0x5bd1e995};
+
+        private final byte[][] rows;
+
+        private final int mask;
+
+        private final int samplingSize;
+
+        private int additions;
+
+        private FrequencySketch(int capacity){
+            int width = Integer.highestOneBit(Math.max(16, capacity - 1) << 1);
+            this.rows = new byte[SEEDS.length][width];
+            this.mask = width - 1;
+            this.samplingSize = (int) Math.min(Integer.MAX_VALUE, 10L * capacity);
+        }
+
+        private void increment(String key){
+            int hash = key.hashCode();
+            boolean incremented = false;
+            for (int row = 0; row < rows.length; row++) {
+                int index = index(hash, row);
+                if (rows[row][index] < MAXIMAL_COUNT){
+                    rows[row][index]++;
+                    incremented = true;
+                }
+            }
+            if (incremented && ++additions >= samplingSize){
+                age();
+            }
+        }
+
+        private int frequency(String key){
+            int hash = key.hashCode();
+            int frequency = MAXIMAL_COUNT;
+            for (int row = 0; row < rows.length; row++) {
+                frequency = Math.min(frequency, rows[row][index(hash, row)]);
+            }
+            return frequency;
+        }
+
+        private int index(int hash, int row){
+            int mixed = (hash ^ SEEDS[row]) * 0x9e3779b9;
+            return (mixed ^ (mixed >>> 16)) & mask;
+        }
+
+        private void age(){
+            for (byte[] row : rows) {
+                for (int index = 0; index < row.length; index++) {
+                    row[index] = (byte) (row[index] >> 1);
+                }
+            }
+            additions /= 2;
+        }
+
+        private void clear(){
+            for (byte[] row : rows) {
+                Arrays.fill(row, (byte) 0);
+            }
+            additions = 0;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.SimpleDictionaryService.store;
+
+import org.SimpleDictionaryService.DictionaryRecord;
+
+import java.util.Collection;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Интерфейс, являющий собой модель хранилища записей словаря.
+ * Хранилище обязано сохранять порядок добавления записей, так как в этом порядке
+ * записи сохраняются на диск.
+ */
+public interface RecordStore {
+
+    /**
+     * Назначением функции является поиск записи по ключу.
+     * @param key
+     * Ключ искомой записи.
+     * @return
+     * Указатель на найденную запись, null в том случае, если запись с данным ключом отсутствует.
+     */
+    DictionaryRecord get(String key);
+
+    /**
+     * Назначением функции является определение, содержится ли запись с данным ключом в хранилище.
+     * @param key
+     * Ключ искомой записи.
+     * @return
+     * true, если запись с данным ключом содержится в хранилище, в противном случае false.
+     */
+    boolean containsKey(String key);
+
+    /**
+     * Назначением функции является добавление записи в том случае, если запись с таким же ключом отсутствует.
+     * @param record
+     * Указатель на добавляемую запись.
+     * @return
+     * true, если запись была добавлена, в противном случае false.
+     */
+    boolean putIfAbsent(DictionaryRecord record);
+
+    /**
+     * Назначением функции является добавление или замена записи. Замененная запись сохраняет
+     * свою позицию в порядке добавления.
+     * @param record
+     * Указатель на добавляемую запись.
+     * @return
+     * Указатель на замененную запись, null в том случае, если запись с данным ключом отсутствовала.
+     */
+    DictionaryRecord put(DictionaryRecord record);
+
+    /**
+     * Назначением функции является замена записи с таким же ключом в том случае, если она присутствует в хранилище.
+     * Замененная запись сохраняет свою позицию в порядке добавления.
+     * @param record
+     * Указатель на новую запись.
+     * @return
+     * Указатель на замененную запись, null в том случае, если запись с данным ключом отсутствовала.
+     */
+    DictionaryRecord replace(DictionaryRecord record);
+
+    /**
+     * Назначением функции является удаление записи по ключу.
+     * @param key
+     * Ключ удаляемой записи.
+     * @return
+     * Указатель на удаленную запись, null в том случае, если запись с данным ключом отсутствовала.
+     */
+    DictionaryRecord remove(String key);
+
+    /**
+     * @return
+     * Количество записей в хранилище.
+     */
+    int size();
+
+    /**
+     * Назначением функции является удаление всех записей из хранилища.
+     */
+    void clear();
+
+    /**
+     * @return
+     * Представление записей хранилища в порядке добавления, доступное только для чтения.
+     */
+    Collection<DictionaryRecord> records();
+
+    /**
+     * @return
+     * true, если хранилище допускает чтение, изменение и обход записей из нескольких потоков одновременно,
+     * в противном случае false. Записи такого хранилища можно записывать на диск в фоновом потоке.
+     */
+    default boolean isThreadSafe(){
+        return false;
+    }
+}
@@ -0,0 +1,227 @@
+package org.SimpleDictionaryService.store;
+
+import org.SimpleDictionaryService.DictionaryRecord;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Класс, являющий собой модель потокобезопасного хранилища записей.
+ * Чтение выполняется без блокировок, изменения записей с ключами из разных полос блокировок
+ * выполняются параллельно. Порядок добавления хранится в виде порядковых номеров записей.
+ */
+public class StripedRecordStore implements RecordStore {
+
+    public static final int DEFAULT_STRIPES_COUNT = 64;
+
+    /**
+     * Класс, являющий собой модель узла хранилища.
+     */
+    private static final class Node {
+
+        /**
+         * Порядковый номер добавления записи.
+         */
+        private final long sequence;
+
+        /**
+         * Текущая запись узла.
+         */
+        private volatile DictionaryRecord record;
+
+        private Node(long sequence, DictionaryRecord record){
+            this.sequence = sequence;
+            this.record = record;
+        }
+    }
+
+    /**
+     * Отображение ключей на узлы хранилища.
+     */
+    private final ConcurrentHashMap<String, Node> index = new ConcurrentHashMap<>();
+
+    /**
+     * Отображение порядковых номеров добавления на узлы хранилища.
+     */
+    private final ConcurrentSkipListMap<Long, Node> order = new ConcurrentSkipListMap<>();
+
+    /**
+     * Счетчик порядковых номеров добавления.
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Полосы блокировок изменения записей.
+     */
+    private final ReentrantLock[] stripes;
+
+    public StripedRecordStore(int stripesCount){
+        int size = Integer.highestOneBit(Math.max(1, stripesCount - 1) << 1);
+        this.stripes = new ReentrantLock[size];
+        for (int counter = 0; counter < size; counter++) {
+            stripes[counter] = new ReentrantLock();
+        }
+    }
+
+    public StripedRecordStore(){
+        this(DEFAULT_STRIPES_COUNT);
+    }
+
+    @Override
+    public DictionaryRecord get(String key) {
+        Node node = index.get(key);
+        return node == null ? null : node.record;
+    }
+
+    @Override
+    public boolean containsKey(String key) {
+        return index.containsKey(key);
+    }
+
+    @Override
+    public boolean putIfAbsent(DictionaryRecord record) {
+        ReentrantLock lock = stripeOf(record.getKey());
+        lock.lock();
+        try {
+            if (index.containsKey(record.getKey())){
+                return false;
+            }
+            insert(record);
+            return true;
+        }finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public DictionaryRecord put(DictionaryRecord record) {
+        ReentrantLock lock = stripeOf(record.getKey());
+        lock.lock();
+        try {
+            Node node = index.get(record.getKey());
+            if (node == null){
+                insert(record);
+                return null;
+            }
+            DictionaryRecord previous = node.record;
+            node.record = record;
+            return previous;
+        }finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public DictionaryRecord replace(DictionaryRecord record) {
+        ReentrantLock lock = stripeOf(record.getKey());
+        lock.lock();
+        try {
+            Node node = index.get(record.getKey());
+            if (node == null){
+                return null;
+            }
+            DictionaryRecord previous = node.record;
+            node.record = record;
+            return previous;
+        }finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public DictionaryRecord remove(String key) {
+        ReentrantLock lock = stripeOf(key);
+        lock.lock();
+        try {
+            Node node = index.remove(key);
+            if (node == null){
+                return null;
+            }
+            order.remove(node.sequence);
+            return node.record;
+        }finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public void clear() {
+        for (ReentrantLock lock : stripes) {
+            lock.lock();
+        }
+        try {
+            index.clear();
+            order.clear();
+        }finally {
+            for (ReentrantLock lock : stripes) {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    /**
+     * @return
+     * Слабо согласованное представление записей хранилища в порядке добавления, доступное только для чтения.
+     * Обход представления не блокирует изменения хранилища.
+     */
+    @Override
+    public Collection<DictionaryRecord> records() {
+        return new AbstractCollection<DictionaryRecord>() {
+            @Override
+            public Iterator<DictionaryRecord> iterator() {
+                Iterator<Node> nodes = order.values().iterator();
+                return new Iterator<DictionaryRecord>() {
+                    @Override
+                    public boolean hasNext() {
+                        return nodes.hasNext();
+                    }
+
+                    @Override
+                    public DictionaryRecord next() {
+                        return nodes.next().record;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return index.size();
+            }
+        };
+    }
+
+    /**
+     * Назначением функции является добавление нового узла. Вызывается при удерживаемой полосе блокировки ключа.
+     */
+    private void insert(DictionaryRecord record){
+        Node node = new Node(sequence.incrementAndGet(), record);
+        order.put(node.sequence, node);
+        index.put(record.getKey(), node);
+    }
+
+    /**
+     * Назначением функции является определение полосы блокировки ключа.
+     */
+    private ReentrantLock stripeOf(String key){
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+}
@@ -0,0 +1,8 @@
+package org.SimpleDictionaryService.throwable;
+
+public class KeyConflictException extends Exception{
+
+    public KeyConflictException(String message){
+        super(message);
+    }
+}
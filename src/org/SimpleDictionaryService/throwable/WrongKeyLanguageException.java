@@ -1,4 +1,12 @@
 package org.SimpleDictionaryService.throwable;
 
 public class WrongKeyLanguageException extends WrongLanguageException{
+
+    public WrongKeyLanguageException(){
+
+    }
+
+    public WrongKeyLanguageException(String message){
+        super(message);
+    }
 }
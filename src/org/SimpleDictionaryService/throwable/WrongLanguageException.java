@@ -1,4 +1,12 @@
 package org.SimpleDictionaryService.throwable;
 
 public class WrongLanguageException extends Exception{
+
+    public WrongLanguageException(){
+
+    }
+
+    public WrongLanguageException(String message){
+        super(message);
+    }
 }
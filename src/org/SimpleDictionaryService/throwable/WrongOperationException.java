@@ -0,0 +1,8 @@
+package org.SimpleDictionaryService.throwable;
+
+public class WrongOperationException extends Exception{
+
+    public WrongOperationException(String message){
+        super(message);
+    }
+}
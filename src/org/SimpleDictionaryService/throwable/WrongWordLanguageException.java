@@ -1,4 +1,12 @@
 package org.SimpleDictionaryService.throwable;
 
 public class WrongWordLanguageException extends WrongLanguageException{
+
+    public WrongWordLanguageException(){
+
+    }
+
+    public WrongWordLanguageException(String message){
+        super(message);
+    }
 }
@@ -0,0 +1,94 @@
+package org.SimpleDictionaryService;
+
+import org.SimpleDictionaryService.language.Language;
+import org.SimpleEncodings.Encoding;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Тесты неблокирующего доступа к сервису словарей: результат изменения при типе HARD завершается только после
+ * записи изменения на диск, а ошибка записи завершает результаты изменений с IOException.
+ */
+public class AsyncDictionaryServiceTest {
+
+    private static final int MUTATIONS_COUNT = 50;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test(expected = IllegalArgumentException.class)
+    public void serviceWithoutThreadSafeStoreIsRejected() throws Exception {
+        new AsyncDictionaryService(new DictionaryService(dictionaryOf(newDictionaryFile(), Encoding.DEFAULT_UTF8), ExecutionStyle.HARD));
+    }
+
+    @Test
+    public void hardChangesArePersistedBeforeCompletion() throws Exception {
+        File file = newDictionaryFile();
+        ConcurrentDictionaryService service = new ConcurrentDictionaryService(dictionaryOf(file, Encoding.DEFAULT_UTF8), ExecutionStyle.HARD);
+        service.setAsynchronousPersistence(true);
+        AsyncDictionaryService asyncService = new AsyncDictionaryService(service);
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int counter = 0; counter < MUTATIONS_COUNT; counter++) {
+            String key = "key" + (char) ('a' + counter % 26) + (char) ('a' + counter / 26);
+            results.add(asyncService.createRecord(new DictionaryRecord(key, "word")).thenApply(created -> {
+                assertTrue(fileContains(file, key + " word"));
+                return created;
+            }));
+        }
+        for (CompletableFuture<Boolean> result : results) {
+            assertTrue(result.get());
+        }
+        asyncService.close().get();
+        service.close();
+    }
+
+    @Test
+    public void failedWriteCompletesChangesExceptionally() throws Exception {
+        File file = newDictionaryFile();
+        ConcurrentDictionaryService service = new ConcurrentDictionaryService(dictionaryOf(file, Encoding.DEFAULT_ASCII), ExecutionStyle.HARD);
+        AsyncDictionaryService asyncService = new AsyncDictionaryService(service);
+        try {
+            asyncService.createRecord(new DictionaryRecord("plum", "слива")).get();
+            fail("Change completed although the dictionary was not written");
+        }catch (ExecutionException exception){
+            assertTrue(exception.getCause() instanceof IOException);
+        }
+        assertEquals("apple fruit", new String(Files.readAllBytes(file.toPath()), StandardCharsets.US_ASCII).trim());
+        asyncService.close().get();
+    }
+
+    private File newDictionaryFile() throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), ("apple fruit" + System.lineSeparator()).getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+
+    private static Dictionary dictionaryOf(File file, Encoding encoding){
+        return new Dictionary(file.getPath(), encoding, Language.UNICODE_LATIN, Language.UNICODE_LATIN, " ");
+    }
+
+    private static boolean fileContains(File file, String line){
+        try {
+            return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).contains(line);
+        }catch (IOException exception){
+            throw new AssertionError(exception);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package org.SimpleDictionaryService;
+
+import org.SimpleDictionaryService.language.Language;
+import org.SimpleEncodings.Encoding;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Нагрузочный тест потокобезопасного сервиса словарей: несколько потоков добавляют, изменяют и удаляют записи
+ * со своими ключами при типе выполнения операций HARD. После каждой операции поток проверяет, что его изменение
+ * уже записано на диск, а после завершения всех потоков проверяются состояние сервиса и заново загруженный словарь.
+ */
+public class ConcurrentDictionaryServiceStressTest {
+
+    private static final int THREADS_COUNT = 8;
+
+    private static final int OPERATIONS_COUNT = 60;
+
+    private static final int KEYS_PER_THREAD = 6;
+
+    private static final int INITIAL_RECORDS_COUNT = 50;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void concurrentChangesArePersistedBeforeReturn() throws Exception {
+        File file = folder.newFile("dictionary.txt");
+        StringBuilder content = new StringBuilder();
+        Map<String, String> expected = new HashMap<>();
+        for (int i = 0; i < INITIAL_RECORDS_COUNT; i++) {
+            String key = "initial" + letters(i);
+            content.append(key).append(' ').append("word").append(letters(i)).append('\n');
+            expected.put(key, "word" + letters(i));
+        }
+        Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+        Dictionary dictionary = dictionaryOf(file);
+        ConcurrentDictionaryService service = new ConcurrentDictionaryService(dictionary, ExecutionStyle.HARD, 4);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS_COUNT);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Map<String, String>>> results = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < THREADS_COUNT; thread++) {
+                int threadNumber = thread;
+                results.add(executor.submit((Callable<Map<String, String>>) () -> {
+                    start.await();
+                    return runOperations(service, dictionary, threadNumber);
+                }));
+            }
+            start.countDown();
+            for (Future<Map<String, String>> result : results) {
+                expected.putAll(result.get());
+            }
+        }finally {
+            executor.shutdownNow();
+        }
+        expected.values().removeIf(word -> word == null);
+
+        assertEquals(expected, contentsOf(service));
+        assertEquals(expected, readFile(dictionary));
+        DictionaryService reloaded = new DictionaryService(dictionaryOf(file), ExecutionStyle.LAZY);
+        assertEquals(expected, contentsOf(reloaded));
+        service.close();
+        reloaded.close();
+    }
+
+    /**
+     * @return
+     * Итоговые значения ключей потока, для удаленных ключей - null.
+     */
+    private static Map<String, String> runOperations(ConcurrentDictionaryService service, Dictionary dictionary, int threadNumber) throws Exception {
+        Random random = new Random(threadNumber);
+        Map<String, String> state = new HashMap<>();
+        for (int operation = 0; operation < OPERATIONS_COUNT; operation++) {
+            String key = "thread" + letters(threadNumber) + "key" + letters(random.nextInt(KEYS_PER_THREAD));
+            String word = "word" + letters(operation);
+            if (state.get(key) == null){
+                service.createRecord(new DictionaryRecord(key, word));
+                state.put(key, word);
+            }else if (random.nextBoolean()){
+                service.updateRecord(key, word);
+                state.put(key, word);
+            }else {
+                service.deleteRecord(key);
+                state.put(key, null);
+            }
+            assertEquals(state.get(key), readFile(dictionary).get(key));
+        }
+        return state;
+    }
+
+    private static Dictionary dictionaryOf(File file){
+        return new Dictionary(file.getPath(), Encoding.DEFAULT_UTF8, Language.UNICODE_LATIN, Language.UNICODE_LATIN, " ");
+    }
+
+    private static Map<String, String> contentsOf(DictionaryService service){
+        Map<String, String> contents = new HashMap<>();
+        for (DictionaryRecord record : service.getDictionaryData()) {
+            contents.put(record.getKey(), record.getWord());
+        }
+        return contents;
+    }
+
+    private static Map<String, String> readFile(Dictionary dictionary) throws Exception {
+        Map<String, String> contents = new HashMap<>();
+        for (String line : Files.readAllLines(dictionary.toPath(), StandardCharsets.UTF_8)) {
+            int separator = line.indexOf(' ');
+            if (separator > 0){
+                contents.put(line.substring(0, separator), line.substring(separator + 1));
+            }
+        }
+        return contents;
+    }
+
+    /**
+     * @return
+     * Запись числа латинскими буквами, чтобы ключи и значения принадлежали языку словаря.
+     */
+    private static String letters(int number){
+        StringBuilder letters = new StringBuilder();
+        do {
+            letters.append((char) ('a' + number % 10));
+            number /= 10;
+        }while (number > 0);
+        return letters.toString();
+    }
+}
@@ -0,0 +1,104 @@
+package org.SimpleDictionaryService;
+
+import org.SimpleDictionaryService.language.Language;
+import org.SimpleEncodings.Encoding;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Тесты реестра словарей: изменения, поданные во время повторной загрузки словаря, либо переносятся в новый
+ * сервис, либо отклоняются прежним сервисом, но никогда не теряются после подтверждения.
+ */
+public class DictionaryRegistryTest {
+
+    private static final int RELOADS_COUNT = 5;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void acknowledgedChangesSurviveReload() throws Exception {
+        for (ExecutionStyle style : new ExecutionStyle[]{ExecutionStyle.HARD, ExecutionStyle.JOURNAL}) {
+            File file = folder.newFile("dictionary-" + style.name().toLowerCase() + ".txt");
+            Files.write(file.toPath(), "apple fruit\n".getBytes(StandardCharsets.UTF_8));
+            DictionaryRegistry registry = new DictionaryRegistry(style);
+            registry.open("fruits", dictionaryOf(file)).get();
+
+            List<String> acknowledged = new ArrayList<>();
+            AtomicBoolean running = new AtomicBoolean(true);
+            Thread writer = new Thread(() -> {
+                for (int counter = 0; running.get(); counter++) {
+                    String key = "key" + letters(counter);
+                    try {
+                        registry.get("fruits").createRecord(new DictionaryRecord(key, "word"));
+                        acknowledged.add(key);
+                    }catch (IllegalStateException exception){
+                        // прежний сервис уже заменяется, изменение не подтверждено
+                    }
+                }
+            });
+            writer.start();
+            for (int reload = 0; reload < RELOADS_COUNT; reload++) {
+                Thread.sleep(20);
+                registry.reload("fruits").get();
+            }
+            running.set(false);
+            writer.join();
+
+            DictionaryService service = registry.get("fruits");
+            assertNotEquals(0, acknowledged.size());
+            for (String key : acknowledged) {
+                assertEquals(style + " " + key, "word", service.readRecord(key).getWord());
+            }
+            registry.close();
+        }
+    }
+
+    @Test
+    public void replacedServiceRejectsChanges() throws Exception {
+        File file = folder.newFile("dictionary.txt");
+        Files.write(file.toPath(), "apple fruit\n".getBytes(StandardCharsets.UTF_8));
+        DictionaryRegistry registry = new DictionaryRegistry(ExecutionStyle.HARD);
+        DictionaryService previous = registry.open("fruits", dictionaryOf(file)).get();
+        DictionaryService current = registry.reload("fruits").get();
+        assertTrue(previous.isFrozen());
+        try {
+            previous.createRecord(new DictionaryRecord("pear", "fruit"));
+            fail("Replaced service accepted a change");
+        }catch (IllegalStateException exception){
+            // ожидаемый отказ
+        }
+        current.createRecord(new DictionaryRecord("pear", "fruit"));
+        assertEquals("fruit", current.readRecord("pear").getWord());
+        registry.close();
+    }
+
+    private static Dictionary dictionaryOf(File file){
+        return new Dictionary(file.getPath(), Encoding.DEFAULT_UTF8, Language.UNICODE_LATIN, Language.UNICODE_LATIN, " ");
+    }
+
+    private static String letters(int number){
+        StringBuilder letters = new StringBuilder();
+        do {
+            letters.append((char) ('a' + number % 10));
+            number /= 10;
+        }while (number > 0);
+        return letters.toString();
+    }
+}
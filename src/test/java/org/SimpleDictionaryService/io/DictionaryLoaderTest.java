@@ -0,0 +1,119 @@
+package org.SimpleDictionaryService.io;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.DictionaryRecord;
+import org.SimpleDictionaryService.language.Language;
+import org.SimpleEncodings.Encoding;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Тесты загрузки словарей с переводами строк "\r" и "\r\n": при любом размере окна и любом разбиении файла
+ * на части загружаются те же записи и строки, что и при разборе файла целиком, а "\r\n" не разделяется
+ * между окнами или частями.
+ */
+public class DictionaryLoaderTest {
+
+    private static final int RECORDS_COUNT = 40;
+
+    private static final int[] WINDOW_SIZES = {16, 17, 23, 32, 64, 1024};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void carriageReturnOnlyLinesAreLoaded() throws Exception {
+        checkLoaders(contentOf("\r"));
+    }
+
+    @Test
+    public void carriageReturnLineFeedIsNotSplit() throws Exception {
+        checkLoaders(contentOf("\r\n"));
+    }
+
+    @Test
+    public void mixedLineEndsAreLoaded() throws Exception {
+        StringBuilder content = new StringBuilder();
+        String[] lineEnds = {"\r", "\n", "\r\n"};
+        for (int i = 0; i < RECORDS_COUNT; i++) {
+            content.append("key").append(letters(i)).append(' ').append("word").append(letters(i)).append(lineEnds[i % lineEnds.length]);
+        }
+        checkLoaders(content.toString());
+    }
+
+    private void checkLoaders(String content) throws Exception {
+        Dictionary dictionary = dictionaryOf(content);
+        Map<String, String> expected = new LinkedHashMap<>();
+        for (int i = 0; i < RECORDS_COUNT; i++) {
+            expected.put("key" + letters(i), "word" + letters(i));
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int windowSize : WINDOW_SIZES) {
+                checkLoader(new DictionaryLoader(windowSize), dictionary, expected);
+                for (long chunkSize = 1; chunkSize <= 64; chunkSize *= 2) {
+                    checkLoader(new ParallelDictionaryLoader(pool, chunkSize, windowSize), dictionary, expected);
+                }
+            }
+        }finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void checkLoader(DictionaryLoader loader, Dictionary dictionary, Map<String, String> expected) throws Exception {
+        List<DictionaryRecord> records = new ArrayList<>();
+        loader.setMalformedLineHandler((lineNumber, line, reason) -> {
+            throw new AssertionError("Malformed line " + lineNumber + " (" + reason + "): " + line);
+        });
+        LoadStatistics statistics = loader.load(dictionary, records::add);
+        Map<String, String> loaded = new LinkedHashMap<>();
+        for (DictionaryRecord record : records) {
+            loaded.put(record.getKey(), record.getWord());
+        }
+        assertEquals(expected, loaded);
+        assertEquals(RECORDS_COUNT, statistics.getRecordsCount());
+        assertEquals(RECORDS_COUNT, statistics.getLinesCount());
+    }
+
+    private Dictionary dictionaryOf(String content) throws Exception {
+        File file = folder.newFile();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return new Dictionary(file.getPath(), Encoding.DEFAULT_UTF8, Language.UNICODE_LATIN, Language.UNICODE_LATIN, " ");
+    }
+
+    private static String contentOf(String lineEnd){
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < RECORDS_COUNT; i++) {
+            content.append("key").append(letters(i)).append(' ').append("word").append(letters(i)).append(lineEnd);
+        }
+        return content.toString();
+    }
+
+    /**
+     * @return
+     * Запись числа латинскими буквами, чтобы ключи и значения принадлежали языку словаря.
+     */
+    private static String letters(int number){
+        StringBuilder letters = new StringBuilder();
+        do {
+            letters.append((char) ('a' + number % 10));
+            number /= 10;
+        }while (number > 0);
+        return letters.toString();
+    }
+}
@@ -0,0 +1,65 @@
+package org.SimpleDictionaryService.io;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.DictionaryRecord;
+import org.SimpleDictionaryService.language.Language;
+import org.SimpleEncodings.Encoding;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Тесты атомарной записи файла - словаря: замена файла сохраняет его права доступа, а запись, которую нельзя
+ * закодировать в кодировке словаря, оставляет файл неизменным.
+ */
+public class DictionaryWriterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void replacedFileKeepsPermissions() throws Exception {
+        File file = folder.newFile("dictionary.txt");
+        assumeTrue(Files.getFileAttributeView(file.toPath(), PosixFileAttributeView.class) != null);
+        Files.setPosixFilePermissions(file.toPath(), PosixFilePermissions.fromString("rw-r-----"));
+        new DictionaryWriter().write(dictionaryOf(file, Encoding.DEFAULT_UTF8), Collections.singletonList(new DictionaryRecord("apple", "fruit")));
+        assertEquals("rw-r-----", PosixFilePermissions.toString(Files.getPosixFilePermissions(file.toPath())));
+    }
+
+    @Test
+    public void unencodableRecordLeavesFileUntouched() throws Exception {
+        File file = folder.newFile("dictionary.txt");
+        byte[] content = ("apple fruit" + System.lineSeparator()).getBytes(StandardCharsets.US_ASCII);
+        Files.write(file.toPath(), content);
+        try {
+            new DictionaryWriter().write(dictionaryOf(file, Encoding.DEFAULT_ASCII),
+                    Arrays.asList(new DictionaryRecord("pear", "fruit"), new DictionaryRecord("plum", "слива")));
+            fail("Unencodable record was written");
+        }catch (IOException exception){
+            // ожидаемая ошибка кодирования
+        }
+        assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+        assertEquals(1, folder.getRoot().list().length);
+    }
+
+    private static Dictionary dictionaryOf(File file, Encoding encoding){
+        return new Dictionary(file.getPath(), encoding, Language.UNICODE_LATIN, Language.UNICODE_LATIN, " ");
+    }
+}
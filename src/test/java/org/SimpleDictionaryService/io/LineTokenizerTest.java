@@ -0,0 +1,28 @@
+package org.SimpleDictionaryService.io;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Тесты поиска границ строк: окно без конца строки увеличивается до наибольшего размера, после чего
+ * строка считается слишком длинной, а не просматривается повторно.
+ */
+public class LineTokenizerTest {
+
+    @Test
+    public void windowGrowsUpToMaximalSize() throws IOException {
+        assertEquals(2048, LineTokenizer.grownWindowSize(1024));
+        assertEquals(LineTokenizer.MAX_WINDOW_SIZE, LineTokenizer.grownWindowSize(LineTokenizer.MAX_WINDOW_SIZE / 2 + 1));
+    }
+
+    @Test(expected = IOException.class)
+    public void windowOfMaximalSizeDoesNotGrow() throws IOException {
+        LineTokenizer.grownWindowSize(LineTokenizer.MAX_WINDOW_SIZE);
+    }
+}
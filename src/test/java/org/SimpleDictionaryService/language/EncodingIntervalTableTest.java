@@ -0,0 +1,72 @@
+package org.SimpleDictionaryService.language;
+
+import org.SimpleEncodings.Encoding;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Тесты таблицы интервалов кодировки: символы, попадающие в несколько пересекающихся интервалов,
+ * должны принадлежать таблице и учитываться языком ровно один раз.
+ */
+public class EncodingIntervalTableTest {
+
+    @Test
+    public void overlappingIntervalsContainEveryCodeOnce(){
+        EncodingIntervalTable table = new EncodingIntervalTable(Encoding.DEFAULT_UTF8,
+                new int[]{80, 100}, new int[]{65, 90}, new int[]{85, 87});
+        for (int code = 65; code <= 100; code++) {
+            assertTrue("code " + code, table.contains(code));
+        }
+        assertFalse(table.contains(64));
+        assertFalse(table.contains(101));
+    }
+
+    @Test
+    public void nestedAndAdjacentIntervalsAreMerged(){
+        EncodingIntervalTable table = new EncodingIntervalTable(Encoding.DEFAULT_UTF8,
+                new int[]{1040, 1103}, new int[]{1050, 1060}, new int[]{1104, 1105}, new int[]{1025, 1025});
+        assertTrue(table.contains(1025));
+        assertFalse(table.contains(1026));
+        assertTrue(table.contains(1040));
+        assertTrue(table.contains(1055));
+        assertTrue(table.contains(1105));
+        assertFalse(table.contains(1106));
+    }
+
+    @Test
+    public void overlappingIntervalsOutsideBasicPlane(){
+        EncodingIntervalTable table = new EncodingIntervalTable(Encoding.DEFAULT_UTF8,
+                new int[]{0x1F605, 0x1F620}, new int[]{0x1F600, 0x1F610}, new int[]{0x1F700, 0x1F705});
+        assertFalse(table.contains(0x1F5FF));
+        for (int code = 0x1F600; code <= 0x1F620; code++) {
+            assertTrue(Integer.toHexString(code), table.contains(code));
+        }
+        assertFalse(table.contains(0x1F621));
+        assertTrue(table.contains(0x1F703));
+        assertFalse(table.contains(0x1F706));
+    }
+
+    @Test
+    public void changedIntervalsAreRecompiled(){
+        EncodingIntervalTable table = new EncodingIntervalTable(Encoding.DEFAULT_UTF8, new int[]{65, 90});
+        assertTrue(table.contains(70));
+        table.setIntervals(new int[][]{{97, 122}, {100, 110}});
+        assertFalse(table.contains(70));
+        assertTrue(table.contains(105));
+    }
+
+    @Test
+    public void languageCountsSymbolsInOverlappingIntervalsOnce(){
+        Language language = new Language(new EncodingIntervalTable(Encoding.DEFAULT_UTF8,
+                new int[]{65, 90}, new int[]{97, 122}, new int[]{80, 100}, new int[]{97, 110}));
+        assertEquals(5, language.countOfMatches("PaZbd", Encoding.DEFAULT_UTF8));
+        assertEquals(3, language.countOfMatches("Pa1" + (char) 1040 + "b", Encoding.DEFAULT_UTF8));
+        assertEquals(0, language.countOfMatches("PaZbd", Encoding.DEFAULT_UTF16LE));
+    }
+}
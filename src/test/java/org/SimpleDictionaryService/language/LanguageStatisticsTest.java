@@ -0,0 +1,72 @@
+package org.SimpleDictionaryService.language;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.DictionaryRecord;
+import org.SimpleDictionaryService.io.LoadStatistics;
+import org.SimpleEncodings.Encoding;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Тесты счетчиков соответствия записей языкам словаря для языков с пересекающимися интервалами:
+ * символ, попадающий в несколько интервалов, учитывается один раз, и доли соответствия не превышают единицы.
+ */
+public class LanguageStatisticsTest {
+
+    private static final double DELTA = 1e-9;
+
+    private static final Language OVERLAPPING_LATIN = new Language(
+            new EncodingIntervalTable(Encoding.DEFAULT_UTF8, new int[]{65, 90}, new int[]{97, 122}, new int[]{70, 110}));
+
+    private static final Dictionary DICTIONARY = new Dictionary("overlapping.txt", Encoding.DEFAULT_UTF8,
+            OVERLAPPING_LATIN, OVERLAPPING_LATIN, " ");
+
+    @Test
+    public void scoreCountsSymbolsInOverlappingIntervalsOnce(){
+        LanguageStatistics.Score score = LanguageStatistics.Score.of(new DictionaryRecord("Zebra", "Kiwi1"), DICTIONARY);
+        assertEquals(5, score.getKeyLength());
+        assertEquals(5, score.getKeyMatches());
+        assertEquals(5, score.getWordLength());
+        assertEquals(4, score.getWordMatches());
+        assertTrue(score.isKeyValid());
+        assertTrue(score.isWordValid());
+    }
+
+    @Test
+    public void ratiosOfOverlappingIntervalsDoNotExceedOne(){
+        LanguageStatistics statistics = new LanguageStatistics();
+        statistics.recordChanged(null, LanguageStatistics.Score.of(new DictionaryRecord("Maple", "Fig"), DICTIONARY));
+        statistics.recordChanged(null, LanguageStatistics.Score.of(new DictionaryRecord("Lemon", "Plum22"), DICTIONARY));
+        assertEquals(2, statistics.getRecordsCount());
+        assertEquals(1.0, statistics.getKeyLanguageRatio(), DELTA);
+        assertEquals(7.0 / 9.0, statistics.getWordLanguageRatio(), DELTA);
+        LoadStatistics counters = statistics.toLoadStatistics();
+        assertEquals(10, counters.getKeySymbolsCount());
+        assertEquals(10, counters.getKeySymbolsLanguageMatches());
+        assertEquals(9, counters.getWordSymbolsCount());
+        assertEquals(7, counters.getWordSymbolsLanguageMatches());
+    }
+
+    @Test
+    public void replacedAndRemovedRecordsRestoreCounters(){
+        LanguageStatistics statistics = new LanguageStatistics();
+        LanguageStatistics.Score first = LanguageStatistics.Score.of(new DictionaryRecord("Hello", "World"), DICTIONARY);
+        LanguageStatistics.Score second = LanguageStatistics.Score.of(new DictionaryRecord("Hello", "Mn0"), DICTIONARY);
+        statistics.recordChanged(null, first);
+        statistics.recordChanged(first, second);
+        assertEquals(1, statistics.getRecordsCount());
+        assertEquals(2.0 / 3.0, statistics.getWordLanguageRatio(), DELTA);
+        statistics.recordChanged(second, null);
+        LoadStatistics counters = statistics.toLoadStatistics();
+        assertEquals(0, counters.getRecordsCount());
+        assertEquals(0, counters.getKeySymbolsCount());
+        assertEquals(0, counters.getKeySymbolsLanguageMatches());
+        assertEquals(0, counters.getWordSymbolsCount());
+        assertEquals(0, counters.getWordSymbolsLanguageMatches());
+    }
+}
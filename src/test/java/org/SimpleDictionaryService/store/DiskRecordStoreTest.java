@@ -0,0 +1,89 @@
+package org.SimpleDictionaryService.store;
+
+import org.SimpleDictionaryService.Dictionary;
+import org.SimpleDictionaryService.DictionaryRecord;
+import org.SimpleDictionaryService.io.CodeUnits;
+import org.SimpleDictionaryService.io.DictionaryCharsets;
+import org.SimpleDictionaryService.io.LineTokenizer;
+import org.SimpleDictionaryService.io.LoadStatistics;
+import org.SimpleDictionaryService.io.MalformedLineHandler;
+import org.SimpleDictionaryService.language.Language;
+import org.SimpleEncodings.Encoding;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Savchenko Kirill
+ * @version 1.0
+ *
+ * Тесты хранилища, читающего записи из файла - словаря: строки разделяются так же, как в LineTokenizer,
+ * то есть концом строки считаются "\n", "\r" и "\r\n", в том числе на границе буфера чтения.
+ */
+public class DiskRecordStoreTest {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void mixedLineEndsInUtf8(){
+        checkMixedLineEnds(Encoding.DEFAULT_UTF8);
+    }
+
+    @Test
+    public void mixedLineEndsInUtf16(){
+        checkMixedLineEnds(Encoding.DEFAULT_UTF16LE);
+        checkMixedLineEnds(Encoding.DEFAULT_UTF16BE);
+    }
+
+    private void checkMixedLineEnds(Encoding encoding){
+        try {
+            int width = CodeUnits.forEncoding(encoding).getWidth();
+            StringBuilder text = new StringBuilder("alpha one\rbeta two\r\ngamma three\n\r\ndelta four\r\repsilon five\n");
+            int padding = READ_BUFFER_SIZE / width - text.length() - "padding ".length() - 1;
+            StringBuilder filler = new StringBuilder();
+            for (int counter = 0; counter < padding; counter++) {
+                filler.append('x');
+            }
+            text.append("padding ").append(filler).append("\r\nzeta six\rfinal seven");
+            File file = folder.newFile();
+            byte[] bytes = text.toString().getBytes(DictionaryCharsets.forEncoding(encoding));
+            assertEquals('\r', CodeUnits.forEncoding(encoding).unitAt(bytes, READ_BUFFER_SIZE - width));
+            Files.write(file.toPath(), bytes);
+            Dictionary dictionary = new Dictionary(file.getPath(), encoding, Language.UNICODE_LATIN, Language.UNICODE_LATIN, " ");
+
+            List<DictionaryRecord> expected = new ArrayList<>();
+            long linesCount = new LineTokenizer(" ", CodeUnits.forEncoding(encoding)).tokenize(bytes, bytes.length, 1, expected, MalformedLineHandler.IGNORE);
+            DiskRecordStore store = new DiskRecordStore();
+            LoadStatistics statistics = store.open(dictionary);
+            assertEquals(linesCount, statistics.getLinesCount());
+            assertEquals(expected.size(), store.size());
+            Map<String, String> records = new LinkedHashMap<>();
+            for (DictionaryRecord record : store.records()) {
+                records.put(record.getKey(), record.getWord());
+            }
+            Map<String, String> expectedRecords = new LinkedHashMap<>();
+            for (DictionaryRecord record : expected) {
+                expectedRecords.put(record.getKey(), record.getWord());
+                assertEquals(record.getWord(), store.get(record.getKey()).getWord());
+            }
+            assertEquals(new ArrayList<>(expectedRecords.entrySet()), new ArrayList<>(records.entrySet()));
+            assertEquals("six", store.get("zeta").getWord());
+            assertEquals("five", store.get("epsilon").getWord());
+            store.close();
+        }catch (Exception exception){
+            throw new AssertionError(encoding.toString(), exception);
+        }
+    }
+}